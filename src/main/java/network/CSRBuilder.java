@@ -0,0 +1,153 @@
+package main.java.network;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * エッジバッファ群からCSR形式のGraphを並列に構築するクラス
+ * 次数の並列カウント → addressListのプレフィックス和 → edgeListへの並列スキャッタの順に処理する
+ * 各ノードの隣接リストは最後にソートされるため、結果はスレッド数に依存しない
+ */
+public final class CSRBuilder {
+
+    private CSRBuilder() {
+    }
+
+    /**
+     * 無向エッジの集合からGraphを構築
+     * @param N ノード数
+     * @param buffers エッジバッファ（各エッジは両方向に登録される）
+     * @param threads スレッド数
+     * @return 構築されたGraphインスタンス
+     */
+    public static Graph build(int N, EdgeBuffer[] buffers, int threads) {
+        if (N <= 0) throw new IllegalArgumentException("ノード数Nは正の整数である必要があります");
+
+        // 次数の並列カウント
+        AtomicIntegerArray deg = new AtomicIntegerArray(N);
+        Parallel.forRange(threads, buffers.length, b -> {
+            EdgeBuffer buffer = buffers[b];
+            for (int e = 0; e < buffer.size(); e++) {
+                int start = buffer.source(e);
+                int end = buffer.target(e);
+
+                // 無効なエッジチェック
+                if (start < 0 || end < 0 || start >= N || end >= N) {
+                    throw new IllegalArgumentException("無効なエッジ: " + start + " - " + end);
+                }
+                deg.incrementAndGet(start);
+                deg.incrementAndGet(end);
+            }
+        });
+
+        // addressListのプレフィックス和
+        int[] addressList = new int[N];
+        int totalSlots = prefixSum(N, deg, addressList, threads);
+
+        // edgeListへの並列スキャッタ（カーソルはアトミックに進める）
+        int[] edgeList = new int[totalSlots];
+        AtomicIntegerArray cursor = new AtomicIntegerArray(addressList);
+        Parallel.forRange(threads, buffers.length, b -> {
+            EdgeBuffer buffer = buffers[b];
+            for (int e = 0; e < buffer.size(); e++) {
+                int start = buffer.source(e);
+                int end = buffer.target(e);
+                edgeList[cursor.getAndIncrement(start)] = end;
+                edgeList[cursor.getAndIncrement(end)] = start;
+            }
+        });
+
+        // スキャッタ順序はスレッドのタイミングに依存するため、各隣接リストをソートして確定させる
+        int[] cursorList = new int[N];
+        Parallel.forRange(threads, N, i -> {
+            cursorList[i] = cursor.get(i);
+            Arrays.sort(edgeList, addressList[i], cursorList[i]);
+        });
+
+        // グラフオブジェクトの設定
+        Graph graph = new Graph();
+        graph.N = N;
+        graph.edgeList = edgeList;
+        graph.addressList = addressList;
+        graph.cursorList = cursorList;
+        return graph;
+    }
+
+    /**
+     * 隣接リストがソート済みのグラフから重複エッジを取り除く
+     * ノードごとの重複除去後の次数を並列に数え、プレフィックス和を取ってから並列にコピーする
+     * @param graph ソート済みの隣接リストを持つグラフ（CSRBuilder.buildの結果など）
+     * @param threads スレッド数
+     * @return 重複のないグラフ
+     */
+    public static Graph removeDuplicates(Graph graph, int threads) {
+        int N = graph.N;
+        AtomicIntegerArray deg = new AtomicIntegerArray(N);
+        Parallel.forRange(threads, N, i -> {
+            int count = 0;
+            for (int j = graph.addressList[i]; j < graph.cursorList[i]; j++) {
+                if (j == graph.addressList[i] || graph.edgeList[j] != graph.edgeList[j - 1]) {
+                    count++;
+                }
+            }
+            deg.set(i, count);
+        });
+
+        int[] addressList = new int[N];
+        int totalSlots = prefixSum(N, deg, addressList, threads);
+        int[] edgeList = new int[totalSlots];
+        int[] cursorList = new int[N];
+        Parallel.forRange(threads, N, i -> {
+            int pos = addressList[i];
+            for (int j = graph.addressList[i]; j < graph.cursorList[i]; j++) {
+                if (j == graph.addressList[i] || graph.edgeList[j] != graph.edgeList[j - 1]) {
+                    edgeList[pos++] = graph.edgeList[j];
+                }
+            }
+            cursorList[i] = pos;
+        });
+
+        Graph simple = new Graph();
+        simple.N = N;
+        simple.edgeList = edgeList;
+        simple.addressList = addressList;
+        simple.cursorList = cursorList;
+        return simple;
+    }
+
+    /**
+     * 次数の排他的プレフィックス和を並列に計算
+     * @return 総スロット数
+     */
+    private static int prefixSum(int N, AtomicIntegerArray deg, int[] addressList, int threads) {
+        int blocks = Math.max(1, Math.min(threads, N));
+        long[] blockSums = new long[blocks];
+
+        Parallel.forRange(threads, blocks, b -> {
+            long sum = 0;
+            for (int i = Parallel.blockStart(N, blocks, b); i < Parallel.blockStart(N, blocks, b + 1); i++) {
+                sum += deg.get(i);
+            }
+            blockSums[b] = sum;
+        });
+
+        long total = 0;
+        for (int b = 0; b < blocks; b++) {
+            long sum = blockSums[b];
+            blockSums[b] = total;
+            total += sum;
+        }
+        if (total > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("隣接リストのサイズがint配列の上限を超えます: " + total);
+        }
+
+        Parallel.forRange(threads, blocks, b -> {
+            int pos = (int) blockSums[b];
+            for (int i = Parallel.blockStart(N, blocks, b); i < Parallel.blockStart(N, blocks, b + 1); i++) {
+                addressList[i] = pos;
+                pos += deg.get(i);
+            }
+        });
+        return (int) total;
+    }
+}
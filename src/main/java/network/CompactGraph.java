@@ -0,0 +1,194 @@
+package main.java.network;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * 確定済み（不変）のコンパクトなCSRグラフ
+ * Graphの addressList と cursorList（2N要素）の代わりに N+1 要素のオフセット配列を持ち、
+ * 各ノードの隣接リストは昇順にソートされている。
+ * そのため hasEdge は O(log 次数)、共通隣接ノードの計算はマージで行える
+ */
+public final class CompactGraph implements Network {
+    private static final int GALLOP_RATIO = 16; // 次数の比がこれ以上なら二分探索で交差を計算
+
+    private final int N;              // ノード数
+    private final int[] offsets;      // 各ノードの隣接リスト開始位置（N+1要素）
+    private final int[] neighbors;    // ノードごとに昇順の隣接リスト
+
+    private CompactGraph(int N, int[] offsets, int[] neighbors) {
+        this.N = N;
+        this.offsets = offsets;
+        this.neighbors = neighbors;
+    }
+
+    /**
+     * 任意のネットワークからコンパクト形式を作成（隣接リストは詰めてソートする）
+     */
+    public static CompactGraph of(Network network) {
+        int N = network.nodeCount();
+        long slots = network.edgeSlotCount();
+        if (slots > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("隣接リストのサイズがint配列の上限を超えます: " + slots);
+        }
+
+        int[] offsets = new int[N + 1];
+        int[] neighbors = new int[(int) slots];
+        int pos = 0;
+        for (int i = 0; i < N; i++) {
+            offsets[i] = pos;
+            if (network instanceof Graph) {
+                Graph graph = (Graph) network;
+                int degree = graph.cursorList[i] - graph.addressList[i];
+                System.arraycopy(graph.edgeList, graph.addressList[i], neighbors, pos, degree);
+                pos += degree;
+            } else {
+                int degree = network.degree(i);
+                for (int j = 0; j < degree; j++) {
+                    neighbors[pos++] = network.neighbor(i, j);
+                }
+            }
+            Arrays.sort(neighbors, offsets[i], pos);
+        }
+        offsets[N] = pos;
+        return new CompactGraph(N, offsets, neighbors);
+    }
+
+    @Override
+    public int nodeCount() {
+        return N;
+    }
+
+    @Override
+    public int degree(int node) {
+        return offsets[node + 1] - offsets[node];
+    }
+
+    @Override
+    public int neighbor(int node, int index) {
+        return neighbors[offsets[node] + index];
+    }
+
+    @Override
+    public void forEachNeighbor(int node, IntConsumer action) {
+        for (int i = offsets[node]; i < offsets[node + 1]; i++) {
+            action.accept(neighbors[i]);
+        }
+    }
+
+    @Override
+    public long edgeSlotCount() {
+        return offsets[N];
+    }
+
+    /**
+     * ノードの隣接リスト開始位置（隣接リスト全体での添字）
+     */
+    public int offset(int node) {
+        return offsets[node];
+    }
+
+    /**
+     * 隣接リストのslot番目の要素
+     */
+    public int edgeAt(int slot) {
+        return neighbors[slot];
+    }
+
+    /**
+     * uの隣接リスト中でvが現れる位置（隣接リスト全体での添字）。存在しなければ-1
+     */
+    public int slotOf(int u, int v) {
+        int slot = Arrays.binarySearch(neighbors, offsets[u], offsets[u + 1], v);
+        return slot >= 0 ? slot : -1;
+    }
+
+    /**
+     * エッジ (u, v) が存在するか。O(log 次数)
+     */
+    public boolean hasEdge(int u, int v) {
+        // 次数の小さい側を探索する
+        return degree(u) <= degree(v) ? slotOf(u, v) >= 0 : slotOf(v, u) >= 0;
+    }
+
+    /**
+     * uとvの共通隣接ノード数
+     */
+    public int intersectionSize(int u, int v) {
+        return intersect(u, v, null);
+    }
+
+    /**
+     * uとvの共通隣接ノードを out に書き出す
+     * @param out 出力先（min(degree(u), degree(v)) 以上の長さ）
+     * @return 共通隣接ノード数
+     */
+    public int commonNeighbors(int u, int v, int[] out) {
+        return intersect(u, v, out);
+    }
+
+    /**
+     * 三角形の総数（各三角形を1回ずつ数える）
+     */
+    public long triangleCount() {
+        long total = 0;
+        for (int u = 0; u < N; u++) {
+            for (int i = offsets[u]; i < offsets[u + 1]; i++) {
+                int v = neighbors[i];
+                if (v > u) {
+                    total += intersectionSize(u, v);
+                }
+            }
+        }
+        return total / 3;
+    }
+
+    /**
+     * ソート済み隣接リストの交差
+     * 次数が大きく異なる場合は小さい側の各要素を大きい側から二分探索する
+     */
+    private int intersect(int u, int v, int[] out) {
+        int aFrom = offsets[u], aTo = offsets[u + 1];
+        int bFrom = offsets[v], bTo = offsets[v + 1];
+        if (aTo - aFrom > bTo - bFrom) {
+            int tmp = aFrom; aFrom = bFrom; bFrom = tmp;
+            tmp = aTo; aTo = bTo; bTo = tmp;
+        }
+
+        int count = 0;
+        if ((long) (aTo - aFrom) * GALLOP_RATIO < bTo - bFrom) {
+            int lo = bFrom;
+            for (int i = aFrom; i < aTo && lo < bTo; i++) {
+                int found = Arrays.binarySearch(neighbors, lo, bTo, neighbors[i]);
+                if (found >= 0) {
+                    if (out != null) {
+                        out[count] = neighbors[i];
+                    }
+                    count++;
+                    lo = found + 1;
+                } else {
+                    lo = -found - 1;
+                }
+            }
+            return count;
+        }
+
+        int i = aFrom, j = bFrom;
+        while (i < aTo && j < bTo) {
+            int a = neighbors[i], b = neighbors[j];
+            if (a < b) {
+                i++;
+            } else if (a > b) {
+                j++;
+            } else {
+                if (out != null) {
+                    out[count] = a;
+                }
+                count++;
+                i++;
+                j++;
+            }
+        }
+        return count;
+    }
+}
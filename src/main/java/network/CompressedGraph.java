@@ -0,0 +1,175 @@
+package main.java.network;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * 隣接リストを差分＋可変長整数（varint）で圧縮したグラフ
+ *
+ * 各ノードの隣接リストは昇順にソートし、次の形式のバイト列で保持する
+ * <pre>
+ *   varint 次数
+ *   varint zigzag(最初の隣接ノード - ノードID)
+ *   varint 直前の隣接ノードとの差（2番目以降）
+ * </pre>
+ * 各ノードのバイト列の開始位置は N+1 要素のint配列で引く。
+ * 隣接ノードを順に読む forEachNeighbor は1要素あたり数バイトの復号で済むが、
+ * neighbor(node, index) はリストの先頭から復号するため O(index) かかる
+ */
+public final class CompressedGraph implements Network {
+    private final int N;              // ノード数
+    private final int[] byteOffsets;  // 各ノードのバイト列開始位置（N+1要素）
+    private final byte[] data;        // 圧縮された隣接リスト
+    private final long edgeSlots;     // 隣接リストの総要素数
+
+    private CompressedGraph(int N, int[] byteOffsets, byte[] data, long edgeSlots) {
+        this.N = N;
+        this.byteOffsets = byteOffsets;
+        this.data = data;
+        this.edgeSlots = edgeSlots;
+    }
+
+    /**
+     * 任意のネットワークを圧縮形式に変換
+     */
+    public static CompressedGraph of(Network network) {
+        int N = network.nodeCount();
+        int[] byteOffsets = new int[N + 1];
+        byte[] data = new byte[Math.max(16, (int) Math.min(Integer.MAX_VALUE - 8, network.edgeSlotCount() * 2))];
+        int[] scratch = new int[16];
+        long pos = 0;
+        long edgeSlots = 0;
+
+        for (int i = 0; i < N; i++) {
+            byteOffsets[i] = (int) pos;
+            int degree = network.degree(i);
+            if (scratch.length < degree) {
+                scratch = new int[Math.max(degree, 2 * scratch.length)];
+            }
+            for (int j = 0; j < degree; j++) {
+                scratch[j] = network.neighbor(i, j);
+            }
+            Arrays.sort(scratch, 0, degree);
+
+            // 最悪でも1要素あたり5バイト
+            long required = pos + 5L * (degree + 1);
+            if (required > Integer.MAX_VALUE - 8) {
+                throw new IllegalArgumentException("圧縮後のサイズがbyte配列の上限を超えます");
+            }
+            if (required > data.length) {
+                data = Arrays.copyOf(data, (int) Math.min(Integer.MAX_VALUE - 8, Math.max(required, 2L * data.length)));
+            }
+
+            int p = writeVarint(data, (int) pos, degree);
+            if (degree > 0) {
+                int first = scratch[0] - i;
+                p = writeVarint(data, p, (first << 1) ^ (first >> 31));
+                for (int j = 1; j < degree; j++) {
+                    p = writeVarint(data, p, scratch[j] - scratch[j - 1]);
+                }
+            }
+            pos = p;
+            edgeSlots += degree;
+        }
+        byteOffsets[N] = (int) pos;
+        return new CompressedGraph(N, byteOffsets, Arrays.copyOf(data, (int) pos), edgeSlots);
+    }
+
+    @Override
+    public int nodeCount() {
+        return N;
+    }
+
+    @Override
+    public int degree(int node) {
+        return readVarint(byteOffsets[node]);
+    }
+
+    @Override
+    public int neighbor(int node, int index) {
+        int p = byteOffsets[node];
+        int degree = readVarint(p);
+        if (index < 0 || index >= degree) {
+            throw new IndexOutOfBoundsException("隣接ノードの添字が範囲外です: " + index);
+        }
+        p = skipVarint(p);
+        int zigzag = readVarint(p);
+        p = skipVarint(p);
+        int value = node + ((zigzag >>> 1) ^ -(zigzag & 1));
+        for (int j = 1; j <= index; j++) {
+            value += readVarint(p);
+            p = skipVarint(p);
+        }
+        return value;
+    }
+
+    @Override
+    public void forEachNeighbor(int node, IntConsumer action) {
+        final byte[] data = this.data;
+        int p = byteOffsets[node];
+        int end = byteOffsets[node + 1];
+
+        // 次数は読み飛ばす（終端はbyteOffsetsで判定）
+        while (data[p++] < 0) {
+        }
+        int value = node;
+        boolean first = true;
+        while (p < end) {
+            // varintの復号（インライン展開）
+            int b = data[p++];
+            int x = b & 0x7F;
+            int shift = 7;
+            while (b < 0) {
+                b = data[p++];
+                x |= (b & 0x7F) << shift;
+                shift += 7;
+            }
+            if (first) {
+                value += (x >>> 1) ^ -(x & 1);
+                first = false;
+            } else {
+                value += x;
+            }
+            action.accept(value);
+        }
+    }
+
+    @Override
+    public long edgeSlotCount() {
+        return edgeSlots;
+    }
+
+    /**
+     * 隣接リストとオフセット索引が占めるバイト数
+     */
+    public long memoryBytes() {
+        return data.length + 4L * byteOffsets.length;
+    }
+
+    private int readVarint(int p) {
+        int b = data[p++];
+        int x = b & 0x7F;
+        int shift = 7;
+        while (b < 0) {
+            b = data[p++];
+            x |= (b & 0x7F) << shift;
+            shift += 7;
+        }
+        return x;
+    }
+
+    private int skipVarint(int p) {
+        while (data[p++] < 0) {
+        }
+        return p;
+    }
+
+    private static int writeVarint(byte[] data, int p, int value) {
+        while ((value & ~0x7F) != 0) {
+            data[p++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        data[p++] = (byte) value;
+        return p;
+    }
+}
@@ -0,0 +1,67 @@
+package main.java.network;
+
+import java.util.Arrays;
+
+/**
+ * エッジ（ノード対）を格納する伸長可能なプリミティブバッファ
+ * 並列生成時に各ワーカーが専用のバッファへエッジを書き込む
+ */
+public class EdgeBuffer {
+    private int[] data;
+    private int size; // 格納済みエッジ数
+
+    public EdgeBuffer() {
+        this(16);
+    }
+
+    /**
+     * @param initialEdges 初期容量（エッジ数）
+     */
+    public EdgeBuffer(int initialEdges) {
+        this.data = new int[2 * Math.max(initialEdges, 1)];
+    }
+
+    /**
+     * エッジ (u, v) を追加
+     */
+    public void add(int u, int v) {
+        if (2 * size + 2 > data.length) {
+            long newLength = Math.max(2L * data.length, 2L * size + 2);
+            if (newLength > Integer.MAX_VALUE - 8) {
+                throw new IllegalStateException("エッジバッファの容量上限を超えました");
+            }
+            data = Arrays.copyOf(data, (int) newLength);
+        }
+        data[2 * size] = u;
+        data[2 * size + 1] = v;
+        size++;
+    }
+
+    /**
+     * 格納済みエッジ数
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * i番目のエッジの始点
+     */
+    public int source(int i) {
+        return data[2 * i];
+    }
+
+    /**
+     * i番目のエッジの終点
+     */
+    public int target(int i) {
+        return data[2 * i + 1];
+    }
+
+    /**
+     * バッファを空にする（容量は保持）
+     */
+    public void clear() {
+        size = 0;
+    }
+}
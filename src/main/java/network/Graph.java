@@ -1,15 +1,72 @@
 package main.java.network;
 
+import main.java.network.analysis.ComponentIndex;
+import main.java.network.analysis.GraphStatistics;
+import java.util.function.IntConsumer;
+
 /**
  * グラフ構造を表現するクラス
  * ネットワークのノードとエッジの情報を管理
  */
-public class Graph {
+public class Graph implements Network {
     public int N;              // ノード数
     public int[] edgeList;   // 各ノードの隣接ノードリスト
     public int[] addressList;  // 各ノードのアドレス情報
     public int[] cursorList;   // 各ノードの現在の隣接ノード数
 
+    private GraphStatistics statistics;       // 統計量のキャッシュ
+    private ComponentIndex componentIndex;    // 連結成分の索引のキャッシュ
+
+    @Override
+    public int nodeCount() {
+        return N;
+    }
+
+    @Override
+    public int degree(int node) {
+        return cursorList[node] - addressList[node];
+    }
+
+    @Override
+    public int neighbor(int node, int index) {
+        return edgeList[addressList[node] + index];
+    }
+
+    @Override
+    public void forEachNeighbor(int node, IntConsumer action) {
+        for (int i = addressList[node]; i < cursorList[node]; i++) {
+            action.accept(edgeList[i]);
+        }
+    }
+
+    /**
+     * 確定済みのコンパクト形式（N+1要素のオフセットとソート済み隣接リスト）に変換
+     */
+    public CompactGraph compact() {
+        return CompactGraph.of(this);
+    }
+
+    /**
+     * グラフの統計量（初回呼び出し時に並列に計算してキャッシュする）
+     * キャッシュは構築済みのグラフを前提とし、以後に隣接リストを変更しても更新されない
+     */
+    public synchronized GraphStatistics statistics() {
+        if (statistics == null) {
+            statistics = GraphStatistics.compute(this, Parallel.defaultThreads());
+        }
+        return statistics;
+    }
+
+    /**
+     * 連結成分の索引（初回呼び出し時に計算してキャッシュする）
+     */
+    public synchronized ComponentIndex componentIndex() {
+        if (componentIndex == null) {
+            componentIndex = ComponentIndex.of(this, Parallel.defaultThreads());
+        }
+        return componentIndex;
+    }
+
     /**
      * グラフの基本情報を表示
      */
@@ -18,25 +75,21 @@ public class Graph {
         System.out.println("ノード数: " + N);
         
         if (N > 0 && cursorList != null) {
-            int totalEdges = 0;
-            int degreeI = 0;
+            long totalSlots = 0;
             int maxDegree = 0;
             int minDegree = Integer.MAX_VALUE;
             
             for (int i = 0; i < N; i++) {
-                degreeI = 0; // Reset degreeI for the current node
-                for (int j = 0; j < cursorList[i] - addressList[i]; j++) {
-                    totalEdges += 1;
-                    degreeI += 1;
-                }
+                int degreeI = cursorList[i] - addressList[i];
+                totalSlots += degreeI;
                 maxDegree = Math.max(maxDegree, degreeI);
                 minDegree = Math.min(minDegree, degreeI);
             }
             
-            System.out.println("総エッジ数: " + ((int)totalEdges / 2));
+            System.out.println("総エッジ数: " + (totalSlots / 2));
             System.out.println("最大次数: " + maxDegree);
             System.out.println("最小次数: " + minDegree);
-            System.out.println("平均次数: " + (double)totalEdges / N);
+            System.out.println("平均次数: " + (double)totalSlots / N);
             System.out.println("");
         }
     }
@@ -0,0 +1,204 @@
+package main.java.network;
+
+import java.util.Arrays;
+
+/**
+ * キャッシュ局所性を高めるためのノードの並べ替え
+ * 生成順のノードIDでは隣接ノードの状態配列へのアクセスがメモリ上で散らばるため、
+ * 隣接するノードが近いIDを持つように付け替えたCSRを作成する
+ */
+public final class GraphReordering {
+
+    /**
+     * 並べ替えの方式
+     */
+    public enum Order {
+        DEGREE_DESCENDING, // 次数の降順（ハブを先頭に集める）
+        BFS,               // 幅優先探索順
+        RCM                // Reverse Cuthill–McKee順（行列の帯幅を小さくする）
+    }
+
+    private GraphReordering() {
+    }
+
+    /**
+     * 指定した方式でノードIDを付け替える
+     * @param graph 元のグラフ
+     * @param order 並べ替えの方式
+     * @return 付け替え後のグラフと対応表
+     */
+    public static RelabeledGraph reorder(Graph graph, Order order) {
+        int[] toOriginal;
+        switch (order) {
+            case DEGREE_DESCENDING:
+                toOriginal = degreeDescendingOrder(graph);
+                break;
+            case BFS:
+                toOriginal = bfsOrder(graph);
+                break;
+            case RCM:
+                toOriginal = rcmOrder(graph);
+                break;
+            default:
+                throw new IllegalArgumentException("未知の並べ替え方式: " + order);
+        }
+        return relabel(graph, toOriginal);
+    }
+
+    /**
+     * 与えられた順序（付け替え後ID → 元のID）でグラフを付け替える
+     * 各ノードの隣接リストは付け替え後のIDで昇順に並ぶ
+     */
+    public static RelabeledGraph relabel(Graph graph, int[] toOriginal) {
+        int N = graph.N;
+        if (toOriginal.length != N) {
+            throw new IllegalArgumentException("順序の長さがノード数と一致しません: " + toOriginal.length);
+        }
+        int[] toRelabeled = new int[N];
+        Arrays.fill(toRelabeled, -1);
+        for (int i = 0; i < N; i++) {
+            if (toRelabeled[toOriginal[i]] != -1) {
+                throw new IllegalArgumentException("順序が置換になっていません: " + toOriginal[i]);
+            }
+            toRelabeled[toOriginal[i]] = i;
+        }
+
+        int[] addressList = new int[N];
+        int[] cursorList = new int[N];
+        int[] edgeList = new int[(int) graph.edgeSlotCount()];
+        int pos = 0;
+        for (int i = 0; i < N; i++) {
+            int old = toOriginal[i];
+            addressList[i] = pos;
+            for (int j = graph.addressList[old]; j < graph.cursorList[old]; j++) {
+                edgeList[pos++] = toRelabeled[graph.edgeList[j]];
+            }
+            cursorList[i] = pos;
+            Arrays.sort(edgeList, addressList[i], cursorList[i]);
+        }
+
+        Graph relabeled = new Graph();
+        relabeled.N = N;
+        relabeled.edgeList = edgeList;
+        relabeled.addressList = addressList;
+        relabeled.cursorList = cursorList;
+        return new RelabeledGraph(relabeled, toOriginal, toRelabeled);
+    }
+
+    /**
+     * 次数の降順（同じ次数ではID順）。計数ソートでO(N + 最大次数)
+     */
+    static int[] degreeDescendingOrder(Graph graph) {
+        int N = graph.N;
+        int maxDegree = 0;
+        for (int i = 0; i < N; i++) {
+            maxDegree = Math.max(maxDegree, graph.degree(i));
+        }
+        int[] start = new int[maxDegree + 2];
+        for (int i = 0; i < N; i++) {
+            start[maxDegree - graph.degree(i) + 1]++;
+        }
+        for (int d = 1; d < start.length; d++) {
+            start[d] += start[d - 1];
+        }
+        int[] order = new int[N];
+        for (int i = 0; i < N; i++) {
+            order[start[maxDegree - graph.degree(i)]++] = i;
+        }
+        return order;
+    }
+
+    /**
+     * 幅優先探索順。連結成分ごとに未訪問の最小IDノードから探索する
+     */
+    static int[] bfsOrder(Graph graph) {
+        int N = graph.N;
+        int[] order = new int[N];
+        boolean[] visited = new boolean[N];
+        int tail = 0;
+        for (int root = 0; root < N; root++) {
+            if (visited[root]) {
+                continue;
+            }
+            visited[root] = true;
+            int head = tail;
+            order[tail++] = root;
+            while (head < tail) {
+                int node = order[head++];
+                for (int j = graph.addressList[node]; j < graph.cursorList[node]; j++) {
+                    int neighbor = graph.edgeList[j];
+                    if (!visited[neighbor]) {
+                        visited[neighbor] = true;
+                        order[tail++] = neighbor;
+                    }
+                }
+            }
+        }
+        return order;
+    }
+
+    /**
+     * Reverse Cuthill–McKee順
+     * 連結成分ごとに次数最小の未訪問ノードから、隣接ノードを次数の昇順に訪問する幅優先探索を行い、
+     * 得られた順序を全体で反転する
+     */
+    static int[] rcmOrder(Graph graph) {
+        int N = graph.N;
+        int[] byDegree = degreeDescendingOrder(graph);
+        int[] order = new int[N];
+        boolean[] visited = new boolean[N];
+        long[] keys = new long[16];
+        int tail = 0;
+
+        // 次数の昇順に根の候補を調べる
+        for (int r = N - 1; r >= 0; r--) {
+            int root = byDegree[r];
+            if (visited[root]) {
+                continue;
+            }
+            visited[root] = true;
+            int head = tail;
+            order[tail++] = root;
+            while (head < tail) {
+                int node = order[head++];
+
+                // 未訪問の隣接ノードを (次数, ID) の昇順に並べる
+                int count = 0;
+                for (int j = graph.addressList[node]; j < graph.cursorList[node]; j++) {
+                    int neighbor = graph.edgeList[j];
+                    if (!visited[neighbor]) {
+                        visited[neighbor] = true;
+                        if (count == keys.length) {
+                            keys = Arrays.copyOf(keys, 2 * keys.length);
+                        }
+                        keys[count++] = ((long) graph.degree(neighbor) << 32) | neighbor;
+                    }
+                }
+                Arrays.sort(keys, 0, count);
+                for (int k = 0; k < count; k++) {
+                    order[tail++] = (int) keys[k];
+                }
+            }
+        }
+
+        for (int i = 0, j = N - 1; i < j; i++, j--) {
+            int tmp = order[i];
+            order[i] = order[j];
+            order[j] = tmp;
+        }
+        return order;
+    }
+
+    /**
+     * 帯幅（隣接ノード間のID差の最大値）。並べ替えの効果の確認に用いる
+     */
+    public static int bandwidth(Graph graph) {
+        int bandwidth = 0;
+        for (int i = 0; i < graph.N; i++) {
+            for (int j = graph.addressList[i]; j < graph.cursorList[i]; j++) {
+                bandwidth = Math.max(bandwidth, Math.abs(graph.edgeList[j] - i));
+            }
+        }
+        return bandwidth;
+    }
+}
@@ -0,0 +1,46 @@
+package main.java.network;
+
+import java.util.function.IntConsumer;
+
+/**
+ * ネットワークの隣接関係へのアクセスインターフェース
+ * シミュレーターはこのインターフェースを通して隣接ノードを参照し、内部表現には依存しない
+ */
+public interface Network {
+
+    /**
+     * ノード数
+     */
+    int nodeCount();
+
+    /**
+     * ノードの次数
+     */
+    int degree(int node);
+
+    /**
+     * ノードのindex番目（0 ≦ index < degree(node)）の隣接ノード
+     */
+    int neighbor(int node, int index);
+
+    /**
+     * ノードの隣接ノードを順に処理
+     */
+    default void forEachNeighbor(int node, IntConsumer action) {
+        int degree = degree(node);
+        for (int i = 0; i < degree; i++) {
+            action.accept(neighbor(node, i));
+        }
+    }
+
+    /**
+     * 隣接リストの総要素数（無向エッジ数の2倍）
+     */
+    default long edgeSlotCount() {
+        long total = 0;
+        for (int i = 0; i < nodeCount(); i++) {
+            total += degree(i);
+        }
+        return total;
+    }
+}
@@ -0,0 +1,175 @@
+package main.java.network;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * ヒープ外メモリ上のCSRグラフ
+ * オフセットをlongで保持するため、隣接リストの総要素数が2^31を超えるグラフも扱える。
+ * 配列はGCの対象外なので、大規模グラフでもGC停止時間が増えない
+ */
+public class OffHeapGraph implements Network {
+    private final int N;                       // ノード数
+    private final OffHeapLongArray offsets;    // 各ノードの隣接リスト開始位置（N+1要素）
+    private final OffHeapIntArray neighbors;   // 隣接リスト
+
+    /**
+     * エッジ列を供給するインターフェース
+     * 次数カウントと書き込みの2パスで呼ばれるため、毎回同じエッジ列を返す必要がある
+     */
+    public interface EdgeSource {
+        void forEachEdge(EdgeConsumer consumer);
+    }
+
+    /**
+     * 無向エッジ (u, v) を受け取るインターフェース
+     */
+    public interface EdgeConsumer {
+        void accept(int u, int v);
+    }
+
+    public OffHeapGraph(int N, OffHeapLongArray offsets, OffHeapIntArray neighbors) {
+        if (offsets.length() != N + 1L) {
+            throw new IllegalArgumentException("オフセット配列の長さはN+1である必要があります: " + offsets.length());
+        }
+        this.N = N;
+        this.offsets = offsets;
+        this.neighbors = neighbors;
+    }
+
+    /**
+     * エッジ列からヒープ外グラフを構築
+     * @param N ノード数
+     * @param source エッジ列（2回走査される）
+     * @return 構築されたグラフ
+     */
+    public static OffHeapGraph fromEdges(int N, EdgeSource source) {
+        if (N <= 0) throw new IllegalArgumentException("ノード数Nは正の整数である必要があります");
+
+        // 1パス目: 次数カウント
+        int[] deg = new int[N];
+        source.forEachEdge((u, v) -> {
+            // 無効なエッジチェック
+            if (u < 0 || v < 0 || u >= N || v >= N) {
+                throw new IllegalArgumentException("無効なエッジ: " + u + " - " + v);
+            }
+            deg[u]++;
+            deg[v]++;
+        });
+
+        OffHeapLongArray offsets = OffHeapLongArray.allocate(N + 1L);
+        long pos = 0;
+        for (int i = 0; i < N; i++) {
+            offsets.set(i, pos);
+            pos += deg[i];
+        }
+        offsets.set(N, pos);
+
+        // 2パス目: 隣接リストへの書き込み（degは書き込み済み数として再利用）
+        OffHeapIntArray neighbors = OffHeapIntArray.allocate(pos);
+        Arrays.fill(deg, 0);
+        source.forEachEdge((u, v) -> {
+            neighbors.set(offsets.get(u) + deg[u]++, v);
+            neighbors.set(offsets.get(v) + deg[v]++, u);
+        });
+
+        return new OffHeapGraph(N, offsets, neighbors);
+    }
+
+    /**
+     * 任意のネットワークをヒープ外グラフにコピー
+     */
+    public static OffHeapGraph copyOf(Network network) {
+        int N = network.nodeCount();
+        OffHeapLongArray offsets = OffHeapLongArray.allocate(N + 1L);
+        long pos = 0;
+        for (int i = 0; i < N; i++) {
+            offsets.set(i, pos);
+            pos += network.degree(i);
+        }
+        offsets.set(N, pos);
+
+        OffHeapIntArray neighbors = OffHeapIntArray.allocate(pos);
+        for (int i = 0; i < N; i++) {
+            long base = offsets.get(i);
+            int degree = network.degree(i);
+            for (int j = 0; j < degree; j++) {
+                neighbors.set(base + j, network.neighbor(i, j));
+            }
+        }
+        return new OffHeapGraph(N, offsets, neighbors);
+    }
+
+    @Override
+    public int nodeCount() {
+        return N;
+    }
+
+    @Override
+    public int degree(int node) {
+        return (int) (offsets.get(node + 1) - offsets.get(node));
+    }
+
+    @Override
+    public int neighbor(int node, int index) {
+        return neighbors.get(offsets.get(node) + index);
+    }
+
+    @Override
+    public void forEachNeighbor(int node, IntConsumer action) {
+        long end = offsets.get(node + 1);
+        for (long slot = offsets.get(node); slot < end; slot++) {
+            action.accept(neighbors.get(slot));
+        }
+    }
+
+    @Override
+    public long edgeSlotCount() {
+        return offsets.get(N);
+    }
+
+    /**
+     * ノードの隣接リスト開始位置
+     */
+    public long offset(int node) {
+        return offsets.get(node);
+    }
+
+    /**
+     * 隣接リストのslot番目の要素
+     */
+    public int edgeAt(long slot) {
+        return neighbors.get(slot);
+    }
+
+    protected OffHeapLongArray offsets() {
+        return offsets;
+    }
+
+    protected OffHeapIntArray neighbors() {
+        return neighbors;
+    }
+
+    /**
+     * ヒープ上のGraphにコピー（int配列に収まる場合のみ）
+     */
+    public Graph toGraph() {
+        long edgeSlots = edgeSlotCount();
+        if (edgeSlots > Integer.MAX_VALUE) {
+            throw new IllegalStateException("隣接リストのサイズがint配列の上限を超えます: " + edgeSlots);
+        }
+        Graph graph = new Graph();
+        graph.N = N;
+        graph.edgeList = new int[(int) edgeSlots];
+        graph.addressList = new int[N];
+        graph.cursorList = new int[N];
+        for (int i = 0; i < N; i++) {
+            graph.addressList[i] = (int) offsets.get(i);
+            graph.cursorList[i] = (int) offsets.get(i + 1);
+        }
+        for (int slot = 0; slot < graph.edgeList.length; slot++) {
+            graph.edgeList[slot] = neighbors.get(slot);
+        }
+        return graph;
+    }
+}
@@ -0,0 +1,74 @@
+package main.java.network;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.zip.Checksum;
+
+/**
+ * ヒープ外メモリ上のlong添字long配列
+ * 1つのByteBufferは2GB未満に制限されるため、CHUNK_BYTES 単位のチャンクに分割して保持する
+ */
+public final class OffHeapLongArray {
+    public static final long CHUNK_BYTES = 1L << 30;
+    private static final int CHUNK_SHIFT = 30;
+    private static final long CHUNK_MASK = CHUNK_BYTES - 1;
+
+    private final ByteBuffer[] chunks;
+    private final long length;
+
+    private OffHeapLongArray(ByteBuffer[] chunks, long length) {
+        this.chunks = chunks;
+        this.length = length;
+    }
+
+    /**
+     * 0で初期化された配列をヒープ外に確保
+     * @param length 要素数
+     */
+    public static OffHeapLongArray allocate(long length) {
+        if (length < 0) throw new IllegalArgumentException("要素数は非負である必要があります: " + length);
+        long bytes = 8L * length;
+        int chunkCount = (int) ((bytes + CHUNK_BYTES - 1) / CHUNK_BYTES);
+        ByteBuffer[] chunks = new ByteBuffer[chunkCount];
+        for (int c = 0; c < chunkCount; c++) {
+            long size = Math.min(CHUNK_BYTES, bytes - c * CHUNK_BYTES);
+            chunks[c] = ByteBuffer.allocateDirect((int) size).order(ByteOrder.LITTLE_ENDIAN);
+        }
+        return new OffHeapLongArray(chunks, length);
+    }
+
+    /**
+     * 既存のバッファ（メモリマップしたファイル領域など）を配列として扱う
+     * @param chunks CHUNK_BYTES 単位に分割されたバッファ（最後以外はちょうどCHUNK_BYTES）
+     * @param length 要素数
+     */
+    public static OffHeapLongArray wrap(ByteBuffer[] chunks, long length) {
+        return new OffHeapLongArray(chunks, length);
+    }
+
+    public long get(long index) {
+        long position = 8L * index;
+        return chunks[(int) (position >>> CHUNK_SHIFT)].getLong((int) (position & CHUNK_MASK));
+    }
+
+    public void set(long index, long value) {
+        long position = 8L * index;
+        chunks[(int) (position >>> CHUNK_SHIFT)].putLong((int) (position & CHUNK_MASK), value);
+    }
+
+    /**
+     * 要素数
+     */
+    public long length() {
+        return length;
+    }
+
+    /**
+     * 配列の内容でチェックサムを更新
+     */
+    public void updateChecksum(Checksum checksum) {
+        for (ByteBuffer chunk : chunks) {
+            checksum.update(chunk.duplicate().clear());
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package main.java.network;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+/**
+ * 並列ループの補助クラス
+ * 指定したスレッド数のForkJoinPoolで区間 [0, n) を処理する
+ */
+public final class Parallel {
+
+    private Parallel() {
+    }
+
+    /**
+     * 利用可能なプロセッサ数を返す
+     */
+    public static int defaultThreads() {
+        return Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * 区間 [0, n) の各インデックスに対して body を並列実行
+     * @param threads スレッド数（1以下なら呼び出しスレッドで逐次実行）
+     * @param n 反復回数
+     * @param body 各インデックスの処理
+     */
+    public static void forRange(int threads, int n, IntConsumer body) {
+        if (n <= 0) {
+            return;
+        }
+        if (threads <= 1 || n == 1) {
+            forRange((ForkJoinPool) null, n, body);
+            return;
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            forRange(pool, n, body);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * 反復ごとに並列ループを繰り返す処理用のプール（threads が1以下ならnullを返し、逐次実行を表す）
+     * 呼び出し側が使い終わったら shutdown する
+     */
+    public static ForkJoinPool newPool(int threads) {
+        return threads <= 1 ? null : new ForkJoinPool(threads);
+    }
+
+    /**
+     * 区間 [0, n) の各インデックスに対して、既存のプールで body を並列実行
+     * 時間ステップごとに並列ループを行う場合に、ステップごとにプールを作り直さないために使う
+     * @param pool プール（nullなら呼び出しスレッドで逐次実行）
+     * @param n 反復回数
+     * @param body 各インデックスの処理
+     */
+    public static void forRange(ForkJoinPool pool, int n, IntConsumer body) {
+        if (n <= 0) {
+            return;
+        }
+        if (pool == null || n == 1) {
+            for (int i = 0; i < n; i++) {
+                body.accept(i);
+            }
+            return;
+        }
+
+        try {
+            pool.submit(() -> IntStream.range(0, n).parallel().forEach(body)).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("並列処理が中断されました", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException("並列処理に失敗しました", cause);
+        }
+    }
+
+    /**
+     * 区間 [0, n) をおよそ等しい blocks 個のブロックに分割した時のブロック開始位置
+     */
+    public static int blockStart(int n, int blocks, int block) {
+        return (int) ((long) n * block / blocks);
+    }
+}
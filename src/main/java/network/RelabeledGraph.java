@@ -0,0 +1,73 @@
+package main.java.network;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * ノードIDを付け替えたグラフと、元のIDとの対応表
+ * シミュレーションは付け替え後のグラフで行い、入力（初期感染ノードなど）と
+ * ノード単位の結果はこのクラスで元のIDとの間を変換する
+ */
+public class RelabeledGraph {
+    public final Graph graph;         // 付け替え後のグラフ
+    public final int[] toOriginal;    // 付け替え後ID → 元のID
+    public final int[] toRelabeled;   // 元のID → 付け替え後ID（グラフに含まれないノードは-1）
+
+    public RelabeledGraph(Graph graph, int[] toOriginal, int[] toRelabeled) {
+        this.graph = graph;
+        this.toOriginal = toOriginal;
+        this.toRelabeled = toRelabeled;
+    }
+
+    /**
+     * 元のノード集合（初期感染ノードなど）を付け替え後のIDに変換
+     * グラフに含まれないノードは除外される
+     */
+    public Set<Integer> relabel(Set<Integer> originalNodes) {
+        Set<Integer> relabeled = new LinkedHashSet<>();
+        for (int node : originalNodes) {
+            int id = toRelabeled[node];
+            if (id >= 0) {
+                relabeled.add(id);
+            }
+        }
+        return relabeled;
+    }
+
+    /**
+     * 付け替え後のノードIDの配列を元のIDに変換
+     */
+    public int[] toOriginalIds(int[] relabeledNodes) {
+        int[] original = new int[relabeledNodes.length];
+        for (int i = 0; i < relabeledNodes.length; i++) {
+            original[i] = toOriginal[relabeledNodes[i]];
+        }
+        return original;
+    }
+
+    /**
+     * 付け替え後のIDで並んだノード単位の値を、元のIDの並びに戻す
+     * @param values 付け替え後IDを添字とする値
+     * @param missing グラフに含まれない元のノードに設定する値
+     */
+    public double[] toOriginalOrder(double[] values, double missing) {
+        double[] original = new double[toRelabeled.length];
+        for (int i = 0; i < toRelabeled.length; i++) {
+            original[i] = toRelabeled[i] >= 0 ? values[toRelabeled[i]] : missing;
+        }
+        return original;
+    }
+
+    /**
+     * 付け替え後のIDで並んだノード単位の値を、元のIDの並びに戻す
+     * @param values 付け替え後IDを添字とする値
+     * @param missing グラフに含まれない元のノードに設定する値
+     */
+    public long[] toOriginalOrder(long[] values, long missing) {
+        long[] original = new long[toRelabeled.length];
+        for (int i = 0; i < toRelabeled.length; i++) {
+            original[i] = toRelabeled[i] >= 0 ? values[toRelabeled[i]] : missing;
+        }
+        return original;
+    }
+}
@@ -0,0 +1,246 @@
+package main.java.network.analysis;
+
+import main.java.network.Graph;
+import main.java.network.Parallel;
+import main.java.network.RelabeledGraph;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * 連結成分の索引
+ * CSR上のロックフリーなUnion-Findで各ノードの成分番号を求め、
+ * 巨大連結成分（GCC）内からの初期感染ノードの抽出や、GCCだけを取り出した部分グラフの作成に用いる
+ */
+public final class ComponentIndex {
+    private final int[] componentOf;     // 各ノードの成分番号（最小ノードIDの昇順に0から）
+    private final int[] componentSizes;  // 各成分のノード数
+    private final int giant;             // 最大の成分の番号（同じ大きさなら番号の小さい方）
+    private final int[] giantNodes;      // 最大の成分に属するノード（昇順）
+
+    private ComponentIndex(int[] componentOf, int componentCount) {
+        this.componentOf = componentOf;
+        this.componentSizes = new int[componentCount];
+        for (int c : componentOf) {
+            componentSizes[c]++;
+        }
+        int largest = 0;
+        for (int c = 1; c < componentCount; c++) {
+            if (componentSizes[c] > componentSizes[largest]) {
+                largest = c;
+            }
+        }
+        this.giant = largest;
+
+        this.giantNodes = new int[componentCount > 0 ? componentSizes[largest] : 0];
+        int pos = 0;
+        for (int i = 0; i < componentOf.length; i++) {
+            if (componentOf[i] == largest) {
+                giantNodes[pos++] = i;
+            }
+        }
+    }
+
+    /**
+     * 連結成分を計算
+     * 根は常に成分内の最小ノードID（大きい根を小さい根に繋ぐ）なので、
+     * 成分番号はスレッドのタイミングに依存しない
+     * @param graph 対象のグラフ
+     * @param threads スレッド数
+     */
+    public static ComponentIndex of(Graph graph, int threads) {
+        int N = graph.N;
+        AtomicIntegerArray parent = new AtomicIntegerArray(N);
+        for (int i = 0; i < N; i++) {
+            parent.set(i, i);
+        }
+
+        Parallel.forRange(threads, N, u -> {
+            for (int j = graph.addressList[u]; j < graph.cursorList[u]; j++) {
+                int v = graph.edgeList[j];
+                if (v > u) {
+                    union(parent, u, v);
+                }
+            }
+        });
+
+        // 根の番号を最小ノードIDの順に振り直す
+        int[] component = new int[N];
+        int[] rootLabel = new int[N];
+        Arrays.fill(rootLabel, -1);
+        int count = 0;
+        for (int i = 0; i < N; i++) {
+            int root = find(parent, i);
+            if (rootLabel[root] == -1) {
+                rootLabel[root] = count++;
+            }
+            component[i] = rootLabel[root];
+        }
+        return new ComponentIndex(component, count);
+    }
+
+    /**
+     * ノードの成分番号
+     */
+    public int componentOf(int node) {
+        return componentOf[node];
+    }
+
+    /**
+     * 連結成分の数
+     */
+    public int componentCount() {
+        return componentSizes.length;
+    }
+
+    /**
+     * 成分のノード数
+     */
+    public int size(int component) {
+        return componentSizes[component];
+    }
+
+    /**
+     * 巨大連結成分の番号
+     */
+    public int giantComponent() {
+        return giant;
+    }
+
+    /**
+     * 巨大連結成分のノード数
+     */
+    public int giantSize() {
+        return giantNodes.length;
+    }
+
+    /**
+     * ノードが巨大連結成分に属するか
+     */
+    public boolean inGiant(int node) {
+        return componentOf[node] == giant;
+    }
+
+    /**
+     * 巨大連結成分に属するノードの一覧（昇順のコピー）
+     */
+    public int[] giantNodes() {
+        return giantNodes.clone();
+    }
+
+    /**
+     * 巨大連結成分から重複なく一様にノードを選ぶ（Floydの方法, O(count)）
+     * @param count 選ぶノード数
+     * @param random 乱数生成器
+     * @return 選ばれたノード
+     */
+    public int[] sampleGiant(int count, Random random) {
+        int G = giantNodes.length;
+        if (count < 0 || count > G) {
+            throw new IllegalArgumentException("巨大連結成分のノード数(" + G + ")を超えて選ぶことはできません: " + count);
+        }
+        BitSet chosen = new BitSet(G);
+        int[] sample = new int[count];
+        for (int k = 0, j = G - count; j < G; j++, k++) {
+            int t = random.nextInt(j + 1);
+            if (chosen.get(t)) {
+                t = j;
+            }
+            chosen.set(t);
+            sample[k] = giantNodes[t];
+        }
+        return sample;
+    }
+
+    /**
+     * 巨大連結成分だけを取り出した部分グラフ
+     * ノードは元のIDの昇順に 0..giantSize()-1 へ付け替えられ、成分外のノードの toRelabeled は-1になる
+     * @param graph この索引を作成したグラフ
+     */
+    public RelabeledGraph extractGiant(Graph graph) {
+        if (graph.N != componentOf.length) {
+            throw new IllegalArgumentException("グラフのノード数が索引と一致しません: " + graph.N);
+        }
+        int N = graph.N;
+        int G = giantNodes.length;
+        int[] toRelabeled = new int[N];
+        Arrays.fill(toRelabeled, -1);
+        for (int i = 0; i < G; i++) {
+            toRelabeled[giantNodes[i]] = i;
+        }
+
+        // 同じ成分のノードの隣接ノードは全て同じ成分に属する
+        int[] addressList = new int[G];
+        int[] cursorList = new int[G];
+        long slots = 0;
+        for (int node : giantNodes) {
+            slots += graph.degree(node);
+        }
+        int[] edgeList = new int[(int) slots];
+        int pos = 0;
+        for (int i = 0; i < G; i++) {
+            int old = giantNodes[i];
+            addressList[i] = pos;
+            for (int j = graph.addressList[old]; j < graph.cursorList[old]; j++) {
+                edgeList[pos++] = toRelabeled[graph.edgeList[j]];
+            }
+            cursorList[i] = pos;
+        }
+
+        Graph giantGraph = new Graph();
+        giantGraph.N = G;
+        giantGraph.edgeList = edgeList;
+        giantGraph.addressList = addressList;
+        giantGraph.cursorList = cursorList;
+        return new RelabeledGraph(giantGraph, giantNodes.clone(), toRelabeled);
+    }
+
+    /**
+     * 各ノードの成分番号（GraphStatistics用）
+     */
+    int[] componentLabels() {
+        return componentOf;
+    }
+
+    /**
+     * 各成分のノード数（GraphStatistics用）
+     */
+    int[] componentSizes() {
+        return componentSizes;
+    }
+
+    private static void union(AtomicIntegerArray parent, int u, int v) {
+        while (true) {
+            int ru = find(parent, u);
+            int rv = find(parent, v);
+            if (ru == rv) {
+                return;
+            }
+            if (ru < rv) {
+                int tmp = ru; ru = rv; rv = tmp;
+            }
+            // 大きい根が他のスレッドに繋がれていなければ小さい根に繋ぐ
+            if (parent.compareAndSet(ru, ru, rv)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * 経路半減つきの根の探索（半減の書き込みは失敗しても構わない）
+     */
+    private static int find(AtomicIntegerArray parent, int x) {
+        while (true) {
+            int p = parent.get(x);
+            if (p == x) {
+                return x;
+            }
+            int gp = parent.get(p);
+            if (gp != p) {
+                parent.compareAndSet(x, p, gp);
+            }
+            x = gp;
+        }
+    }
+}
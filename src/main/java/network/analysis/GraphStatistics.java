@@ -0,0 +1,218 @@
+package main.java.network.analysis;
+
+import main.java.network.CompactGraph;
+import main.java.network.Graph;
+import main.java.network.Parallel;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * グラフの統計量（次数分布・連結成分・k-コア・クラスタ係数）
+ * 次数分布とクラスタ係数はノードのブロックごとに並列に集計し、ブロック順に合算するため
+ * 結果はスレッド数に依存しない。多重エッジを含むグラフでは三角形を重複して数える点に注意
+ */
+public final class GraphStatistics {
+    private static final int BLOCKS = 256;
+
+    public final int nodeCount;
+    public final long edgeCount;            // 無向エッジ数（隣接リスト要素数の半分）
+    public final int minDegree;
+    public final int maxDegree;
+    public final double meanDegree;
+    public final long[] degreeHistogram;    // degreeHistogram[k] = 次数kのノード数
+
+    public final int componentCount;
+    public final int largestComponentSize;
+    public final int[] componentOf;         // 各ノードの連結成分番号（最小ノードIDの昇順に0から）
+    public final int[] componentSizes;      // 各連結成分のノード数
+
+    public final int[] coreNumber;          // 各ノードのコア数
+    public final int degeneracy;            // コア数の最大値
+
+    public final long triangleCount;
+    public final double averageClustering;  // 局所クラスタ係数の平均（次数1以下のノードは0）
+    public final double transitivity;       // 3 × 三角形数 / 連結3つ組数
+
+    private GraphStatistics(Graph graph, int threads) {
+        nodeCount = graph.N;
+        edgeCount = graph.edgeSlotCount() / 2;
+
+        // 次数分布
+        int[] degrees = new int[nodeCount];
+        Parallel.forRange(threads, nodeCount, i -> degrees[i] = graph.degree(i));
+        int min = Integer.MAX_VALUE;
+        int max = 0;
+        for (int d : degrees) {
+            min = Math.min(min, d);
+            max = Math.max(max, d);
+        }
+        minDegree = nodeCount > 0 ? min : 0;
+        maxDegree = max;
+        meanDegree = nodeCount > 0 ? 2.0 * edgeCount / nodeCount : 0.0;
+        degreeHistogram = degreeHistogram(degrees, maxDegree, threads);
+
+        // 連結成分（グラフにキャッシュされた索引を共有する）
+        ComponentIndex components = graph.componentIndex();
+        componentOf = components.componentLabels();
+        componentSizes = components.componentSizes();
+        componentCount = components.componentCount();
+        largestComponentSize = components.giantSize();
+
+        // k-コア
+        coreNumber = coreNumbers(graph, degrees, maxDegree);
+        int maxCore = 0;
+        for (int k : coreNumber) {
+            maxCore = Math.max(maxCore, k);
+        }
+        degeneracy = maxCore;
+
+        // クラスタ係数
+        CompactGraph compact = graph.compact();
+        int blocks = Math.max(1, Math.min(BLOCKS, nodeCount));
+        long[] triangles = new long[blocks];
+        long[] triples = new long[blocks];
+        double[] clustering = new double[blocks];
+        Parallel.forRange(threads, blocks, b -> {
+            for (int i = Parallel.blockStart(nodeCount, blocks, b); i < Parallel.blockStart(nodeCount, blocks, b + 1); i++) {
+                long k = degrees[i];
+                if (k < 2) {
+                    continue;
+                }
+                long twiceTriangles = 0;
+                for (int s = compact.offset(i); s < compact.offset(i + 1); s++) {
+                    twiceTriangles += compact.intersectionSize(i, compact.edgeAt(s));
+                }
+                triangles[b] += twiceTriangles;
+                triples[b] += k * (k - 1) / 2;
+                clustering[b] += twiceTriangles / (double) (k * (k - 1));
+            }
+        });
+        long triangleSum = 0;
+        long tripleSum = 0;
+        double clusteringSum = 0.0;
+        for (int b = 0; b < blocks; b++) {
+            triangleSum += triangles[b];
+            tripleSum += triples[b];
+            clusteringSum += clustering[b];
+        }
+        // 各三角形は3頂点 × 2方向で6回数えられている
+        triangleCount = triangleSum / 6;
+        averageClustering = nodeCount > 0 ? clusteringSum / nodeCount : 0.0;
+        transitivity = tripleSum > 0 ? 3.0 * triangleCount / tripleSum : 0.0;
+    }
+
+    /**
+     * 統計量を計算
+     * @param graph 対象のグラフ
+     * @param threads スレッド数
+     */
+    public static GraphStatistics compute(Graph graph, int threads) {
+        return new GraphStatistics(graph, threads);
+    }
+
+    /**
+     * 各ノードのコア数のみを計算（他の統計量が不要な場合に用いる）
+     */
+    public static int[] coreNumbers(Graph graph) {
+        int[] degrees = new int[graph.N];
+        int maxDegree = 0;
+        for (int i = 0; i < graph.N; i++) {
+            degrees[i] = graph.degree(i);
+            maxDegree = Math.max(maxDegree, degrees[i]);
+        }
+        return coreNumbers(graph, degrees, maxDegree);
+    }
+
+    /**
+     * ノードごとの配列を除いた要約（JSON出力用）
+     */
+    public Map<String, Object> toMap() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("node_count", nodeCount);
+        map.put("edge_count", edgeCount);
+        map.put("min_degree", minDegree);
+        map.put("max_degree", maxDegree);
+        map.put("mean_degree", meanDegree);
+        map.put("degree_histogram", degreeHistogram);
+        map.put("component_count", componentCount);
+        map.put("largest_component_size", largestComponentSize);
+        map.put("degeneracy", degeneracy);
+        map.put("triangle_count", triangleCount);
+        map.put("average_clustering", averageClustering);
+        map.put("transitivity", transitivity);
+        return map;
+    }
+
+    /**
+     * ブロックごとのヒストグラムを作ってから合算する
+     */
+    private static long[] degreeHistogram(int[] degrees, int maxDegree, int threads) {
+        int N = degrees.length;
+        int blocks = Math.max(1, Math.min(threads, N));
+        long[][] partial = new long[blocks][];
+        Parallel.forRange(threads, blocks, b -> {
+            long[] histogram = new long[maxDegree + 1];
+            for (int i = Parallel.blockStart(N, blocks, b); i < Parallel.blockStart(N, blocks, b + 1); i++) {
+                histogram[degrees[i]]++;
+            }
+            partial[b] = histogram;
+        });
+        long[] histogram = new long[maxDegree + 1];
+        for (long[] p : partial) {
+            for (int k = 0; k <= maxDegree; k++) {
+                histogram[k] += p[k];
+            }
+        }
+        return histogram;
+    }
+
+    /**
+     * 次数のバケットを用いたk-コア分解（Batagelj–Zaversnik法, O(N + M)）
+     */
+    private static int[] coreNumbers(Graph graph, int[] degrees, int maxDegree) {
+        int N = graph.N;
+        int[] core = Arrays.copyOf(degrees, N);
+
+        // 次数ごとのバケット開始位置
+        int[] binStart = new int[maxDegree + 2];
+        for (int i = 0; i < N; i++) {
+            binStart[core[i] + 1]++;
+        }
+        for (int d = 1; d < binStart.length; d++) {
+            binStart[d] += binStart[d - 1];
+        }
+
+        // 次数の昇順に並べたノードとその位置
+        int[] order = new int[N];
+        int[] position = new int[N];
+        int[] next = Arrays.copyOf(binStart, maxDegree + 1);
+        for (int i = 0; i < N; i++) {
+            position[i] = next[core[i]]++;
+            order[position[i]] = i;
+        }
+
+        for (int k = 0; k < N; k++) {
+            int v = order[k];
+            for (int j = graph.addressList[v]; j < graph.cursorList[v]; j++) {
+                int u = graph.edgeList[j];
+                if (core[u] > core[v]) {
+                    // uをバケットの先頭と入れ替えてから1つ下のバケットへ移す
+                    int du = core[u];
+                    int pu = position[u];
+                    int pw = binStart[du];
+                    int w = order[pw];
+                    if (u != w) {
+                        order[pu] = w;
+                        position[w] = pu;
+                        order[pw] = u;
+                        position[u] = pw;
+                    }
+                    binStart[du]++;
+                    core[u]--;
+                }
+            }
+        }
+        return core;
+    }
+}
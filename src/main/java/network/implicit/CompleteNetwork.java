@@ -0,0 +1,49 @@
+package main.java.network.implicit;
+
+import main.java.network.Network;
+import java.util.function.IntConsumer;
+
+/**
+ * 完全グラフ
+ * ノードiの隣接ノードはi以外の全ノードであり、算術的に計算するため隣接リスト用のメモリを使用しない
+ */
+public class CompleteNetwork implements Network {
+    private final int N; // ノード数
+
+    /**
+     * @param N ノード数
+     */
+    public CompleteNetwork(int N) {
+        if (N <= 0) throw new IllegalArgumentException("ノード数Nは正の整数である必要があります");
+        this.N = N;
+    }
+
+    @Override
+    public int nodeCount() {
+        return N;
+    }
+
+    @Override
+    public int degree(int node) {
+        return N - 1;
+    }
+
+    @Override
+    public int neighbor(int node, int index) {
+        return index < node ? index : index + 1;
+    }
+
+    @Override
+    public void forEachNeighbor(int node, IntConsumer action) {
+        for (int i = 0; i < N; i++) {
+            if (i != node) {
+                action.accept(i);
+            }
+        }
+    }
+
+    @Override
+    public long edgeSlotCount() {
+        return (long) N * (N - 1);
+    }
+}
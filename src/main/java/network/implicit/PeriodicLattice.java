@@ -0,0 +1,98 @@
+package main.java.network.implicit;
+
+import main.java.network.Network;
+import java.util.function.IntConsumer;
+
+/**
+ * 周期境界条件を持つd次元格子（2次元正方格子・3次元立方格子など）
+ * 隣接ノードは座標から算術的に計算するため、隣接リスト用のメモリを使用しない
+ * ノードIDは x0 + L0 * (x1 + L1 * (x2 + ...)) で座標に対応する
+ */
+public class PeriodicLattice implements Network {
+    private final int[] lengths;   // 各次元の一辺の長さ
+    private final int[] strides;   // 各次元のノードID上の間隔
+    private final int N;           // ノード数
+
+    /**
+     * @param lengths 各次元の一辺の長さ（3以上）
+     */
+    public PeriodicLattice(int... lengths) {
+        if (lengths.length == 0) throw new IllegalArgumentException("次元数は1以上である必要があります");
+
+        this.lengths = lengths.clone();
+        this.strides = new int[lengths.length];
+        long size = 1;
+        for (int d = 0; d < lengths.length; d++) {
+            // 一辺が2以下だと+1方向と-1方向が重なり、多重辺や自己ループになる
+            if (lengths[d] < 3) {
+                throw new IllegalArgumentException("格子の一辺の長さは3以上である必要があります: " + lengths[d]);
+            }
+            strides[d] = (int) size;
+            size *= lengths[d];
+            if (size > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("ノード数がintの上限を超えます");
+            }
+        }
+        this.N = (int) size;
+    }
+
+    /**
+     * L×Lの2次元正方格子
+     */
+    public static PeriodicLattice square(int L) {
+        return new PeriodicLattice(L, L);
+    }
+
+    /**
+     * L×L×Lの3次元立方格子
+     */
+    public static PeriodicLattice cubic(int L) {
+        return new PeriodicLattice(L, L, L);
+    }
+
+    /**
+     * 次元数
+     */
+    public int dimensions() {
+        return lengths.length;
+    }
+
+    @Override
+    public int nodeCount() {
+        return N;
+    }
+
+    @Override
+    public int degree(int node) {
+        return 2 * lengths.length;
+    }
+
+    /**
+     * index = 2d が次元dの+1方向、index = 2d+1 が-1方向の隣接ノード
+     */
+    @Override
+    public int neighbor(int node, int index) {
+        int d = index >> 1;
+        int coordinate = (node / strides[d]) % lengths[d];
+        if ((index & 1) == 0) {
+            return coordinate == lengths[d] - 1 ? node - (lengths[d] - 1) * strides[d] : node + strides[d];
+        }
+        return coordinate == 0 ? node + (lengths[d] - 1) * strides[d] : node - strides[d];
+    }
+
+    @Override
+    public void forEachNeighbor(int node, IntConsumer action) {
+        int rest = node;
+        for (int d = 0; d < lengths.length; d++) {
+            int coordinate = rest % lengths[d];
+            rest /= lengths[d];
+            action.accept(coordinate == lengths[d] - 1 ? node - (lengths[d] - 1) * strides[d] : node + strides[d]);
+            action.accept(coordinate == 0 ? node + (lengths[d] - 1) * strides[d] : node - strides[d]);
+        }
+    }
+
+    @Override
+    public long edgeSlotCount() {
+        return (long) N * 2 * lengths.length;
+    }
+}
@@ -0,0 +1,302 @@
+package main.java.network.io;
+
+import main.java.network.CSRBuilder;
+import main.java.network.EdgeBuffer;
+import main.java.network.Graph;
+import main.java.network.Parallel;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * 空白区切りのエッジリスト（SNAP形式）からGraphを構築するインポーター
+ *
+ * <pre>
+ * # コメント行（'#' または '%' で始まる行）
+ * 0 1
+ * 1 2 0.5    3列目以降（重み・時刻など）は無視する
+ * </pre>
+ *
+ * ファイルは改行位置で区切ったチャンクごとにメモリマップし、各チャンクを並列に処理する。
+ *   1. 各チャンクに現れるノードIDを集め、全体で昇順・重複なしの配列にまとめる
+ *   2. 各チャンクを再度読み、二分探索で 0..N-1 の連続したIDに変換してエッジバッファに格納する
+ *   3. CSRBuilderで次数カウントとスキャッタを並列に行い、自己ループと重複エッジを除く
+ * 整数は String.split を使わずバイト列から直接読み取る
+ */
+public final class EdgeListImporter {
+    private static final long MIN_CHUNK_BYTES = 1L << 20;
+    private static final long MAX_CHUNK_BYTES = 1L << 28;
+    private static final int BOUNDARY_SCAN_BYTES = 1 << 12;
+
+    private EdgeListImporter() {
+    }
+
+    /**
+     * インポート結果
+     */
+    public static final class Result {
+        public final Graph graph;          // 連続したIDのグラフ
+        public final long[] originalIds;   // 新しいID → ファイル中のID（昇順）
+
+        Result(Graph graph, long[] originalIds) {
+            this.graph = graph;
+            this.originalIds = originalIds;
+        }
+
+        /**
+         * ファイル中のIDに対応するノード番号。ファイルに現れないIDなら-1
+         */
+        public int nodeOf(long originalId) {
+            int node = Arrays.binarySearch(originalIds, originalId);
+            return node >= 0 ? node : -1;
+        }
+    }
+
+    /**
+     * 利用可能な全プロセッサでエッジリストを読み込む
+     */
+    public static Result load(Path path) throws IOException {
+        return load(path, Parallel.defaultThreads());
+    }
+
+    /**
+     * エッジリストを読み込む
+     * @param path 入力ファイル
+     * @param threads スレッド数
+     */
+    public static Result load(Path path, int threads) throws IOException {
+        return load(path, threads, 0);
+    }
+
+    /**
+     * チャンクサイズを指定してエッジリストを読み込む
+     * @param path 入力ファイル
+     * @param threads スレッド数
+     * @param chunkBytes チャンクの目安のバイト数（0以下ならファイルサイズとスレッド数から決める）
+     */
+    public static Result load(Path path, int threads, long chunkBytes) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            if (chunkBytes <= 0) {
+                chunkBytes = Math.min(MAX_CHUNK_BYTES,
+                        Math.max(MIN_CHUNK_BYTES, fileSize / (4L * Math.max(threads, 1))));
+            }
+            long[] bounds = chunkBounds(channel, fileSize, chunkBytes);
+            int chunks = bounds.length - 1;
+
+            try {
+                // 1パス目: チャンクごとのノードID（昇順・重複なし）
+                // 配列が埋まるたびに重複を除き、半分以上残るときだけ拡張するため、配列は重複なしのID数の高々4倍程度に収まる
+                long[][] chunkIds = new long[chunks][];
+                Parallel.forRange(threads, chunks, c -> {
+                    EdgeParser parser = new EdgeParser(map(channel, bounds[c], bounds[c + 1]), bounds[c], path);
+                    long[] ids = new long[64];
+                    int count = 0;
+                    while (parser.next()) {
+                        if (count + 2 > ids.length) {
+                            count = unique(ids, count);
+                            if (count + 2 > ids.length / 2) {
+                                ids = Arrays.copyOf(ids, 2 * ids.length);
+                            }
+                        }
+                        ids[count++] = parser.u;
+                        ids[count++] = parser.v;
+                    }
+                    // マージまで保持するのは重複なしの分だけ
+                    chunkIds[c] = Arrays.copyOf(ids, unique(ids, count));
+                });
+
+                long totalIds = 0;
+                for (int c = 0; c < chunks; c++) {
+                    totalIds += chunkIds[c].length;
+                }
+                if (totalIds > Integer.MAX_VALUE - 8) {
+                    throw new IOException("ノードIDの種類がint配列の上限を超えます: " + path);
+                }
+                long[] originalIds = new long[(int) totalIds];
+                int pos = 0;
+                for (int c = 0; c < chunks; c++) {
+                    System.arraycopy(chunkIds[c], 0, originalIds, pos, chunkIds[c].length);
+                    pos += chunkIds[c].length;
+                    chunkIds[c] = null;
+                }
+                Arrays.parallelSort(originalIds);
+                int N = unique(originalIds, originalIds.length);
+                if (N == 0) {
+                    throw new IOException("エッジが含まれていません: " + path);
+                }
+                long[] ids = Arrays.copyOf(originalIds, N);
+
+                // 2パス目: 連続したIDへの変換（自己ループは除く）
+                EdgeBuffer[] buffers = new EdgeBuffer[chunks];
+                Parallel.forRange(threads, chunks, c -> {
+                    EdgeParser parser = new EdgeParser(map(channel, bounds[c], bounds[c + 1]), bounds[c], path);
+                    EdgeBuffer buffer = new EdgeBuffer();
+                    while (parser.next()) {
+                        if (parser.u != parser.v) {
+                            buffer.add(Arrays.binarySearch(ids, parser.u), Arrays.binarySearch(ids, parser.v));
+                        }
+                    }
+                    buffers[c] = buffer;
+                });
+
+                Graph graph = CSRBuilder.removeDuplicates(CSRBuilder.build(N, buffers, threads), threads);
+                return new Result(graph, ids);
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    /**
+     * 改行の直後で区切ったチャンク境界（先頭0, 末尾fileSize）
+     */
+    private static long[] chunkBounds(FileChannel channel, long fileSize, long chunkBytes) throws IOException {
+        long[] bounds = new long[(int) Math.min(Integer.MAX_VALUE - 8, fileSize / chunkBytes + 2)];
+        ByteBuffer scan = ByteBuffer.allocate(BOUNDARY_SCAN_BYTES);
+        int count = 1;
+        long position = 0;
+        while (position + chunkBytes < fileSize) {
+            // 目安の位置から次の改行を探す
+            long p = position + chunkBytes;
+            long boundary = fileSize;
+            while (p < fileSize && boundary == fileSize) {
+                scan.clear();
+                int read = channel.read(scan, p);
+                if (read <= 0) {
+                    break;
+                }
+                for (int i = 0; i < read; i++) {
+                    if (scan.get(i) == '\n') {
+                        boundary = p + i + 1;
+                        break;
+                    }
+                }
+                p += read;
+            }
+            if (boundary >= fileSize) {
+                break;
+            }
+            bounds[count++] = boundary;
+            position = boundary;
+        }
+        bounds[count++] = fileSize;
+        return Arrays.copyOf(bounds, count);
+    }
+
+    private static MappedByteBuffer map(FileChannel channel, long from, long to) {
+        try {
+            return channel.map(FileChannel.MapMode.READ_ONLY, from, to - from);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * ソート後に重複を詰める
+     * @return 重複のない要素数
+     */
+    private static int unique(long[] values, int count) {
+        Arrays.sort(values, 0, count);
+        int n = 0;
+        for (int i = 0; i < count; i++) {
+            if (n == 0 || values[i] != values[n - 1]) {
+                values[n++] = values[i];
+            }
+        }
+        return n;
+    }
+
+    /**
+     * チャンク内の行を順に読み、各行の先頭2列を非負整数として取り出す
+     */
+    private static final class EdgeParser {
+        private final ByteBuffer buffer;
+        private final long base;   // チャンクのファイル中の開始位置（エラー表示用）
+        private final Path path;
+        private int p;
+        long u;
+        long v;
+
+        EdgeParser(ByteBuffer buffer, long base, Path path) {
+            this.buffer = buffer;
+            this.base = base;
+            this.path = path;
+        }
+
+        /**
+         * 次のエッジを読む
+         * @return エッジがあればtrue（u, vに格納）、チャンクの終端ならfalse
+         */
+        boolean next() {
+            int end = buffer.limit();
+            while (p < end) {
+                byte c = buffer.get(p);
+                if (c == '\n' || c == '\r' || c == ' ' || c == '\t') {
+                    p++;
+                } else if (c == '#' || c == '%') {
+                    skipLine();
+                } else {
+                    int lineStart = p;
+                    u = readNumber(lineStart);
+                    skipBlanks();
+                    v = readNumber(lineStart);
+                    skipLine();
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private long readNumber(int lineStart) {
+            int end = buffer.limit();
+            int start = p;
+            long value = 0;
+            while (p < end) {
+                int digit = buffer.get(p) - '0';
+                if (digit < 0 || digit > 9) {
+                    break;
+                }
+                if (p - start >= 18) {
+                    throw malformed(lineStart, "ノードIDが大きすぎます");
+                }
+                value = value * 10 + digit;
+                p++;
+            }
+            if (p == start) {
+                throw malformed(lineStart, "ノードIDを読み取れません");
+            }
+            if (p < end) {
+                byte c = buffer.get(p);
+                if (c != ' ' && c != '\t' && c != '\r' && c != '\n') {
+                    throw malformed(lineStart, "ノードIDを読み取れません");
+                }
+            }
+            return value;
+        }
+
+        private void skipBlanks() {
+            int end = buffer.limit();
+            while (p < end && (buffer.get(p) == ' ' || buffer.get(p) == '\t')) {
+                p++;
+            }
+        }
+
+        private void skipLine() {
+            int end = buffer.limit();
+            while (p < end && buffer.get(p) != '\n') {
+                p++;
+            }
+        }
+
+        private UncheckedIOException malformed(int lineStart, String message) {
+            return new UncheckedIOException(new IOException(
+                    message + "（" + path + ", バイト位置 " + (base + lineStart) + "）"));
+        }
+    }
+}
@@ -0,0 +1,238 @@
+package main.java.network.io;
+
+import main.java.network.Graph;
+import main.java.network.Network;
+import main.java.network.OffHeapIntArray;
+import main.java.network.OffHeapLongArray;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.function.IntConsumer;
+import java.util.function.Supplier;
+import java.util.zip.CRC32C;
+
+/**
+ * Graphのバイナリファイル形式（書き出しと読み込み）
+ *
+ * <pre>
+ * ヘッダー（32バイト, リトルエンディアン）
+ *   int  magic      0x53415247 ("SARG")
+ *   int  version    形式のバージョン
+ *   int  N          ノード数
+ *   int  reserved   予約（0）
+ *   long edgeSlots  隣接リストの総要素数
+ *   long checksum   オフセット部と隣接リスト部のCRC32C
+ * long[N+1] offsets  各ノードの隣接リスト開始位置
+ * int[edgeSlots]     隣接リスト
+ * </pre>
+ */
+public final class GraphFile {
+    public static final int MAGIC = 0x53415247;
+    public static final int VERSION = 1;
+    public static final int HEADER_BYTES = 32;
+
+    private static final int WRITE_BUFFER_BYTES = 1 << 20;
+
+    private GraphFile() {
+    }
+
+    /**
+     * グラフをバイナリファイルに書き出す
+     * @param network 書き出すネットワーク
+     * @param path 出力ファイル
+     */
+    public static void write(Network network, Path path) throws IOException {
+        // ディレクトリを作成
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(WRITE_BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            CRC32C crc = new CRC32C();
+
+            // ヘッダーは最後に書き込むため領域のみ確保
+            channel.position(HEADER_BYTES);
+
+            // オフセット（隣接リストは詰めて書き出す）
+            int N = network.nodeCount();
+            long offset = 0;
+            for (int i = 0; i < N; i++) {
+                putLong(buffer, offset, channel, crc);
+                offset += network.degree(i);
+            }
+            putLong(buffer, offset, channel, crc);
+
+            // 隣接リスト（forEachNeighbor で走査するため、圧縮グラフも逐次復号で書き出せる）
+            IntConsumer writer = neighbor -> {
+                if (buffer.remaining() < Integer.BYTES) {
+                    try {
+                        flush(buffer, channel, crc);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+                buffer.putInt(neighbor);
+            };
+            try {
+                for (int i = 0; i < N; i++) {
+                    network.forEachNeighbor(i, writer);
+                }
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            flush(buffer, channel, crc);
+
+            // ヘッダー
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(MAGIC);
+            header.putInt(VERSION);
+            header.putInt(N);
+            header.putInt(0);
+            header.putLong(offset);
+            header.putLong(crc.getValue());
+            header.flip();
+            channel.position(0);
+            while (header.hasRemaining()) {
+                channel.write(header);
+            }
+        }
+    }
+
+    /**
+     * バイナリファイルをメモリマップして読み込む（チェックサムを検証する）
+     * @param path 入力ファイル
+     * @return マップされたグラフ
+     */
+    public static MappedGraph load(Path path) throws IOException {
+        return load(path, true);
+    }
+
+    /**
+     * バイナリファイルをメモリマップして読み込む
+     * 隣接リストはヒープにコピーせず、マップしたバッファから直接参照する
+     * @param path 入力ファイル
+     * @param verifyChecksum チェックサムを検証するか
+     * @return マップされたグラフ
+     */
+    public static MappedGraph load(Path path, boolean verifyChecksum) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            if (fileSize < HEADER_BYTES) {
+                throw new IOException("グラフファイルが短すぎます: " + path);
+            }
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            while (header.hasRemaining()) {
+                if (channel.read(header, header.position()) < 0) {
+                    throw new IOException("ヘッダーを読み込めません: " + path);
+                }
+            }
+            header.flip();
+
+            int magic = header.getInt();
+            int version = header.getInt();
+            int N = header.getInt();
+            header.getInt();
+            long edgeSlots = header.getLong();
+            long checksum = header.getLong();
+
+            if (magic != MAGIC) {
+                throw new IOException("グラフファイルではありません: " + path);
+            }
+            if (version != VERSION) {
+                throw new IOException("未対応のバージョンです: " + version);
+            }
+            if (N < 0 || edgeSlots < 0) {
+                throw new IOException("ヘッダーが不正です: N=" + N + ", edgeSlots=" + edgeSlots);
+            }
+            long offsetsBytes = 8L * (N + 1L);
+            long edgesBytes = 4L * edgeSlots;
+            if (fileSize != HEADER_BYTES + offsetsBytes + edgesBytes) {
+                throw new IOException("ファイルサイズがヘッダーと一致しません: " + path);
+            }
+
+            MappedGraph graph = new MappedGraph(path, N,
+                    OffHeapLongArray.wrap(map(channel, HEADER_BYTES, offsetsBytes), N + 1L),
+                    OffHeapIntArray.wrap(map(channel, HEADER_BYTES + offsetsBytes, edgesBytes), edgeSlots));
+
+            if (verifyChecksum && graph.computeChecksum() != checksum) {
+                throw new IOException("チェックサムが一致しません（ファイルが破損しています）: " + path);
+            }
+            return graph;
+        }
+    }
+
+    /**
+     * ファイルがあれば読み込み、なければ（または破損していれば）生成して書き出した後に読み込む
+     * 生成したグラフは同じディレクトリの一時ファイルに書き出してから名前を変えて置き換えるため、
+     * 書き出し中の異常終了や同じファイルを使う複数のジョブがあっても、書きかけのファイルが残らない
+     * @param path キャッシュファイル
+     * @param generator グラフの生成処理
+     * @return マップされたグラフ
+     */
+    public static MappedGraph loadOrCreate(Path path, Supplier<Graph> generator) throws IOException {
+        if (Files.exists(path)) {
+            try {
+                return load(path);
+            } catch (IOException e) {
+                System.err.println("キャッシュファイルを再生成します: " + e.getMessage());
+            }
+        }
+
+        Path parent = path.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path temp = Files.createTempFile(parent, path.getFileName().toString(), ".tmp");
+        try {
+            write(generator.get(), temp);
+            try {
+                Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        return load(path);
+    }
+
+    /**
+     * ファイル領域をヒープ外配列のチャンク単位でマップ
+     */
+    private static ByteBuffer[] map(FileChannel channel, long position, long length) throws IOException {
+        int chunks = (int) ((length + OffHeapIntArray.CHUNK_BYTES - 1) / OffHeapIntArray.CHUNK_BYTES);
+        ByteBuffer[] buffers = new ByteBuffer[chunks];
+        for (int c = 0; c < chunks; c++) {
+            long start = (long) c * OffHeapIntArray.CHUNK_BYTES;
+            long size = Math.min(OffHeapIntArray.CHUNK_BYTES, length - start);
+            buffers[c] = channel.map(FileChannel.MapMode.READ_ONLY, position + start, size)
+                    .order(ByteOrder.LITTLE_ENDIAN);
+        }
+        return buffers;
+    }
+
+    private static void putLong(ByteBuffer buffer, long value, FileChannel channel, CRC32C crc) throws IOException {
+        if (buffer.remaining() < Long.BYTES) {
+            flush(buffer, channel, crc);
+        }
+        buffer.putLong(value);
+    }
+
+    private static void flush(ByteBuffer buffer, FileChannel channel, CRC32C crc) throws IOException {
+        buffer.flip();
+        crc.update(buffer.duplicate());
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
@@ -0,0 +1,37 @@
+package main.java.network.io;
+
+import main.java.network.OffHeapGraph;
+import main.java.network.OffHeapIntArray;
+import main.java.network.OffHeapLongArray;
+import java.nio.file.Path;
+import java.util.zip.CRC32C;
+
+/**
+ * メモリマップしたグラフファイル上のCSRグラフ
+ * オフセットと隣接リストはマップしたバッファから直接読み出す（ヒープへはコピーしない）
+ */
+public class MappedGraph extends OffHeapGraph {
+    private final Path path;
+
+    MappedGraph(Path path, int N, OffHeapLongArray offsets, OffHeapIntArray neighbors) {
+        super(N, offsets, neighbors);
+        this.path = path;
+    }
+
+    /**
+     * 読み込み元のファイル
+     */
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * オフセット部と隣接リスト部のCRC32Cを計算
+     */
+    long computeChecksum() {
+        CRC32C crc = new CRC32C();
+        offsets().updateChecksum(crc);
+        neighbors().updateChecksum(crc);
+        return crc.getValue();
+    }
+}
@@ -0,0 +1,210 @@
+package main.java.network.temporal;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * 時刻つきの接触リスト（SNAPの時間ネットワーク形式）を読み進めるストリーム
+ *
+ * <pre>
+ * # コメント行（'#' または '%' で始まる行）
+ * 12 7 1217567877     source target time（時刻は整数または小数、非減少順）
+ * </pre>
+ *
+ * 固定サイズのバッファにファイルを順に読み込むため、ファイルサイズによらずメモリ使用量は一定
+ */
+public final class ContactFile implements ContactStream {
+    private static final int BUFFER_BYTES = 1 << 20;
+
+    private final FileChannel channel;
+    private final Path path;
+    private final long[] originalIds;  // ファイル中のID（昇順）。nullならIDをそのままノード番号とする
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_BYTES);
+    private final byte[] bytes = buffer.array();
+    private int pos;
+    private int limit;
+    private long consumed;              // バッファより前に読み終えたバイト数（エラー表示用）
+    private boolean eof;
+
+    private int source;
+    private int target;
+    private double time = Double.NEGATIVE_INFINITY;
+
+    /**
+     * ノードIDをそのままノード番号として読む
+     */
+    public ContactFile(Path path) throws IOException {
+        this(path, null);
+    }
+
+    /**
+     * ファイル中のIDを originalIds 中の位置（EdgeListImporter.Result.originalIds など）に変換して読む
+     * originalIds に含まれないIDを持つ接触は読み飛ばす
+     * @param path 入力ファイル
+     * @param originalIds 昇順のID表
+     */
+    public ContactFile(Path path, long[] originalIds) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        this.path = path;
+        this.originalIds = originalIds;
+    }
+
+    @Override
+    public boolean next() throws IOException {
+        while (true) {
+            int lineEnd = findLineEnd();
+            if (lineEnd < 0) {
+                return false;
+            }
+            int lineStart = pos;
+            pos = lineEnd + 1;
+            if (parseLine(lineStart, lineEnd)) {
+                return true;
+            }
+        }
+    }
+
+    @Override
+    public int source() {
+        return source;
+    }
+
+    @Override
+    public int target() {
+        return target;
+    }
+
+    @Override
+    public double time() {
+        return time;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * 現在位置から始まる行の終端（改行の位置、ファイル末尾で改行がなければlimit）を探す
+     * 行がバッファの末尾で切れている場合は残りを先頭に詰めて読み足す
+     * @return 行の終端、読む行がなければ-1
+     */
+    private int findLineEnd() throws IOException {
+        int scan = pos;
+        while (true) {
+            for (; scan < limit; scan++) {
+                if (bytes[scan] == '\n') {
+                    return scan;
+                }
+            }
+            if (eof) {
+                if (pos < limit) {
+                    // 改行で終わらない最終行
+                    bytes[limit] = '\n';
+                    return limit;
+                }
+                return -1;
+            }
+            if (pos == 0 && limit >= bytes.length - 1) {
+                throw new IOException("行が長すぎます（" + path + ", バイト位置 " + consumed + "）");
+            }
+
+            // 未処理部分を先頭に詰めて読み足す（最終行の改行用に1バイト空けておく）
+            System.arraycopy(bytes, pos, bytes, 0, limit - pos);
+            consumed += pos;
+            scan -= pos;
+            limit -= pos;
+            pos = 0;
+            buffer.limit(bytes.length - 1);
+            buffer.position(limit);
+            int read = channel.read(buffer);
+            if (read < 0) {
+                eof = true;
+            } else {
+                limit += read;
+            }
+        }
+    }
+
+    /**
+     * 1行を解析する
+     * @return 接触を読み取ればtrue（空行・コメント・ID表にないノードならfalse）
+     */
+    private boolean parseLine(int from, int to) throws IOException {
+        int p = skipBlanks(from, to);
+        if (p == to || bytes[p] == '#' || bytes[p] == '%') {
+            return false;
+        }
+
+        long u = 0;
+        int start = p;
+        for (; p < to && isDigit(bytes[p]); p++) {
+            u = u * 10 + (bytes[p] - '0');
+        }
+        if (p == start || p - start > 18) {
+            throw malformed(from);
+        }
+        p = skipBlanks(p, to);
+        long v = 0;
+        start = p;
+        for (; p < to && isDigit(bytes[p]); p++) {
+            v = v * 10 + (bytes[p] - '0');
+        }
+        if (p == start || p - start > 18) {
+            throw malformed(from);
+        }
+        p = skipBlanks(p, to);
+
+        // 時刻（整数部と小数部）
+        start = p;
+        double t = 0;
+        for (; p < to && isDigit(bytes[p]); p++) {
+            t = t * 10 + (bytes[p] - '0');
+        }
+        if (p < to && bytes[p] == '.') {
+            double scale = 0.1;
+            for (p++; p < to && isDigit(bytes[p]); p++) {
+                t += (bytes[p] - '0') * scale;
+                scale *= 0.1;
+            }
+        }
+        if (p == start) {
+            throw malformed(from);
+        }
+        if (t < time) {
+            throw new IOException("接触が時刻順に並んでいません（" + path + ", バイト位置 " + (consumed + from) + "）");
+        }
+        time = t;
+
+        if (originalIds == null) {
+            if (u > Integer.MAX_VALUE || v > Integer.MAX_VALUE) {
+                throw malformed(from);
+            }
+            source = (int) u;
+            target = (int) v;
+            return true;
+        }
+        source = Arrays.binarySearch(originalIds, u);
+        target = Arrays.binarySearch(originalIds, v);
+        return source >= 0 && target >= 0;
+    }
+
+    private int skipBlanks(int p, int to) {
+        while (p < to && (bytes[p] == ' ' || bytes[p] == '\t' || bytes[p] == '\r')) {
+            p++;
+        }
+        return p;
+    }
+
+    private static boolean isDigit(byte b) {
+        return b >= '0' && b <= '9';
+    }
+
+    private IOException malformed(int lineStart) {
+        return new IOException("接触を読み取れません（" + path + ", バイト位置 " + (consumed + lineStart) + "）");
+    }
+}
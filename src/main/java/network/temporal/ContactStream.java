@@ -0,0 +1,96 @@
+package main.java.network.temporal;
+
+import java.io.IOException;
+import java.util.Iterator;
+
+/**
+ * 時刻順に並んだ接触イベント (source, target, time) のストリーム
+ * 接触列全体をメモリに保持せず、1件ずつ読み進める
+ *
+ * <pre>
+ * while (stream.next()) {
+ *     int u = stream.source();
+ *     int v = stream.target();
+ *     double t = stream.time();
+ * }
+ * </pre>
+ */
+public interface ContactStream extends AutoCloseable {
+
+    /**
+     * 次の接触に進む
+     * @return 接触があればtrue、終端ならfalse
+     */
+    boolean next() throws IOException;
+
+    /**
+     * 現在の接触の一方のノード
+     */
+    int source();
+
+    /**
+     * 現在の接触のもう一方のノード
+     */
+    int target();
+
+    /**
+     * 現在の接触の時刻
+     */
+    double time();
+
+    @Override
+    default void close() throws IOException {
+    }
+
+    /**
+     * 1件の接触
+     */
+    final class Contact {
+        public final int source;
+        public final int target;
+        public final double time;
+
+        public Contact(int source, int target, double time) {
+            this.source = source;
+            this.target = target;
+            this.time = time;
+        }
+    }
+
+    /**
+     * 接触のイテレーターをストリームとして扱う（接触は時刻順である必要がある）
+     */
+    static ContactStream of(Iterator<Contact> contacts) {
+        return new ContactStream() {
+            private Contact current;
+
+            @Override
+            public boolean next() {
+                if (!contacts.hasNext()) {
+                    return false;
+                }
+                Contact contact = contacts.next();
+                if (current != null && contact.time < current.time) {
+                    throw new IllegalArgumentException("接触が時刻順に並んでいません: " + contact.time);
+                }
+                current = contact;
+                return true;
+            }
+
+            @Override
+            public int source() {
+                return current.source;
+            }
+
+            @Override
+            public int target() {
+                return current.target;
+            }
+
+            @Override
+            public double time() {
+                return current.time;
+            }
+        };
+    }
+}
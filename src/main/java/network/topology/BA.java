@@ -1,9 +1,14 @@
 package main.java.network.topology;
 
+import main.java.network.CSRBuilder;
+import main.java.network.EdgeBuffer;
 import main.java.network.Graph;
+import main.java.network.Parallel;
 import java.util.*;
 
 public class BA {
+    private static final int PARALLEL_BLOCKS = 256; // 並列生成時のエッジブロック数
+
     /**
      * BAモデル（Barabási–Albert型スケールフリーネットワーク）を生成
      * @param N ノード数
@@ -17,10 +22,15 @@ public class BA {
         if (m0 <= 0 || m0 > N) throw new IllegalArgumentException("初期完全グラフの頂点数m0は1〜Nの範囲で指定してください");
         if (m < 0 || m > m0) throw new IllegalArgumentException("各新規ノードが接続するエッジ数mは0以上m0以下である必要があります");
 
+        long edgeSlots = (long) m0 * (m0 - 1) + 2L * m * (N - m0);
+        if (edgeSlots > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("エッジ数がint配列の上限を超えます（OffHeapGraphを使用してください）: " + edgeSlots / 2);
+        }
+
         Random random = new Random(seed);
 
         int[] deg = new int[N];
-        int[] edgeList = new int[(int)(m0 * (m0 - 1) + 2 * m * (N - m0))];
+        int[] edgeList = new int[(int) edgeSlots];
 
         // 初期完全グラフのエッジを設定
         int numEdges = 0;
@@ -107,4 +117,148 @@ public class BA {
     public static Graph generateBA(int N, int m0, int m) {
         return generateBA(N, m0, m, System.currentTimeMillis());
     }
+
+    /**
+     * BAモデルを並列に生成
+     * 新規エッジeの接続先は「eより前に追加されたエッジの端点スロット」から一様に選ぶ（次数比例選択と等価）。
+     * 選んだスロットが過去のエッジの接続先であれば、その接続先を再帰的に決定する。
+     * 各エッジの乱数は (seed, e, 試行回数) のハッシュから得るため、
+     * 同じシードなら何スレッドで実行しても同じグラフになる
+     * @param N ノード数
+     * @param m0 初期完全グラフの頂点数
+     * @param m 各新規ノードが接続するエッジ数
+     * @param seed 乱数シード
+     * @param threads スレッド数
+     * @return 生成されたGraphインスタンス
+     */
+    public static Graph generateBAParallel(int N, int m0, int m, long seed, int threads) {
+        if (N <= 0) throw new IllegalArgumentException("ノード数Nは正の整数である必要があります");
+        if (m0 <= 0 || m0 > N) throw new IllegalArgumentException("初期完全グラフの頂点数m0は1〜Nの範囲で指定してください");
+        if (m < 0 || m > m0) throw new IllegalArgumentException("各新規ノードが接続するエッジ数mは0以上m0以下である必要があります");
+
+        // 初期完全グラフのエッジ
+        int initialEdges = m0 * (m0 - 1) / 2;
+        int[] initialSource = new int[initialEdges];
+        int[] initialTarget = new int[initialEdges];
+        int numEdges = 0;
+        for (int i = 0; i < m0; i++) {
+            for (int j = i + 1; j < m0; j++) {
+                initialSource[numEdges] = i;
+                initialTarget[numEdges] = j;
+                numEdges++;
+            }
+        }
+
+        // 初期グラフにエッジがなければ接続先が存在しない（逐次版と同じく新規エッジなし）
+        int edgesPerNode = initialEdges == 0 ? 0 : m;
+        long newEdges = (long) edgesPerNode * (N - m0);
+        if (2L * (initialEdges + newEdges) > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("エッジ数がint配列の上限を超えます: " + (initialEdges + newEdges));
+        }
+
+        ParallelAttachment attachment = new ParallelAttachment(m0, edgesPerNode, initialSource, initialTarget,
+                (int) newEdges, seed);
+
+        int blocks = PARALLEL_BLOCKS;
+        EdgeBuffer[] buffers = new EdgeBuffer[blocks + 1];
+        EdgeBuffer initialBuffer = new EdgeBuffer(initialEdges);
+        for (int e = 0; e < initialEdges; e++) {
+            initialBuffer.add(initialSource[e], initialTarget[e]);
+        }
+        buffers[blocks] = initialBuffer;
+
+        Parallel.forRange(threads, blocks, b -> {
+            int from = Parallel.blockStart((int) newEdges, blocks, b);
+            int to = Parallel.blockStart((int) newEdges, blocks, b + 1);
+            EdgeBuffer buffer = new EdgeBuffer(to - from);
+            for (int e = from; e < to; e++) {
+                buffer.add(m0 + e / edgesPerNode, attachment.target(e));
+            }
+            buffers[b] = buffer;
+        });
+
+        return CSRBuilder.build(N, buffers, threads);
+    }
+
+    /**
+     * 並列BA生成における新規エッジの接続先の決定
+     */
+    private static class ParallelAttachment {
+        private final int m0;
+        private final int m;
+        private final int[] initialSource;
+        private final int[] initialTarget;
+        private final long seed;
+        // 決定済みの接続先+1（0は未決定）。同じ値しか書き込まれないため、スレッド間の競合は無害
+        private final int[] resolved;
+
+        ParallelAttachment(int m0, int m, int[] initialSource, int[] initialTarget, int newEdges, long seed) {
+            this.m0 = m0;
+            this.m = m;
+            this.initialSource = initialSource;
+            this.initialTarget = initialTarget;
+            this.seed = seed;
+            this.resolved = new int[newEdges];
+        }
+
+        /**
+         * 新規エッジeの接続先
+         */
+        int target(int e) {
+            int cached = resolved[e];
+            if (cached != 0) {
+                return cached - 1;
+            }
+
+            int first = e - e % m;
+            int node = m0 + e / m;
+            // ノードnodeより前に追加されたエッジの端点スロット数
+            long priorSlots = 2L * (initialSource.length + (long) (node - m0) * m);
+
+            for (int attempt = 0; ; attempt++) {
+                long slot = uniform(e, attempt, priorSlots);
+                int candidate = endpoint(slot);
+
+                // 同じノードからの重複接続を避ける
+                boolean duplicate = false;
+                for (int f = first; f < e; f++) {
+                    if (target(f) == candidate) {
+                        duplicate = true;
+                        break;
+                    }
+                }
+                if (!duplicate) {
+                    resolved[e] = candidate + 1;
+                    return candidate;
+                }
+            }
+        }
+
+        /**
+         * 端点スロットに対応するノード（偶数スロットは始点、奇数スロットは接続先）
+         */
+        private int endpoint(long slot) {
+            long edge = slot >>> 1;
+            boolean isSource = (slot & 1) == 0;
+            if (edge < initialSource.length) {
+                return isSource ? initialSource[(int) edge] : initialTarget[(int) edge];
+            }
+            int newEdge = (int) (edge - initialSource.length);
+            return isSource ? m0 + newEdge / m : target(newEdge);
+        }
+
+        /**
+         * (seed, e, attempt) から [0, bound) の一様乱数を得る
+         */
+        private long uniform(int e, int attempt, long bound) {
+            long h = mix64(mix64(seed + 0x9E3779B97F4A7C15L * (e + 1L)) + attempt);
+            return (h >>> 1) % bound;
+        }
+
+        private static long mix64(long z) {
+            z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+            z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+            return z ^ (z >>> 31);
+        }
+    }
 }
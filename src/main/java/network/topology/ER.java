@@ -1,9 +1,15 @@
 package main.java.network.topology;
 
+import main.java.network.CSRBuilder;
+import main.java.network.EdgeBuffer;
 import main.java.network.Graph;
+import main.java.network.OffHeapGraph;
+import main.java.network.Parallel;
 import java.util.*;
 
 public class ER {
+    private static final int PARALLEL_BLOCKS = 256; // 並列生成時の行ブロック数
+
     /**
      * ERモデル（Erdős–Rényi型ランダムグラフ）を生成
      * @param N ノード数
@@ -75,4 +81,85 @@ public class ER {
     public static Graph generateER(int N, double p) {
         return generateER(N, p, System.currentTimeMillis());
     }
+
+    /**
+     * ERモデルをヒープ外グラフとして生成
+     * 同じシードでエッジ列を2回再生成する（次数カウントと書き込み）ため、
+     * エッジ列をメモリに保持せず、隣接リストの総要素数が2^31を超えても生成できる
+     * @param N ノード数
+     * @param p エッジ生成確率（0.0〜1.0）
+     * @param seed 乱数シード
+     * @return 生成されたOffHeapGraphインスタンス
+     */
+    public static OffHeapGraph generateEROffHeap(int N, double p, long seed) {
+        if (N <= 0) throw new IllegalArgumentException("ノード数Nは正の整数である必要があります");
+        if (p < 0.0 || p > 1.0) throw new IllegalArgumentException("確率pは0.0〜1.0の範囲で指定してください");
+
+        double logQ = Math.log(1.0 - p);
+        return OffHeapGraph.fromEdges(N, consumer -> {
+            if (p == 0.0) {
+                return;
+            }
+            SplittableRandom random = new SplittableRandom(seed);
+            for (int i = 0; i < N; i++) {
+                // 次に採用される候補までの不採用数を幾何分布で飛ばす
+                long j = i;
+                while (true) {
+                    long skip = (long) Math.floor(Math.log(1.0 - random.nextDouble()) / logQ);
+                    j += 1 + skip;
+                    if (j >= N || j <= i) {
+                        break;
+                    }
+                    consumer.accept(i, (int) j);
+                }
+            }
+        });
+    }
+
+    /**
+     * ERモデルを並列に生成
+     * 行（ノードi）を固定数のブロックに分割し、ブロックごとに分割した乱数ストリームで
+     * 幾何分布スキップによりエッジを生成する。ブロック分割がスレッド数に依存しないため、
+     * 同じシードなら何スレッドで実行しても同じグラフになる
+     * @param N ノード数
+     * @param p エッジ生成確率（0.0〜1.0）
+     * @param seed 乱数シード
+     * @param threads スレッド数
+     * @return 生成されたGraphインスタンス
+     */
+    public static Graph generateERParallel(int N, double p, long seed, int threads) {
+        if (N <= 0) throw new IllegalArgumentException("ノード数Nは正の整数である必要があります");
+        if (p < 0.0 || p > 1.0) throw new IllegalArgumentException("確率pは0.0〜1.0の範囲で指定してください");
+
+        int blocks = Math.min(N, PARALLEL_BLOCKS);
+        SplittableRandom root = new SplittableRandom(seed);
+        SplittableRandom[] streams = new SplittableRandom[blocks];
+        for (int b = 0; b < blocks; b++) {
+            streams[b] = root.split();
+        }
+
+        EdgeBuffer[] buffers = new EdgeBuffer[blocks];
+        double logQ = Math.log(1.0 - p);
+        Parallel.forRange(threads, blocks, b -> {
+            SplittableRandom random = streams[b];
+            EdgeBuffer buffer = new EdgeBuffer();
+            if (p > 0.0) {
+                for (int i = Parallel.blockStart(N, blocks, b); i < Parallel.blockStart(N, blocks, b + 1); i++) {
+                    // 次に採用される候補までの不採用数を幾何分布で飛ばす
+                    long j = i;
+                    while (true) {
+                        long skip = (long) Math.floor(Math.log(1.0 - random.nextDouble()) / logQ);
+                        j += 1 + skip;
+                        if (j >= N || j <= i) {
+                            break;
+                        }
+                        buffer.add(i, (int) j);
+                    }
+                }
+            }
+            buffers[b] = buffer;
+        });
+
+        return CSRBuilder.build(N, buffers, threads);
+    }
 }
@@ -1,9 +1,14 @@
 package main.java.network.topology;
 
+import main.java.network.CSRBuilder;
+import main.java.network.EdgeBuffer;
 import main.java.network.Graph;
+import main.java.network.Parallel;
 import java.util.*;
 
 public class RR {
+    private static final int PARALLEL_BLOCKS = 256; // 並列生成時のペアブロック数
+
     /**
      * ランダムレギュラーグラフを生成（staticメソッド）
      * @param N ノード数
@@ -15,12 +20,15 @@ public class RR {
         if (k >= N) {
             throw new IllegalArgumentException("次数kはノード数Nより小さい必要があります");
         }
-        if ((N * k) % 2 != 0) {
+        if (((long) N * k) % 2 != 0) {
             throw new IllegalArgumentException("N*kは偶数である必要があります");
         }
         if (k < 0) {
             throw new IllegalArgumentException("次数kは非負数である必要があります");
         }
+        if ((long) N * k > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("N*kがint配列の上限を超えます（OffHeapGraphを使用してください）: " + ((long) N * k));
+        }
         Random random = new Random(seed);
         Graph graph = new Graph();
         graph.N = N;
@@ -91,4 +99,93 @@ public class RR {
     public static Graph generateRR(int N, int k) {
         return generateRR(N, k, System.currentTimeMillis());
     }
+
+    /**
+     * ランダムレギュラーグラフを並列に生成
+     * スタブのシャッフルのみ逐次で行い、ペアリング・CSR構築・自己ループ／多重辺の検査を並列化する。
+     * 乱数はシャッフルでのみ使用するため、同じシードなら何スレッドで実行しても同じグラフになる
+     * @param N ノード数
+     * @param k 各ノードの次数
+     * @param seed 乱数シード
+     * @param threads スレッド数
+     * @return 生成されたGraphインスタンス
+     */
+    public static Graph generateRRParallel(int N, int k, long seed, int threads) {
+        if (k >= N) {
+            throw new IllegalArgumentException("次数kはノード数Nより小さい必要があります");
+        }
+        if (((long) N * k) % 2 != 0) {
+            throw new IllegalArgumentException("N*kは偶数である必要があります");
+        }
+        if (k < 0) {
+            throw new IllegalArgumentException("次数kは非負数である必要があります");
+        }
+        if ((long) N * k > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("N*kがint配列の上限を超えます: " + ((long) N * k));
+        }
+
+        SplittableRandom random = new SplittableRandom(seed);
+        int[] stubs = new int[N * k];
+        int numPairs = stubs.length / 2;
+        int blocks = Math.max(1, Math.min(numPairs, PARALLEL_BLOCKS));
+
+        int maxItr = 1000;
+        for (int itr = 0; itr < maxItr; itr++) {
+            // スタブリストを初期化してシャッフル（Fisher–Yates）
+            Parallel.forRange(threads, N, i -> Arrays.fill(stubs, i * k, i * k + k, i));
+            for (int i = stubs.length - 1; i > 0; i--) {
+                int j = random.nextInt(i + 1);
+                int tmp = stubs[i];
+                stubs[i] = stubs[j];
+                stubs[j] = tmp;
+            }
+
+            // 隣接するスタブをペアにしてエッジを作成（自己ループがあれば失敗）
+            EdgeBuffer[] buffers = new EdgeBuffer[blocks];
+            boolean[] hasSelfLoop = new boolean[blocks];
+            Parallel.forRange(threads, blocks, b -> {
+                int from = Parallel.blockStart(numPairs, blocks, b);
+                int to = Parallel.blockStart(numPairs, blocks, b + 1);
+                EdgeBuffer buffer = new EdgeBuffer(to - from);
+                for (int e = from; e < to; e++) {
+                    int u = stubs[2 * e];
+                    int v = stubs[2 * e + 1];
+                    if (u == v) {
+                        hasSelfLoop[b] = true;
+                        break;
+                    }
+                    buffer.add(u, v);
+                }
+                buffers[b] = buffer;
+            });
+            if (anyTrue(hasSelfLoop)) {
+                continue;
+            }
+
+            // 隣接リストはソート済みなので、隣り合う要素の一致で多重辺を検出
+            Graph graph = CSRBuilder.build(N, buffers, threads);
+            boolean[] hasMultiEdge = new boolean[N];
+            Parallel.forRange(threads, N, i -> {
+                for (int j = graph.addressList[i] + 1; j < graph.cursorList[i]; j++) {
+                    if (graph.edgeList[j] == graph.edgeList[j - 1]) {
+                        hasMultiEdge[i] = true;
+                        break;
+                    }
+                }
+            });
+            if (!anyTrue(hasMultiEdge)) {
+                return graph;
+            }
+        }
+        throw new RuntimeException("ランダムレギュラーグラフの生成に失敗しました");
+    }
+
+    private static boolean anyTrue(boolean[] flags) {
+        for (boolean flag : flags) {
+            if (flag) {
+                return true;
+            }
+        }
+        return false;
+    }
 }
@@ -0,0 +1,91 @@
+package main.java.simulation;
+
+/**
+ * 設定ごとのサンプル数を適応的に決める逐次停止規則
+ * 対象の統計量の平均の信頼区間の半幅が許容誤差を下回るか、上限に達するまでサンプルを追加する。
+ * 分散の小さい設定（感染がすぐ終息する亜臨界など）は少ないサンプルで打ち切られ、
+ * 閾値付近の分散の大きい設定に計算時間が回る
+ */
+public final class AdaptiveSampler {
+    private static final double Z_95 = 1.959963984540054;
+
+    /**
+     * 収束を判定する統計量（感染者数はネットワークサイズに対する割合）
+     */
+    public enum Target {
+        MAX_INFECTED,     // 感染ピークの大きさ
+        FINAL_SIZE,       // 最終規模（終了時までに感染したノードの割合）
+        FINAL_PREVALENCE, // 終了時の感染者数（終息した実行では0）
+        PEAK_TIME;        // 感染ピークの時刻
+
+        public double valueOf(SimulationDataWriter.SimulationRun run) {
+            switch (this) {
+                case MAX_INFECTED:
+                    return (double) run.maxInfected / run.networkSize;
+                case FINAL_SIZE:
+                    return run.finalSize;
+                case FINAL_PREVALENCE:
+                    return (double) run.finalInfected / run.networkSize;
+                case PEAK_TIME:
+                    return run.peakTime;
+                default:
+                    throw new IllegalArgumentException("未知の統計量: " + this);
+            }
+        }
+    }
+
+    private final double tolerance;
+    private final int minSamples;
+    private final int maxSamples;
+    private final OnlineStatistics statistics = new OnlineStatistics();
+
+    /**
+     * @param tolerance 95%信頼区間の半幅の許容値
+     * @param minSamples 最小サンプル数（少数のサンプルで分散が0に見えて打ち切るのを防ぐ）
+     * @param maxSamples 最大サンプル数
+     */
+    public AdaptiveSampler(double tolerance, int minSamples, int maxSamples) {
+        if (!(tolerance > 0)) {
+            throw new IllegalArgumentException("許容誤差は正の値である必要があります: " + tolerance);
+        }
+        if (minSamples < 2 || maxSamples < minSamples) {
+            throw new IllegalArgumentException("サンプル数は 2 <= 最小 <= 最大 である必要があります: "
+                + minSamples + ", " + maxSamples);
+        }
+        this.tolerance = tolerance;
+        this.minSamples = minSamples;
+        this.maxSamples = maxSamples;
+    }
+
+    /**
+     * サンプルの値を加える
+     */
+    public void add(double value) {
+        statistics.add(value);
+    }
+
+    /**
+     * さらにサンプルが必要か
+     */
+    public boolean needsMoreSamples() {
+        long n = statistics.count();
+        if (n < minSamples) {
+            return true;
+        }
+        if (n >= maxSamples) {
+            return false;
+        }
+        return !(statistics.halfWidth(Z_95) <= tolerance);
+    }
+
+    /**
+     * 信頼区間の半幅が許容値を下回って停止したか（falseなら上限で打ち切り）
+     */
+    public boolean converged() {
+        return statistics.count() >= minSamples && statistics.halfWidth(Z_95) <= tolerance;
+    }
+
+    public OnlineStatistics statistics() {
+        return statistics;
+    }
+}
@@ -1,9 +1,11 @@
 package main.java.simulation;
 
 import main.java.network.Graph;
+import main.java.network.GraphReordering;
 import main.java.network.topology.BA;
 import main.java.network.topology.ER;
 import main.java.network.topology.RR;
+import main.java.simulation.meanfield.MeanFieldSolver;
 import java.util.*;
 import java.io.IOException;
 import java.lang.management.ManagementFactory;
@@ -26,10 +28,20 @@ public class BatchSimulationRunner {
             SimulationDataWriter.writeParams(outputDir, params);
             
             // シミュレーション実行
-            List<SimulationDataWriter.SimulationRun> results = runBatchSimulations(params);
+            Map<String, Object> networkStats = new LinkedHashMap<>();
+            Map<String, Object> pairedDifferences = new LinkedHashMap<>();
+            Map<String, Object> trajectoryBands = new LinkedHashMap<>();
+            List<SimulationDataWriter.SimulationRun> results = runBatchSimulations(
+                params, networkStats, pairedDifferences, trajectoryBands);
             
             // 結果を保存
             SimulationDataWriter.writeResults(outputDir, results);
+            SimulationDataWriter.writeResultsBinary(outputDir, results);
+            SimulationDataWriter.writeNetworkStats(outputDir, networkStats);
+            if (!pairedDifferences.isEmpty()) {
+                SimulationDataWriter.writePairedDifferences(outputDir, pairedDifferences);
+            }
+            SimulationDataWriter.writeTrajectoryBands(outputDir, trajectoryBands);
             
             // 状態情報を保存
             Map<String, Object> status = createStatusInfo();
@@ -67,18 +79,53 @@ public class BatchSimulationRunner {
         params.put("transmission_rates", Arrays.asList(0.2, 0.3, 0.4, 0.5));
         params.put("recovery_rates", Arrays.asList(0.1, 0.15, 0.2, 0.25));
         
+        // ノードの並べ替え（NONE, DEGREE_DESCENDING, BFS, RCM）
+        params.put("node_ordering", "NONE");
+        
+        // 初期感染ノードの選び方（UNIFORM, GIANT_COMPONENT, HIGH_DEGREE, K_CORE, RANDOM_NEIGHBOR）
+        params.put("seeding_strategy", "UNIFORM");
+        
+        // 巨大連結成分のみを取り出して実行するか
+        params.put("extract_giant_component", false);
+        
         // シミュレーション設定
         params.put("initial_infections", Arrays.asList(1, 2, 3, 5));
         params.put("max_time", 50.0);
         params.put("samples_per_config", 10);
         
+        // 適応的サンプリング（有効なら samples_per_config の代わりに、
+        // 対象の統計量の95%信頼区間の半幅が許容値を下回るまでサンプルを追加する）
+        params.put("adaptive_sampling", false);
+        params.put("adaptive_target", "MAX_INFECTED"); // MAX_INFECTED, FINAL_SIZE, FINAL_PREVALENCE, PEAK_TIME
+        params.put("adaptive_tolerance", 0.02);
+        params.put("adaptive_min_samples", 5);
+        params.put("adaptive_max_samples", 200);
+        
+        // 共通乱数（有効なら同じサンプル番号の実行は、τ, γによらず同じグラフ・初期感染ノード・
+        // ノードとエッジの時計を使い、隣り合うτの間の adaptive_target の対応のある差を書き出す）
+        params.put("common_random_numbers", false);
+        
+        // 実行方法（GILLESPIE, HETEROGENEOUS_MEAN_FIELD, PAIR_APPROXIMATION, EDGE_BASED）
+        // 平均場近似は決定論的なため、設定ごとに1回のみ解き、適応的サンプリングと共通乱数は使わない
+        params.put("backend", "GILLESPIE");
+        params.put("mean_field_record_interval", 0.1);
+        
+        // 感染ノード数の推移の帯（設定ごとに0からmax_timeまでの等間隔のグリッド点で平均・標準偏差・分位点を逐次集計）
+        params.put("trajectory_grid_points", 101);
+        params.put("trajectory_quantiles", Arrays.asList(0.05, 0.5, 0.95));
+        
         return params;
     }
     
     /**
      * バッチシミュレーションを実行
+     * @param networkStats ネットワーク設定（タイプとサイズ）ごとの統計量（最初にサンプルしたグラフ1つのもの）の出力先
+     * @param pairedDifferences 共通乱数を使う場合の、隣り合うτの間の対応のある差の出力先
+     * @param trajectoryBands 設定ごとの感染ノード数の推移の帯の出力先
      */
-    private static List<SimulationDataWriter.SimulationRun> runBatchSimulations(Map<String, Object> params) {
+    private static List<SimulationDataWriter.SimulationRun> runBatchSimulations(
+            Map<String, Object> params, Map<String, Object> networkStats, Map<String, Object> pairedDifferences,
+            Map<String, Object> trajectoryBands) {
         List<SimulationDataWriter.SimulationRun> results = new ArrayList<>();
         int runId = 0;
         
@@ -95,29 +142,67 @@ public class BatchSimulationRunner {
         
         double maxTime = (Double) params.get("max_time");
         int samplesPerConfig = (Integer) params.get("samples_per_config");
+        SeedSelection.Strategy seeding = SeedSelection.Strategy.valueOf(
+            (String) params.getOrDefault("seeding_strategy", "UNIFORM"));
+        MeanFieldSolver.Model meanField = meanFieldModel(params);
+        if (meanField != null) {
+            samplesPerConfig = 1;
+        }
+        boolean adaptive = meanField == null && (Boolean) params.getOrDefault("adaptive_sampling", false);
+        AdaptiveSampler.Target target = AdaptiveSampler.Target.valueOf(
+            (String) params.getOrDefault("adaptive_target", "MAX_INFECTED"));
+        boolean commonRandomNumbers = meanField == null && (Boolean) params.getOrDefault("common_random_numbers", false);
+        
+        // 共通乱数: サンプル番号ごとのシミュレータ（グラフと時計）と、設定ごと・τごと・サンプルごとの値
+        Map<Integer, CommonRandomSimulator> commonSimulators = new HashMap<>();
+        Map<String, TreeMap<Double, Map<Integer, Double>>> pairedValues = new LinkedHashMap<>();
         
         for (String networkType : networkTypes) {
             for (int networkSize : networkSizes) {
+                commonSimulators.clear();
+                // 平均場近似は次数分布のみを使うため、グラフと次数分布は (タイプ, サイズ) ごとに1度だけ作り、τ, γ, 初期感染で使い回す
+                Graph meanFieldGraph = meanField != null ? generateNetwork(networkType, networkSize, params) : null;
+                MeanFieldSolver meanFieldSolver = meanField != null ? new MeanFieldSolver(meanFieldGraph) : null;
                 for (double transmissionRate : transmissionRates) {
                     for (double recoveryRate : recoveryRates) {
                         for (int initialInfection : initialInfections) {
                             
                             // 各設定で複数回シミュレーション実行
-                            for (int sample = 0; sample < samplesPerConfig; sample++) {
+                            AdaptiveSampler sampler = adaptive ? createSampler(params) : null;
+                            TrajectoryAggregator trajectories = createTrajectoryAggregator(maxTime, params);
+                            int sample;
+                            for (sample = 0; adaptive ? sampler.needsMoreSamples() : sample < samplesPerConfig; sample++) {
                                 runId++;
                                 
                                 System.out.printf("実行 %d: %s, N=%d, τ=%.2f, γ=%.2f, 初期感染=%d, サンプル=%d%n",
                                     runId, networkType, networkSize, transmissionRate, recoveryRate, 
                                     initialInfection, sample + 1);
                                 
-                                // ネットワーク生成
-                                Graph network = generateNetwork(networkType, networkSize, params);
+                                // ネットワーク生成（共通乱数ならサンプル番号ごとに1度だけ生成して使い回す）
+                                CommonRandomSimulator commonSimulator = null;
+                                Graph network;
+                                if (meanFieldSolver != null) {
+                                    network = meanFieldGraph;
+                                } else if (commonRandomNumbers) {
+                                    commonSimulator = commonSimulators.computeIfAbsent(sample, s -> new CommonRandomSimulator(
+                                        generateNetwork(networkType, networkSize, params), s));
+                                    network = (Graph) commonSimulator.network();
+                                } else {
+                                    network = generateNetwork(networkType, networkSize, params);
+                                }
+                                // 統計量の計算（三角形の数え上げなど）は重いため、設定ごとに最初にサンプルしたグラフ1つについてのみ求め、その旨を記録する
+                                networkStats.computeIfAbsent(networkType + "_N" + networkSize, key -> {
+                                    Map<String, Object> stats = network.statistics().toMap();
+                                    stats.put("source", "first_sampled_graph");
+                                    return stats;
+                                });
                                 
                                 // シミュレーション実行
                                 long startTime = System.currentTimeMillis();
                                 SimulationDataWriter.SimulationRun result = runSingleSimulation(
                                     runId, network, networkType, networkSize, transmissionRate, 
-                                    recoveryRate, initialInfection, maxTime);
+                                    recoveryRate, initialInfection, maxTime, seeding, commonSimulator, meanFieldSolver, sample,
+                                    trajectories, params);
                                 long endTime = System.currentTimeMillis();
                                 
                                 // 実行時間を設定
@@ -125,10 +210,31 @@ public class BatchSimulationRunner {
                                     result.runId, result.transmissionRate, result.recoveryRate,
                                     result.networkType, result.networkSize, result.initialInfections,
                                     result.maxTime, result.maxInfected, result.finalInfected,
-                                    result.peakTime, result.totalEvents, (endTime - startTime) / 1000.0
+                                    result.peakTime, result.totalEvents, (endTime - startTime) / 1000.0,
+                                    result.finalSize
                                 );
                                 
                                 results.add(result);
+                                if (adaptive) {
+                                    sampler.add(target.valueOf(result));
+                                }
+                                if (commonRandomNumbers) {
+                                    String config = String.format("%s_N%d_gamma%.4f_init%d",
+                                        networkType, networkSize, recoveryRate, initialInfection);
+                                    pairedValues.computeIfAbsent(config, key -> new TreeMap<>())
+                                        .computeIfAbsent(transmissionRate, key -> new HashMap<>())
+                                        .put(sample, target.valueOf(result));
+                                }
+                            }
+                            
+                            trajectoryBands.put(String.format("%s_N%d_tau%.4f_gamma%.4f_init%d", networkType,
+                                networkSize, transmissionRate, recoveryRate, initialInfection), trajectories.toMap());
+                            
+                            if (adaptive) {
+                                OnlineStatistics statistics = sampler.statistics();
+                                System.out.printf("  サンプル数 %d（%s）: %s = %.4f ± %.4f%n", sample,
+                                    sampler.converged() ? "収束" : "上限で打ち切り", target,
+                                    statistics.mean(), statistics.halfWidth(1.96));
                             }
                         }
                     }
@@ -136,28 +242,106 @@ public class BatchSimulationRunner {
             }
         }
         
+        pairedDifferences.putAll(pairedDifferences(pairedValues));
         return results;
     }
     
+    /**
+     * 共通乱数の実行結果から、隣り合うτの間の差を同じサンプル番号どうしで求める
+     * 比較のため、独立な実行とみなした場合の標準誤差も併記する
+     */
+    private static Map<String, Object> pairedDifferences(Map<String, TreeMap<Double, Map<Integer, Double>>> pairedValues) {
+        Map<String, Object> output = new LinkedHashMap<>();
+        for (Map.Entry<String, TreeMap<Double, Map<Integer, Double>>> config : pairedValues.entrySet()) {
+            Map.Entry<Double, Map<Integer, Double>> previous = null;
+            for (Map.Entry<Double, Map<Integer, Double>> current : config.getValue().entrySet()) {
+                if (previous != null) {
+                    OnlineStatistics differences = new OnlineStatistics();
+                    OnlineStatistics before = new OnlineStatistics();
+                    OnlineStatistics after = new OnlineStatistics();
+                    for (Map.Entry<Integer, Double> sample : previous.getValue().entrySet()) {
+                        Double value = current.getValue().get(sample.getKey());
+                        if (value != null) {
+                            differences.add(value - sample.getValue());
+                            before.add(sample.getValue());
+                            after.add(value);
+                        }
+                    }
+                    Map<String, Object> pair = new LinkedHashMap<>();
+                    pair.put("transmission_rate_from", previous.getKey());
+                    pair.put("transmission_rate_to", current.getKey());
+                    pair.put("pairs", differences.count());
+                    pair.put("mean_difference", differences.mean());
+                    pair.put("paired_standard_error", differences.standardError());
+                    pair.put("independent_standard_error",
+                        Math.sqrt((before.variance() + after.variance()) / differences.count()));
+                    output.put(String.format("%s_tau%.4f-%.4f", config.getKey(), previous.getKey(), current.getKey()), pair);
+                }
+                previous = current;
+            }
+        }
+        return output;
+    }
+    
+    /**
+     * パラメータから適応的サンプリングの停止規則を作成
+     */
+    private static AdaptiveSampler createSampler(Map<String, Object> params) {
+        return new AdaptiveSampler(
+            (Double) params.getOrDefault("adaptive_tolerance", 0.02),
+            (Integer) params.getOrDefault("adaptive_min_samples", 5),
+            (Integer) params.getOrDefault("adaptive_max_samples", 200));
+    }
+    
+    /**
+     * パラメータから感染ノード数の推移の集計を作成
+     */
+    private static TrajectoryAggregator createTrajectoryAggregator(double maxTime, Map<String, Object> params) {
+        @SuppressWarnings("unchecked")
+        List<Double> quantiles = (List<Double>) params.getOrDefault("trajectory_quantiles", Arrays.asList(0.05, 0.5, 0.95));
+        return new TrajectoryAggregator(maxTime, (Integer) params.getOrDefault("trajectory_grid_points", 101),
+            quantiles.stream().mapToDouble(Double::doubleValue).toArray());
+    }
+    
+    /**
+     * backend が平均場近似ならその種類（GILLESPIEならnull）
+     */
+    private static MeanFieldSolver.Model meanFieldModel(Map<String, Object> params) {
+        String backend = (String) params.getOrDefault("backend", "GILLESPIE");
+        return backend.equals("GILLESPIE") ? null : MeanFieldSolver.Model.valueOf(backend);
+    }
+    
     /**
      * 単一のシミュレーションを実行
      */
     private static SimulationDataWriter.SimulationRun runSingleSimulation(
             int runId, Graph network, String networkType, int networkSize,
-            double transmissionRate, double recoveryRate, int initialInfection, double maxTime) {
-        
-        // SARシミュレーターを作成
-        SARSimulator simulator = new SARSimulator(network, transmissionRate, recoveryRate);
+            double transmissionRate, double recoveryRate, int initialInfection, double maxTime,
+            SeedSelection.Strategy seeding, CommonRandomSimulator commonSimulator, MeanFieldSolver meanFieldSolver,
+            int sample, TrajectoryAggregator trajectories, Map<String, Object> params) {
         
-        // 初期感染ノードを設定
-        Set<Integer> initialInfections = new HashSet<>();
-        Random random = new Random(runId); // 再現性のためrunIdをシードに使用
-        while (initialInfections.size() < initialInfection) {
-            initialInfections.add(random.nextInt(networkSize));
+        SARSimulator.SimulationResult result;
+        if (meanFieldSolver != null) {
+            // 平均場近似: 次数分布のみを使い、初期感染ノードは一様に選ばれるとみなす
+            double recordInterval = (Double) params.getOrDefault("mean_field_record_interval", 0.1);
+            result = meanFieldSolver.solve(meanFieldModel(params), transmissionRate, recoveryRate,
+                Math.min(initialInfection, network.N), maxTime, recordInterval);
+        } else if (commonSimulator == null) {
+            // SARシミュレーターを作成
+            SARSimulator simulator = new SARSimulator(network, transmissionRate, recoveryRate);
+            
+            // 初期感染ノードを設定（巨大連結成分を取り出した場合はnetwork.N < networkSize）
+            Random random = new Random(runId); // 再現性のためrunIdをシードに使用
+            int[] initialInfections = SeedSelection.select(network, seeding, initialInfection, random);
+            
+            // シミュレーション実行
+            result = simulator.runSimulation(initialInfections, maxTime);
+        } else {
+            // 共通乱数: 初期感染ノードもサンプル番号のみから決め、τ, γの間で共通にする
+            int[] initialInfections = SeedSelection.select(network, seeding, initialInfection, new Random(sample));
+            result = commonSimulator.runSimulation(initialInfections, transmissionRate, recoveryRate, maxTime);
         }
-        
-        // シミュレーション実行
-        SARSimulator.SimulationResult result = simulator.runSimulation(initialInfections, maxTime);
+        trajectories.add(result);
         
         // 統計情報を計算
         int maxInfected = result.infectedCounts.stream()
@@ -167,6 +351,10 @@ public class BatchSimulationRunner {
         
         int finalInfected = result.infectedCounts.get(result.infectedCounts.size() - 1);
         
+        // 最終規模（巨大連結成分を取り出した場合は取り出した後のノード数に対する割合）
+        int finalSusceptible = result.susceptibleCounts.get(result.susceptibleCounts.size() - 1);
+        double finalSize = network.N > 0 ? (double) (network.N - finalSusceptible) / network.N : 0.0;
+        
         // 感染ピーク時間を計算
         int peakIndex = 0;
         for (int i = 1; i < result.infectedCounts.size(); i++) {
@@ -182,14 +370,34 @@ public class BatchSimulationRunner {
         return new SimulationDataWriter.SimulationRun(
             runId, transmissionRate, recoveryRate, networkTypeInt, networkSize,
             initialInfection, maxTime, maxInfected, finalInfected, peakTime,
-            result.times.size(), 0.0 // 実行時間は後で設定
+            result.times.size(), 0.0, finalSize // 実行時間は後で設定
         );
     }
     
     /**
      * ネットワークを生成
+     * extract_giant_componentが指定されていれば巨大連結成分のみを取り出し、
+     * node_orderingが指定されていれば、キャッシュ局所性のためにノードIDを付け替える
+     * （結果は感染者数などノードIDに依存しない量のみなので、元のIDへの変換は不要）
      */
     private static Graph generateNetwork(String networkType, int networkSize, Map<String, Object> params) {
+        Graph network = generateTopology(networkType, networkSize, params);
+        
+        if ((Boolean) params.getOrDefault("extract_giant_component", false)) {
+            network = network.componentIndex().extractGiant(network).graph;
+        }
+        
+        String ordering = (String) params.getOrDefault("node_ordering", "NONE");
+        if (ordering.equals("NONE")) {
+            return network;
+        }
+        return GraphReordering.reorder(network, GraphReordering.Order.valueOf(ordering)).graph;
+    }
+    
+    /**
+     * ネットワークタイプに応じてグラフを生成
+     */
+    private static Graph generateTopology(String networkType, int networkSize, Map<String, Object> params) {
         Random random = new Random(42); // 再現性のため固定シード
         
         switch (networkType) {
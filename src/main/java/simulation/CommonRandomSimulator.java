@@ -0,0 +1,207 @@
+package main.java.simulation;
+
+import main.java.network.Network;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntConsumer;
+
+/**
+ * 共通乱数（common random numbers）によるSARシミュレーション
+ * ノードごとの回復の時計 E_i と、隣接リストのスロット（有向エッジ）ごとの感染の時計 F_ij を
+ * 標準指数分布から事前に引いておき、感染期間 E_i/γ と感染までの時間 F_ij/τ として使う。
+ * i の感染から F_ij/τ 後に、それが感染期間内で j がまだ感受性なら j を感染させる（次反応法）。
+ * 指数分布の待ち時間なので分布はGillespie法と同じだが、同じ時計を異なるτ, γで使い回すため、
+ * 隣り合うパラメータ値の結果が強く相関し、差の分散が小さくなる
+ */
+public class CommonRandomSimulator {
+    private static final byte SUSCEPTIBLE = 0;
+    private static final byte INFECTED = 1;
+    private static final byte RECOVERED = 2;
+
+    private final Network network;
+    private final int N;
+    private final double[] recoveryClocks;  // E_i ~ Exp(1)
+    private final int[] slotOffsets;        // 各ノードの隣接リストのスロット開始位置（N+1要素）
+    private final double[] infectionClocks; // F_ij ~ Exp(1)（スロット順）
+
+    private final byte[] state;
+    private int infectedCount;
+    private int recoveredCount;
+
+    // イベントの最小ヒープ（値は 2 × ノード + 種類。0なら感染、1なら回復）
+    private double[] heapTimes = new double[16];
+    private int[] heapEvents = new int[16];
+    private int heapSize;
+
+    // 感染時の隣接ノードの走査で使う値
+    private int slot;
+    private double infectionTime;
+    private double infectiousPeriod;
+    private double transmissionRate;
+    private final IntConsumer infectionScheduler = this::scheduleInfection;
+
+    /**
+     * @param network ネットワーク
+     * @param seed 時計を引く乱数のシード（比較するパラメータ値の間で共通にする）
+     */
+    public CommonRandomSimulator(Network network, long seed) {
+        this.network = network;
+        this.N = network.nodeCount();
+        if (N > (1 << 30)) {
+            throw new IllegalArgumentException("ノード数が上限を超えます: " + N);
+        }
+        long slots = network.edgeSlotCount();
+        if (slots > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("隣接リストのサイズがint配列の上限を超えます: " + slots);
+        }
+        this.slotOffsets = new int[N + 1];
+        for (int i = 0; i < N; i++) {
+            slotOffsets[i + 1] = slotOffsets[i] + network.degree(i);
+        }
+
+        SplitMixRandom random = new SplitMixRandom(seed);
+        this.recoveryClocks = new double[N];
+        for (int i = 0; i < N; i++) {
+            recoveryClocks[i] = -Math.log(1 - random.nextDouble());
+        }
+        this.infectionClocks = new double[(int) slots];
+        for (int s = 0; s < infectionClocks.length; s++) {
+            infectionClocks[s] = -Math.log(1 - random.nextDouble());
+        }
+        this.state = new byte[N];
+    }
+
+    public Network network() {
+        return network;
+    }
+
+    /**
+     * 共通の時計を使ってシミュレーションを実行
+     * @param initialInfections 初期感染ノード（比較するパラメータ値の間で共通にする）
+     * @param transmissionRate 感染率τ
+     * @param recoveryRate 回復率γ
+     * @param maxTime 最大シミュレーション時間
+     * @return シミュレーション結果（イベントごとの状態の推移）
+     */
+    public SARSimulator.SimulationResult runSimulation(int[] initialInfections, double transmissionRate,
+                                                       double recoveryRate, double maxTime) {
+        if (transmissionRate < 0 || recoveryRate < 0) {
+            throw new IllegalArgumentException("感染率と回復率は0以上である必要があります: τ="
+                + transmissionRate + ", γ=" + recoveryRate);
+        }
+        this.transmissionRate = transmissionRate;
+        Arrays.fill(state, SUSCEPTIBLE);
+        infectedCount = 0;
+        recoveredCount = 0;
+        heapSize = 0;
+
+        List<Double> times = new ArrayList<>();
+        List<Integer> susceptibleCounts = new ArrayList<>();
+        List<Integer> infectedCounts = new ArrayList<>();
+        List<Integer> recoveredCounts = new ArrayList<>();
+
+        for (int node : initialInfections) {
+            if (node < 0 || node >= N) {
+                throw new IllegalArgumentException("無効な初期感染ノード: " + node);
+            }
+            if (state[node] == SUSCEPTIBLE) {
+                infect(node, 0.0, recoveryRate);
+            }
+        }
+        record(0.0, times, susceptibleCounts, infectedCounts, recoveredCounts);
+
+        while (heapSize > 0 && heapTimes[0] < maxTime) {
+            double time = heapTimes[0];
+            int event = heapEvents[0];
+            pop();
+            int node = event >>> 1;
+            if ((event & 1) == 0) {
+                // 同じノードへの感染の候補は複数ありうるため、最初のもの以外は捨てる
+                if (state[node] != SUSCEPTIBLE) {
+                    continue;
+                }
+                infect(node, time, recoveryRate);
+            } else {
+                state[node] = RECOVERED;
+                infectedCount--;
+                recoveredCount++;
+            }
+            record(time, times, susceptibleCounts, infectedCounts, recoveredCounts);
+        }
+
+        return new SARSimulator.SimulationResult(times, susceptibleCounts, infectedCounts, recoveredCounts);
+    }
+
+    /**
+     * ノードを感染させ、回復と、感染期間内に起きる隣接ノードへの感染をヒープに入れる
+     */
+    private void infect(int node, double time, double recoveryRate) {
+        state[node] = INFECTED;
+        infectedCount++;
+        infectiousPeriod = recoveryRate > 0 ? recoveryClocks[node] / recoveryRate : Double.POSITIVE_INFINITY;
+        push(time + infectiousPeriod, 2 * node + 1);
+
+        infectionTime = time;
+        slot = slotOffsets[node];
+        network.forEachNeighbor(node, infectionScheduler);
+    }
+
+    private void scheduleInfection(int neighbor) {
+        double delay = infectionClocks[slot++] / transmissionRate;
+        if (delay < infectiousPeriod && state[neighbor] == SUSCEPTIBLE) {
+            push(infectionTime + delay, 2 * neighbor);
+        }
+    }
+
+    private void push(double time, int event) {
+        if (heapSize == heapTimes.length) {
+            heapTimes = Arrays.copyOf(heapTimes, 2 * heapSize);
+            heapEvents = Arrays.copyOf(heapEvents, 2 * heapSize);
+        }
+        int i = heapSize++;
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (heapTimes[parent] <= time) {
+                break;
+            }
+            heapTimes[i] = heapTimes[parent];
+            heapEvents[i] = heapEvents[parent];
+            i = parent;
+        }
+        heapTimes[i] = time;
+        heapEvents[i] = event;
+    }
+
+    private void pop() {
+        double time = heapTimes[--heapSize];
+        int event = heapEvents[heapSize];
+        int i = 0;
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= heapSize) {
+                break;
+            }
+            if (child + 1 < heapSize && heapTimes[child + 1] < heapTimes[child]) {
+                child++;
+            }
+            if (time <= heapTimes[child]) {
+                break;
+            }
+            heapTimes[i] = heapTimes[child];
+            heapEvents[i] = heapEvents[child];
+            i = child;
+        }
+        heapTimes[i] = time;
+        heapEvents[i] = event;
+    }
+
+    private void record(double time, List<Double> times, List<Integer> susceptibleCounts,
+                        List<Integer> infectedCounts, List<Integer> recoveredCounts) {
+        times.add(time);
+        susceptibleCounts.add(N - infectedCount - recoveredCount);
+        infectedCounts.add(infectedCount);
+        recoveredCounts.add(recoveredCount);
+    }
+}
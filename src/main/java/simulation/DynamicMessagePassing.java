@@ -0,0 +1,275 @@
+package main.java.simulation;
+
+import main.java.network.Graph;
+import main.java.network.Parallel;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * 動的メッセージパッシング（DMP, Lokhov et al. 2015）によるSIRのノードごとの周辺確率
+ * 時間を刻み幅 dt で離散化し（1ステップの感染確率 λ = 1 - e^{-τdt}、回復確率 μ = 1 - e^{-γdt}）、
+ * 有向エッジ k→i ごとのメッセージを Graph の edgeList のスロットで添字付けしたプリミティブ配列に持つ。
+ * 木では厳密、ループの少ないグラフでは良い近似となり、モンテカルロの多数回の実行を1回の反復で置き換える。
+ * 各ステップのメッセージ更新はノード単位で並列に行い、結果はスレッド数によらない
+ */
+public final class DynamicMessagePassing {
+
+    private final Graph graph;
+    private final int N;
+    private final int threads;
+    private final int[] reverse; // スロット (i→k) に対する逆向きのスロット (k→i)。対がなければ-1
+
+    /**
+     * 刻みごとの周辺確率を受け取る（配列は内部の作業領域なので、呼び出し中のみ有効）
+     */
+    public interface Observer {
+        void observe(int step, double time, double[] susceptible, double[] infected, double[] recovered);
+    }
+
+    public DynamicMessagePassing(Graph graph) {
+        this(graph, Parallel.defaultThreads());
+    }
+
+    public DynamicMessagePassing(Graph graph, int threads) {
+        this.graph = graph;
+        this.N = graph.N;
+        this.threads = threads;
+        this.reverse = reverseSlots(graph, threads);
+    }
+
+    /**
+     * 逆向きのスロットを求める
+     * 各ノードの隣接リストを (隣接ノード, スロット) の順に並べ、u < v の対について
+     * u の隣接リスト中の m 番目の v と、v の隣接リスト中の m 番目の u を対応させる（多重エッジにも対応）。
+     * 自己ループと対のないスロットは-1のまま（メッセージを使わない）
+     */
+    private static int[] reverseSlots(Graph graph, int threads) {
+        int n = graph.N;
+        int[] reverse = new int[graph.edgeList.length];
+        Arrays.fill(reverse, -1);
+        long[] sorted = new long[graph.edgeList.length];
+        Parallel.forRange(threads, n, i -> {
+            for (int s = graph.addressList[i]; s < graph.cursorList[i]; s++) {
+                sorted[s] = ((long) graph.edgeList[s] << 32) | s;
+            }
+            Arrays.sort(sorted, graph.addressList[i], graph.cursorList[i]);
+        });
+        // 対 (u, v), u < v は u の処理でのみ書き込むため、書き込み先は重ならない
+        Parallel.forRange(threads, n, u -> {
+            int s = graph.addressList[u];
+            int end = graph.cursorList[u];
+            while (s < end) {
+                int v = (int) (sorted[s] >>> 32);
+                int runEnd = s;
+                while (runEnd < end && (int) (sorted[runEnd] >>> 32) == v) {
+                    runEnd++;
+                }
+                if (u < v) {
+                    int t = lowerBound(sorted, graph.addressList[v], graph.cursorList[v], (long) u << 32);
+                    for (int r = s; r < runEnd && t < graph.cursorList[v] && (int) (sorted[t] >>> 32) == u; r++, t++) {
+                        int forward = (int) sorted[r];
+                        int backward = (int) sorted[t];
+                        reverse[forward] = backward;
+                        reverse[backward] = forward;
+                    }
+                }
+                s = runEnd;
+            }
+        });
+        return reverse;
+    }
+
+    private static int lowerBound(long[] values, int from, int to, long key) {
+        while (from < to) {
+            int middle = (from + to) >>> 1;
+            if (values[middle] < key) {
+                from = middle + 1;
+            } else {
+                to = middle;
+            }
+        }
+        return from;
+    }
+
+    /**
+     * 初期感染ノードから maxTime までのノードごとの周辺確率を計算
+     */
+    public Result solve(int[] initialInfections, double transmissionRate, double recoveryRate,
+                        double dt, double maxTime) {
+        return solve(initialInfections, transmissionRate, recoveryRate, dt, maxTime, null);
+    }
+
+    /**
+     * 初期感染ノードから maxTime までのノードごとの周辺確率を計算
+     * @param initialInfections 初期感染ノード
+     * @param transmissionRate 感染率τ
+     * @param recoveryRate 回復率γ
+     * @param dt 時間の刻み幅
+     * @param maxTime 最大時間
+     * @param observer 刻みごとの周辺確率を受け取る（nullなら呼ばない）
+     */
+    public Result solve(int[] initialInfections, double transmissionRate, double recoveryRate,
+                        double dt, double maxTime, Observer observer) {
+        if (!(dt > 0) || !(maxTime >= 0)) {
+            throw new IllegalArgumentException("刻み幅または最大時間が不正です: dt=" + dt + ", maxTime=" + maxTime);
+        }
+        if (transmissionRate < 0 || recoveryRate < 0) {
+            throw new IllegalArgumentException("感染率と回復率は0以上である必要があります: τ="
+                + transmissionRate + ", γ=" + recoveryRate);
+        }
+        double lambda = 1 - Math.exp(-transmissionRate * dt);
+        double mu = 1 - Math.exp(-recoveryRate * dt);
+        double decay = (1 - lambda) * (1 - mu);
+        int steps = (int) Math.ceil(maxTime / dt - 1e-9);
+
+        // ノードごとの周辺確率
+        double[] initialSusceptible = new double[N];
+        double[] susceptible = new double[N];
+        double[] infected = new double[N];
+        double[] recovered = new double[N];
+        Arrays.fill(initialSusceptible, 1.0);
+        for (int node : initialInfections) {
+            if (node < 0 || node >= N) {
+                throw new IllegalArgumentException("無効な初期感染ノード: " + node);
+            }
+            initialSusceptible[node] = 0.0;
+        }
+
+        // 並列ループは各ステップに2回あるため、プールは solve ごとに1つだけ作って使い回す
+        ForkJoinPool pool = Parallel.newPool(threads);
+        try {
+            // スロット s（ノード k の隣接リスト中、edgeList[s] = i）ごとのメッセージ
+            //   theta[s]: θ^{i→k} i から k へまだ感染が伝わっていない確率
+            //   phi[s]:   φ^{k→i} k が感染していて、まだ i へ伝えていない確率
+            //   cavity[s]: P_S^{k→i} i を除いたときに k が感受性である確率
+            double[] theta = new double[graph.edgeList.length];
+            double[] phi = new double[graph.edgeList.length];
+            double[] cavity = new double[graph.edgeList.length];
+            Parallel.forRange(pool, N, k -> {
+                susceptible[k] = initialSusceptible[k];
+                infected[k] = 1 - initialSusceptible[k];
+                recovered[k] = 0;
+                for (int s = graph.addressList[k]; s < graph.cursorList[k]; s++) {
+                    theta[s] = 1.0;
+                    phi[s] = infected[k];
+                    cavity[s] = initialSusceptible[k];
+                }
+            });
+
+            double[] times = new double[steps + 1];
+            double[] expectedSusceptible = new double[steps + 1];
+            double[] expectedInfected = new double[steps + 1];
+            double[] expectedRecovered = new double[steps + 1];
+            record(0, susceptible, infected, recovered, expectedSusceptible, expectedInfected, expectedRecovered);
+            if (observer != null) {
+                observer.observe(0, 0.0, susceptible, infected, recovered);
+            }
+
+            for (int step = 1; step <= steps; step++) {
+                // θ^{k→i}(t) = θ^{k→i}(t-1) - λ φ^{k→i}(t-1)（φは前のステップの値のみを読む）
+                Parallel.forRange(pool, N, i -> {
+                    for (int s = graph.addressList[i]; s < graph.cursorList[i]; s++) {
+                        int r = reverse[s];
+                        if (r >= 0) {
+                            theta[s] = Math.max(0.0, theta[s] - lambda * phi[r]);
+                        }
+                    }
+                });
+
+                // P_S^{k→i}(t) = P_S^k(0) Π_{l≠i} θ^{l→k}(t)
+                // φ^{k→i}(t) = (1-λ)(1-μ) φ^{k→i}(t-1) - (P_S^{k→i}(t) - P_S^{k→i}(t-1))
+                // ノード k は自分のスロットのみを書き換える
+                Parallel.forRange(pool, N, k -> {
+                    double product = 1.0; // 0でないθの積
+                    int zeros = 0;
+                    for (int s = graph.addressList[k]; s < graph.cursorList[k]; s++) {
+                        if (reverse[s] >= 0) {
+                            if (theta[s] > 0) {
+                                product *= theta[s];
+                            } else {
+                                zeros++;
+                            }
+                        }
+                    }
+                    for (int s = graph.addressList[k]; s < graph.cursorList[k]; s++) {
+                        if (reverse[s] < 0) {
+                            continue;
+                        }
+                        double excluded;
+                        if (theta[s] > 0) {
+                            excluded = zeros > 0 ? 0.0 : product / theta[s];
+                        } else {
+                            excluded = zeros > 1 ? 0.0 : product;
+                        }
+                        double next = initialSusceptible[k] * excluded;
+                        phi[s] = decay * phi[s] - (next - cavity[s]);
+                        cavity[s] = next;
+                    }
+                    recovered[k] += mu * infected[k];
+                    susceptible[k] = zeros > 0 ? 0.0 : initialSusceptible[k] * product;
+                    infected[k] = Math.max(0.0, 1 - susceptible[k] - recovered[k]);
+                });
+
+                times[step] = step * dt;
+                record(step, susceptible, infected, recovered, expectedSusceptible, expectedInfected, expectedRecovered);
+                if (observer != null) {
+                    observer.observe(step, times[step], susceptible, infected, recovered);
+                }
+            }
+            return new Result(times, expectedSusceptible, expectedInfected, expectedRecovered,
+                susceptible, infected, recovered);
+        } finally {
+            if (pool != null) {
+                pool.shutdown();
+            }
+        }
+    }
+
+    /**
+     * 周辺確率の和（各状態のノード数の期待値）を記録
+     */
+    private static void record(int step, double[] susceptible, double[] infected, double[] recovered,
+                               double[] expectedSusceptible, double[] expectedInfected, double[] expectedRecovered) {
+        double s = 0, i = 0, r = 0;
+        for (int node = 0; node < susceptible.length; node++) {
+            s += susceptible[node];
+            i += infected[node];
+            r += recovered[node];
+        }
+        expectedSusceptible[step] = s;
+        expectedInfected[step] = i;
+        expectedRecovered[step] = r;
+    }
+
+    /**
+     * DMPの結果
+     */
+    public static final class Result {
+        public final double[] times;
+        public final double[] expectedSusceptible; // 各時刻の感受性ノード数の期待値
+        public final double[] expectedInfected;
+        public final double[] expectedRecovered;
+        public final double[] susceptible;         // 最終時刻のノードごとの周辺確率
+        public final double[] infected;
+        public final double[] recovered;
+
+        Result(double[] times, double[] expectedSusceptible, double[] expectedInfected, double[] expectedRecovered,
+               double[] susceptible, double[] infected, double[] recovered) {
+            this.times = times;
+            this.expectedSusceptible = expectedSusceptible;
+            this.expectedInfected = expectedInfected;
+            this.expectedRecovered = expectedRecovered;
+            this.susceptible = susceptible;
+            this.infected = infected;
+            this.recovered = recovered;
+        }
+
+        /**
+         * 最終時刻までにノードが感染した確率（1 - P_S）
+         */
+        public double infectionProbability(int node) {
+            return 1 - susceptible[node];
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package main.java.simulation;
+
+import java.util.Arrays;
+
+/**
+ * 指定した時刻に行う介入
+ * SARSimulatorのイベントループに組み込まれ、影響を受けるノードの率とカウンタのみを修正する
+ */
+public final class Intervention {
+
+    /**
+     * 介入の種類
+     */
+    public enum Type {
+        VACCINATE,          // 感受性ノードを除去（回復済みとして数える）
+        QUARANTINE,         // ノードに接続する全エッジを無効化
+        SCALE_TRANSMISSION  // 感染率τを factor 倍する
+    }
+
+    public final double time;
+    public final Type type;
+    public final int[] nodes;     // VACCINATE, QUARANTINE の対象ノード
+    public final double factor;   // SCALE_TRANSMISSION の倍率
+
+    private Intervention(double time, Type type, int[] nodes, double factor) {
+        if (!(time >= 0)) {
+            throw new IllegalArgumentException("介入の時刻は0以上である必要があります: " + time);
+        }
+        this.time = time;
+        this.type = type;
+        this.nodes = nodes;
+        this.factor = factor;
+    }
+
+    /**
+     * ワクチン接種（感受性ノードを感染の対象から除く）
+     */
+    public static Intervention vaccinate(double time, int... nodes) {
+        return new Intervention(time, Type.VACCINATE, nodes.clone(), 1.0);
+    }
+
+    /**
+     * 隔離（ノードに接続する全エッジを無効化する）
+     */
+    public static Intervention quarantine(double time, int... nodes) {
+        return new Intervention(time, Type.QUARANTINE, nodes.clone(), 1.0);
+    }
+
+    /**
+     * 感染率τの変更（行動変容など）
+     */
+    public static Intervention scaleTransmission(double time, double factor) {
+        if (factor < 0) {
+            throw new IllegalArgumentException("感染率の倍率は0以上である必要があります: " + factor);
+        }
+        return new Intervention(time, Type.SCALE_TRANSMISSION, new int[0], factor);
+    }
+
+    @Override
+    public String toString() {
+        return type + "(t=" + time + (type == Type.SCALE_TRANSMISSION ? ", factor=" + factor : ", nodes=" + Arrays.toString(nodes)) + ")";
+    }
+}
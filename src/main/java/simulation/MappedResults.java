@@ -0,0 +1,162 @@
+package main.java.simulation;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * メモリマップした結果ファイル（ResultsFile）の列単位の読み出し
+ * 列は行グループごとにマップしたバッファから直接読み出し、テキストの解析は行わない。
+ * 行グループの最小値・最大値を使えば、条件に合わない行グループを読まずに飛ばせる
+ */
+public final class MappedResults {
+    private final Path path;
+    private final long rows;
+    private final int[] groupRows;
+    private final ByteBuffer[] buffers;
+    private final double[][] min;   // [行グループ][列]
+    private final double[][] max;
+
+    MappedResults(Path path, long rows, int[] groupRows, ByteBuffer[] buffers, double[][] min, double[][] max) {
+        this.path = path;
+        this.rows = rows;
+        this.groupRows = groupRows;
+        this.buffers = buffers;
+        this.min = min;
+        this.max = max;
+    }
+
+    /**
+     * 読み込み元のファイル
+     */
+    public Path getPath() {
+        return path;
+    }
+
+    public long rows() {
+        return rows;
+    }
+
+    public int rowGroups() {
+        return groupRows.length;
+    }
+
+    public int rowGroupRows(int group) {
+        return groupRows[group];
+    }
+
+    /**
+     * 行グループ内の列の最小値（int列もdoubleで返す。行がなければ+∞）
+     */
+    public double min(int group, ResultsFile.Column column) {
+        return min[group][column.ordinal()];
+    }
+
+    /**
+     * 行グループ内の列の最大値（int列もdoubleで返す。行がなければ-∞）
+     */
+    public double max(int group, ResultsFile.Column column) {
+        return max[group][column.ordinal()];
+    }
+
+    /**
+     * 行グループ内のint列（マップしたバッファのビュー、コピーしない）
+     */
+    public IntBuffer intColumn(int group, ResultsFile.Column column) {
+        if (column.isDouble()) {
+            throw new IllegalArgumentException("double列です: " + column);
+        }
+        return columnSlice(group, column).asIntBuffer();
+    }
+
+    /**
+     * 行グループ内のdouble列（マップしたバッファのビュー、コピーしない）
+     */
+    public DoubleBuffer doubleColumn(int group, ResultsFile.Column column) {
+        if (!column.isDouble()) {
+            throw new IllegalArgumentException("int列です: " + column);
+        }
+        return columnSlice(group, column).asDoubleBuffer();
+    }
+
+    /**
+     * 全行グループのint列を配列に読み出す
+     */
+    public int[] intColumn(ResultsFile.Column column) {
+        int[] values = new int[checkedRows()];
+        int offset = 0;
+        for (int g = 0; g < groupRows.length; g++) {
+            intColumn(g, column).get(values, offset, groupRows[g]);
+            offset += groupRows[g];
+        }
+        return values;
+    }
+
+    /**
+     * 全行グループのdouble列を配列に読み出す
+     */
+    public double[] doubleColumn(ResultsFile.Column column) {
+        double[] values = new double[checkedRows()];
+        int offset = 0;
+        for (int g = 0; g < groupRows.length; g++) {
+            doubleColumn(g, column).get(values, offset, groupRows[g]);
+            offset += groupRows[g];
+        }
+        return values;
+    }
+
+    /**
+     * 全行を SimulationRun として読み出す
+     */
+    public List<SimulationDataWriter.SimulationRun> readAll() {
+        List<SimulationDataWriter.SimulationRun> runs = new ArrayList<>(checkedRows());
+        for (int g = 0; g < groupRows.length; g++) {
+            IntBuffer runId = intColumn(g, ResultsFile.Column.RUN_ID);
+            DoubleBuffer transmissionRate = doubleColumn(g, ResultsFile.Column.TRANSMISSION_RATE);
+            DoubleBuffer recoveryRate = doubleColumn(g, ResultsFile.Column.RECOVERY_RATE);
+            IntBuffer networkType = intColumn(g, ResultsFile.Column.NETWORK_TYPE);
+            IntBuffer networkSize = intColumn(g, ResultsFile.Column.NETWORK_SIZE);
+            IntBuffer initialInfections = intColumn(g, ResultsFile.Column.INITIAL_INFECTIONS);
+            DoubleBuffer maxTime = doubleColumn(g, ResultsFile.Column.MAX_TIME);
+            IntBuffer maxInfected = intColumn(g, ResultsFile.Column.MAX_INFECTED);
+            IntBuffer finalInfected = intColumn(g, ResultsFile.Column.FINAL_INFECTED);
+            DoubleBuffer peakTime = doubleColumn(g, ResultsFile.Column.PEAK_TIME);
+            IntBuffer totalEvents = intColumn(g, ResultsFile.Column.TOTAL_EVENTS);
+            DoubleBuffer simulationTime = doubleColumn(g, ResultsFile.Column.SIMULATION_TIME);
+            DoubleBuffer finalSize = doubleColumn(g, ResultsFile.Column.FINAL_SIZE);
+            for (int r = 0; r < groupRows[g]; r++) {
+                runs.add(new SimulationDataWriter.SimulationRun(runId.get(r), transmissionRate.get(r),
+                    recoveryRate.get(r), networkType.get(r), networkSize.get(r), initialInfections.get(r),
+                    maxTime.get(r), maxInfected.get(r), finalInfected.get(r), peakTime.get(r),
+                    totalEvents.get(r), simulationTime.get(r), finalSize.get(r)));
+            }
+        }
+        return runs;
+    }
+
+    /**
+     * 行グループ内の列の領域（行グループ内では Column の順に列が並ぶ）
+     */
+    private ByteBuffer columnSlice(int group, ResultsFile.Column column) {
+        int rowsInGroup = groupRows[group];
+        int start = 0;
+        for (int c = 0; c < column.ordinal(); c++) {
+            start += rowsInGroup * ResultsFile.COLUMNS[c].bytes();
+        }
+        ByteBuffer slice = buffers[group].duplicate();
+        slice.position(start);
+        slice.limit(start + rowsInGroup * column.bytes());
+        return slice.slice().order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private int checkedRows() {
+        if (rows > Integer.MAX_VALUE) {
+            throw new IllegalStateException("行数が配列の上限を超えます: " + rows);
+        }
+        return (int) rows;
+    }
+}
@@ -0,0 +1,146 @@
+package main.java.simulation;
+
+import java.util.Arrays;
+
+/**
+ * 多段分割法（固定試行数のmultilevel splitting）による大規模流行確率の推定
+ * 累積感染ノード数の段 L1 < L2 < ... < Lk を設け、段ごとに一定数の軌道を走らせる。
+ * 段 Lj に到達した軌道の状態をスナップショットとして保存し、次の段の軌道はそこから新しい乱数で再開する。
+ * 到達確率 P(累積感染 >= Lk) は段ごとの通過率の積で推定するため、
+ * 単純なモンテカルロでは稀にしか起きない事象も少ないイベント数で推定できる
+ */
+public final class MultilevelSplitting {
+    private static final double Z_95 = 1.959963984540054;
+
+    private final SARSimulator simulator;
+    private final int[] levels;
+    private final int trajectoriesPerLevel;
+    private final int maxStates;
+
+    /**
+     * @param simulator 軌道を走らせるシミュレータ
+     * @param levels 累積感染ノード数の段（狭義単調増加）。最後の段が推定したい事象
+     * @param trajectoriesPerLevel 段ごとの軌道数
+     * @param maxStates 段ごとに保存する到達状態の上限（スナップショットはノード数に比例したメモリを使う）
+     */
+    public MultilevelSplitting(SARSimulator simulator, int[] levels, int trajectoriesPerLevel, int maxStates) {
+        if (levels.length == 0) {
+            throw new IllegalArgumentException("段を1つ以上指定してください");
+        }
+        for (int j = 0; j < levels.length; j++) {
+            if (levels[j] <= 0 || (j > 0 && levels[j] <= levels[j - 1])) {
+                throw new IllegalArgumentException("段は正の狭義単調増加列である必要があります: " + Arrays.toString(levels));
+            }
+        }
+        if (trajectoriesPerLevel <= 0) {
+            throw new IllegalArgumentException("段ごとの軌道数は正の整数である必要があります: " + trajectoriesPerLevel);
+        }
+        if (maxStates <= 0) {
+            throw new IllegalArgumentException("保存する状態数の上限は正の整数である必要があります: " + maxStates);
+        }
+        this.simulator = simulator;
+        this.levels = levels.clone();
+        this.trajectoriesPerLevel = trajectoriesPerLevel;
+        this.maxStates = maxStates;
+    }
+
+    /**
+     * from から to までを等間隔に count 段に分けた段
+     */
+    public static int[] linearLevels(int from, int to, int count) {
+        if (count <= 0 || from <= 0 || to < from + count - 1) {
+            throw new IllegalArgumentException("段を作成できません: from=" + from + ", to=" + to + ", count=" + count);
+        }
+        int[] levels = new int[count];
+        for (int j = 0; j < count; j++) {
+            levels[j] = count == 1 ? to : from + (int) ((long) (to - from) * j / (count - 1));
+        }
+        return levels;
+    }
+
+    /**
+     * 累積感染ノード数が最後の段に達する確率を推定
+     * @param initialInfections 初期感染ノード
+     * @param maxTime 最大シミュレーション時間（これまでに到達しなければ失敗とする）
+     * @param seed 乱数シード
+     * @return 推定値と95%信頼区間
+     */
+    public Estimate estimate(int[] initialInfections, double maxTime, long seed) {
+        SplitMixRandom master = new SplitMixRandom(seed);
+        double[] levelProbabilities = new double[levels.length];
+        double probability = 1.0;
+        double relativeVariance = 0.0;
+        long trajectories = 0;
+
+        SARSimulator.Snapshot[] states = new SARSimulator.Snapshot[0];
+        for (int j = 0; j < levels.length; j++) {
+            // 到達状態は保存上限までリザーバーサンプリングで一様に残す
+            SARSimulator.Snapshot[] reached = new SARSimulator.Snapshot[Math.min(maxStates, trajectoriesPerLevel)];
+            int hits = 0;
+            for (int k = 0; k < trajectoriesPerLevel; k++) {
+                SplitMixRandom random = new SplitMixRandom(master.nextLong());
+                SARSimulator.Snapshot hit = j == 0
+                    ? simulator.runUntilCumulative(initialInfections, levels[0], maxTime, random)
+                    : simulator.runUntilCumulative(states[random.nextInt(states.length)], levels[j], maxTime, random);
+                trajectories++;
+                if (hit == null) {
+                    continue;
+                }
+                if (hits < reached.length) {
+                    reached[hits] = hit;
+                } else {
+                    int r = master.nextInt(hits + 1);
+                    if (r < reached.length) {
+                        reached[r] = hit;
+                    }
+                }
+                hits++;
+            }
+
+            double p = (double) hits / trajectoriesPerLevel;
+            levelProbabilities[j] = p;
+            if (hits == 0) {
+                // 以後の段には到達できない。上限は通過率0の段に3件ルール（95%）を用いる
+                double upper = probability * Math.min(1.0, 3.0 / trajectoriesPerLevel);
+                return new Estimate(levels, levelProbabilities, 0.0, 0.0, 0.0, upper, trajectories);
+            }
+            probability *= p;
+            relativeVariance += (1.0 - p) / (trajectoriesPerLevel * p);
+            states = Arrays.copyOf(reached, Math.min(hits, reached.length));
+        }
+
+        // 段ごとの推定が独立とみなした近似。区間は対数スケールで作る
+        double spread = Math.exp(Z_95 * Math.sqrt(relativeVariance));
+        return new Estimate(levels, levelProbabilities, probability, probability * Math.sqrt(relativeVariance),
+            probability / spread, Math.min(1.0, probability * spread), trajectories);
+    }
+
+    /**
+     * 推定結果
+     */
+    public static final class Estimate {
+        public final int[] levels;
+        public final double[] levelProbabilities; // 段ごとの条件付き通過率
+        public final double probability;
+        public final double standardError;
+        public final double lower;                // 95%信頼区間の下限
+        public final double upper;                // 95%信頼区間の上限
+        public final long trajectories;           // 実行した軌道の総数
+
+        Estimate(int[] levels, double[] levelProbabilities, double probability, double standardError,
+                 double lower, double upper, long trajectories) {
+            this.levels = levels.clone();
+            this.levelProbabilities = levelProbabilities;
+            this.probability = probability;
+            this.standardError = standardError;
+            this.lower = lower;
+            this.upper = upper;
+            this.trajectories = trajectories;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("P=%.3e (95%%CI: %.3e - %.3e, 軌道数=%d)", probability, lower, upper, trajectories);
+        }
+    }
+}
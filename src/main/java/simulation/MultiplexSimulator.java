@@ -0,0 +1,266 @@
+package main.java.simulation;
+
+import main.java.network.Network;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.function.IntConsumer;
+
+/**
+ * 情報層（認知の拡散）と接触層（感染の拡散）からなる多重ネットワーク上のGillespieシミュレーション
+ *
+ * 各ノードは両層で共通の番号を持ち、次の4種類の過程を持つ
+ * <pre>
+ *   接触層  感受性 → 感染   率 τ × 感染隣接ノード数 × (認知済みなら σ, 未認知なら 1)
+ *           感染   → 回復   率 γ
+ *   情報層  未認知 → 認知   率 λ × 認知済み隣接ノード数（感染した時点でも認知する）
+ *           認知   → 未認知 率 δ
+ * </pre>
+ * 全ノードの両層の過程を1つのRateTree（葉 i が接触層、葉 N+i が情報層）で管理し、
+ * 各イベントでは発生したノードの各層の隣接ノードのみを更新する
+ */
+public class MultiplexSimulator {
+    private static final byte SUSCEPTIBLE = 0;
+    private static final byte INFECTED = 1;
+    private static final byte RECOVERED = 2;
+
+    private final Network informationLayer;
+    private final Network contactLayer;
+    private final int N;
+    private final double transmissionRate;   // τ (感染率)
+    private final double recoveryRate;       // γ (回復率)
+    private final double awarenessRate;      // λ (認知の伝播率)
+    private final double forgettingRate;     // δ (認知の忘却率)
+    private final double awareSusceptibility; // σ (認知済みノードの感受性の倍率)
+
+    private final byte[] health;
+    private final boolean[] aware;
+    private final int[] infectedNeighbors;   // 接触層での感染隣接ノード数
+    private final int[] awareNeighbors;      // 情報層での認知済み隣接ノード数
+    private final RateTree rates;
+    private int infectedCount;
+    private int recoveredCount;
+    private int awareCount;
+
+    // 隣接ノードの走査（forEachNeighbor）で使う処理。圧縮グラフなどでも逐次復号で走査できる
+    private int delta;
+    private final IntConsumer contactUpdater = this::updateContactNeighbor;
+    private final IntConsumer informationUpdater = this::updateInformationNeighbor;
+
+    public MultiplexSimulator(Network informationLayer, Network contactLayer,
+                              double transmissionRate, double recoveryRate,
+                              double awarenessRate, double forgettingRate, double awareSusceptibility) {
+        if (informationLayer.nodeCount() != contactLayer.nodeCount()) {
+            throw new IllegalArgumentException("情報層と接触層のノード数が一致しません: "
+                    + informationLayer.nodeCount() + " と " + contactLayer.nodeCount());
+        }
+        if (transmissionRate < 0 || recoveryRate < 0 || awarenessRate < 0 || forgettingRate < 0) {
+            throw new IllegalArgumentException("率は0以上である必要があります");
+        }
+        if (awareSusceptibility < 0 || awareSusceptibility > 1) {
+            throw new IllegalArgumentException("認知済みノードの感受性の倍率σは0以上1以下である必要があります: " + awareSusceptibility);
+        }
+        if (contactLayer.nodeCount() > Integer.MAX_VALUE / 2) {
+            // 両層の葉（2N枚）を1つのRateTreeに持つため
+            throw new IllegalArgumentException("ノード数が上限を超えます: " + contactLayer.nodeCount());
+        }
+        this.informationLayer = informationLayer;
+        this.contactLayer = contactLayer;
+        this.N = contactLayer.nodeCount();
+        this.transmissionRate = transmissionRate;
+        this.recoveryRate = recoveryRate;
+        this.awarenessRate = awarenessRate;
+        this.forgettingRate = forgettingRate;
+        this.awareSusceptibility = awareSusceptibility;
+        this.health = new byte[N];
+        this.aware = new boolean[N];
+        this.infectedNeighbors = new int[N];
+        this.awareNeighbors = new int[N];
+        this.rates = new RateTree(2 * N);
+    }
+
+    /**
+     * シミュレーションを実行
+     * @param initialInfections 初期感染ノード（感染ノードは認知済みになる）
+     * @param initialAware 初期認知ノード
+     * @param maxTime 最大シミュレーション時間
+     * @return シミュレーション結果
+     */
+    public MultiplexResult runSimulation(int[] initialInfections, int[] initialAware, double maxTime) {
+        return runSimulation(initialInfections, initialAware, maxTime, new Random());
+    }
+
+    /**
+     * 乱数生成器を指定してシミュレーションを実行
+     */
+    public MultiplexResult runSimulation(int[] initialInfections, int[] initialAware, double maxTime, Random random) {
+        initialize(initialInfections, initialAware);
+
+        List<Double> times = new ArrayList<>();
+        List<Integer> susceptibleCounts = new ArrayList<>();
+        List<Integer> infectedCounts = new ArrayList<>();
+        List<Integer> recoveredCounts = new ArrayList<>();
+        List<Integer> awareCounts = new ArrayList<>();
+
+        double currentTime = 0.0;
+        record(currentTime, times, susceptibleCounts, infectedCounts, recoveredCounts, awareCounts);
+
+        while (currentTime < maxTime && rates.total() > 0) {
+            double totalRate = rates.total();
+            currentTime += -Math.log(1 - random.nextDouble()) / totalRate;
+            if (currentTime >= maxTime) {
+                break;
+            }
+
+            int leaf = rates.sample(random.nextDouble() * totalRate);
+            if (leaf < N) {
+                if (health[leaf] == SUSCEPTIBLE) {
+                    infect(leaf);
+                } else {
+                    recover(leaf);
+                }
+            } else {
+                int node = leaf - N;
+                if (aware[node]) {
+                    forget(node);
+                } else {
+                    becomeAware(node);
+                }
+            }
+
+            record(currentTime, times, susceptibleCounts, infectedCounts, recoveredCounts, awareCounts);
+        }
+
+        return new MultiplexResult(times, susceptibleCounts, infectedCounts, recoveredCounts, awareCounts);
+    }
+
+    private void initialize(int[] initialInfections, int[] initialAware) {
+        Arrays.fill(health, SUSCEPTIBLE);
+        Arrays.fill(aware, false);
+        Arrays.fill(infectedNeighbors, 0);
+        Arrays.fill(awareNeighbors, 0);
+        rates.clear();
+        infectedCount = 0;
+        recoveredCount = 0;
+        awareCount = 0;
+
+        for (int node : initialAware) {
+            checkNode(node);
+            if (!aware[node]) {
+                becomeAware(node);
+            }
+        }
+        for (int node : initialInfections) {
+            checkNode(node);
+            if (health[node] == SUSCEPTIBLE) {
+                infect(node);
+            }
+        }
+    }
+
+    private void checkNode(int node) {
+        if (node < 0 || node >= N) {
+            throw new IllegalArgumentException("無効なノード: " + node);
+        }
+    }
+
+    /**
+     * 感染（未認知なら同時に認知する）
+     */
+    private void infect(int node) {
+        health[node] = INFECTED;
+        infectedCount++;
+        rates.set(node, recoveryRate);
+        delta = +1;
+        contactLayer.forEachNeighbor(node, contactUpdater);
+        if (!aware[node]) {
+            becomeAware(node);
+        }
+    }
+
+    private void recover(int node) {
+        health[node] = RECOVERED;
+        infectedCount--;
+        recoveredCount++;
+        rates.set(node, 0.0);
+        delta = -1;
+        contactLayer.forEachNeighbor(node, contactUpdater);
+    }
+
+    private void becomeAware(int node) {
+        aware[node] = true;
+        awareCount++;
+        rates.set(N + node, forgettingRate);
+        delta = +1;
+        informationLayer.forEachNeighbor(node, informationUpdater);
+        // 認知により接触層での感受性が変わる
+        updateContactRate(node);
+    }
+
+    private void forget(int node) {
+        aware[node] = false;
+        awareCount--;
+        rates.set(N + node, awarenessRate * awareNeighbors[node]);
+        delta = -1;
+        informationLayer.forEachNeighbor(node, informationUpdater);
+        updateContactRate(node);
+    }
+
+    /**
+     * 接触層の1つの隣接ノードの感染隣接ノード数を delta だけ変え、感染率を修正
+     */
+    private void updateContactNeighbor(int neighbor) {
+        infectedNeighbors[neighbor] += delta;
+        updateContactRate(neighbor);
+    }
+
+    /**
+     * 情報層の1つの隣接ノードの認知済み隣接ノード数を delta だけ変え、認知率を修正
+     */
+    private void updateInformationNeighbor(int neighbor) {
+        awareNeighbors[neighbor] += delta;
+        updateInformationRate(neighbor);
+    }
+
+    /**
+     * 感受性ノードの感染率を更新（感染・回復済みノードの率は変えない）
+     */
+    private void updateContactRate(int node) {
+        if (health[node] == SUSCEPTIBLE) {
+            double susceptibility = aware[node] ? awareSusceptibility : 1.0;
+            rates.set(node, transmissionRate * infectedNeighbors[node] * susceptibility);
+        }
+    }
+
+    /**
+     * 未認知ノードの認知率を更新
+     */
+    private void updateInformationRate(int node) {
+        if (!aware[node]) {
+            rates.set(N + node, awarenessRate * awareNeighbors[node]);
+        }
+    }
+
+    private void record(double time, List<Double> times, List<Integer> susceptibleCounts,
+                        List<Integer> infectedCounts, List<Integer> recoveredCounts, List<Integer> awareCounts) {
+        times.add(time);
+        susceptibleCounts.add(N - infectedCount - recoveredCount);
+        infectedCounts.add(infectedCount);
+        recoveredCounts.add(recoveredCount);
+        awareCounts.add(awareCount);
+    }
+
+    /**
+     * 多重ネットワークのシミュレーション結果（認知ノード数の推移を含む）
+     */
+    public static class MultiplexResult extends SARSimulator.SimulationResult {
+        public final List<Integer> awareCounts;
+
+        public MultiplexResult(List<Double> times, List<Integer> susceptibleCounts, List<Integer> infectedCounts,
+                               List<Integer> recoveredCounts, List<Integer> awareCounts) {
+            super(times, susceptibleCounts, infectedCounts, recoveredCounts);
+            this.awareCounts = awareCounts;
+        }
+    }
+}
@@ -0,0 +1,286 @@
+package main.java.simulation;
+
+import main.java.network.Network;
+import main.java.network.Parallel;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+import java.util.zip.CRC32C;
+
+/**
+ * 多数の実行にわたるノードごとの結果（感染頻度と平均感染時刻）の集計
+ * 各ワーカーは自分専用のプリミティブ配列（Recorder）に書き込み、最後に merge でまとめる。
+ * 実行中に共有の構造へ書き込まないため、ロックや同期されたマップは使わない
+ *
+ * <pre>
+ * バイナリ形式（リトルエンディアン）
+ *   int  magic     0x5341524E ("SARN")
+ *   int  version   形式のバージョン
+ *   int  N         ノード数
+ *   int  reserved  予約（0）
+ *   long runs      実行回数
+ *   long checksum  列部のCRC32C
+ * int[N]    infections     ノードごとの感染回数
+ * double[N] meanTimes      ノードごとの平均感染時刻（感染しなかったノードはNaN）
+ * </pre>
+ */
+public final class NodeOutcomeAggregator {
+    public static final int MAGIC = 0x5341524E;
+    public static final int VERSION = 1;
+    public static final int HEADER_BYTES = 32;
+
+    private static final int IO_BUFFER_BYTES = 1 << 20;
+
+    private final int N;
+    private final long[] infections;
+    private final double[] timeSums;
+    private long runs;
+
+    public NodeOutcomeAggregator(int N) {
+        if (N < 0) {
+            throw new IllegalArgumentException("ノード数は0以上である必要があります: " + N);
+        }
+        this.N = N;
+        this.infections = new long[N];
+        this.timeSums = new double[N];
+    }
+
+    /**
+     * 1つのワーカー用の記録領域（スレッド間で共有しない）
+     */
+    public Recorder newRecorder() {
+        return new Recorder(N);
+    }
+
+    /**
+     * ワーカーの記録を加える。結果を実行順によらず再現したい場合は、同じ順序で merge する
+     */
+    public synchronized void merge(Recorder recorder) {
+        if (recorder.infections.length != N) {
+            throw new IllegalArgumentException("ノード数が一致しません: " + recorder.infections.length + " と " + N);
+        }
+        for (int i = 0; i < N; i++) {
+            infections[i] += recorder.infections[i];
+            timeSums[i] += recorder.timeSums[i];
+        }
+        runs += recorder.runs;
+    }
+
+    /**
+     * SARSimulatorを並列に実行してノードごとの結果を集計
+     * 実行はスレッド数と同じ数の連続した区間に分け、区間ごとに1つの Recorder（ワーカー）で処理して区間の順に merge する。
+     * 記録領域はワーカー数分（O(スレッド数 × N)）のみ確保する。
+     * 感染回数はスレッド数によらず、平均感染時刻は和の順序の違いによる丸め誤差の範囲でのみ異なる
+     * @param network ネットワーク
+     * @param transmissionRate 感染率τ
+     * @param recoveryRate 回復率γ
+     * @param initialInfections 初期感染ノード数（実行ごとに一様に選ぶ）
+     * @param maxTime 最大シミュレーション時間
+     * @param runs 実行回数
+     * @param seed 乱数シード（実行 r はシード seed + r の乱数を使う）
+     * @param threads スレッド数
+     */
+    public static NodeOutcomeAggregator simulate(Network network, double transmissionRate, double recoveryRate,
+                                                 int initialInfections, double maxTime, int runs, long seed,
+                                                 int threads) {
+        int N = network.nodeCount();
+        NodeOutcomeAggregator aggregator = new NodeOutcomeAggregator(N);
+        int workers = Math.max(1, Math.min(runs, Math.max(1, threads)));
+        Recorder[] recorders = new Recorder[workers];
+        Parallel.forRange(threads, workers, w -> {
+            SARSimulator simulator = new SARSimulator(network, transmissionRate, recoveryRate);
+            Recorder recorder = aggregator.newRecorder();
+            simulator.setInfectionObserver(recorder);
+            for (int run = Parallel.blockStart(runs, workers, w); run < Parallel.blockStart(runs, workers, w + 1); run++) {
+                Random random = new SplitMixRandom(seed + run);
+                simulator.runSimulation(SeedSelection.sample(N, initialInfections, random), maxTime, random);
+                recorder.endRun();
+            }
+            recorders[w] = recorder;
+        });
+        for (Recorder recorder : recorders) {
+            aggregator.merge(recorder);
+        }
+        return aggregator;
+    }
+
+    public int nodeCount() {
+        return N;
+    }
+
+    public synchronized long runs() {
+        return runs;
+    }
+
+    /**
+     * ノードが感染した実行の割合
+     */
+    public synchronized double infectionFrequency(int node) {
+        return runs > 0 ? (double) infections[node] / runs : Double.NaN;
+    }
+
+    /**
+     * 感染した実行でのノードの平均感染時刻（一度も感染しなければNaN）
+     */
+    public synchronized double meanInfectionTime(int node) {
+        return infections[node] > 0 ? timeSums[node] / infections[node] : Double.NaN;
+    }
+
+    /**
+     * 集計結果をバイナリの列形式で書き出す
+     */
+    public synchronized void write(Path path) throws IOException {
+        if (runs > Integer.MAX_VALUE) {
+            throw new IOException("実行回数がint列の上限を超えます: " + runs);
+        }
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            // 列は固定長のバッファで分割して書き出し、ヘッダーは最後に書き込むため領域のみ確保
+            ByteBuffer buffer = ByteBuffer.allocateDirect(IO_BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            CRC32C crc = new CRC32C();
+            channel.position(HEADER_BYTES);
+            for (int i = 0; i < N; i++) {
+                if (buffer.remaining() < Integer.BYTES) {
+                    flush(buffer, channel, crc);
+                }
+                buffer.putInt((int) infections[i]);
+            }
+            for (int i = 0; i < N; i++) {
+                if (buffer.remaining() < Double.BYTES) {
+                    flush(buffer, channel, crc);
+                }
+                buffer.putDouble(meanInfectionTime(i));
+            }
+            flush(buffer, channel, crc);
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(MAGIC);
+            header.putInt(VERSION);
+            header.putInt(N);
+            header.putInt(0);
+            header.putLong(runs);
+            header.putLong(crc.getValue());
+            header.flip();
+            channel.position(0);
+            while (header.hasRemaining()) {
+                channel.write(header);
+            }
+        }
+    }
+
+    private static void flush(ByteBuffer buffer, FileChannel channel, CRC32C crc) throws IOException {
+        buffer.flip();
+        crc.update(buffer.duplicate());
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * バイナリファイルから集計結果を読み込む
+     */
+    public static NodeOutcomeAggregator read(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            if (fileSize < HEADER_BYTES) {
+                throw new IOException("ノード集計ファイルが短すぎます: " + path);
+            }
+            ByteBuffer header = readFully(channel, 0, HEADER_BYTES, path);
+            int magic = header.getInt();
+            int version = header.getInt();
+            int N = header.getInt();
+            header.getInt();
+            long runs = header.getLong();
+            long checksum = header.getLong();
+            if (magic != MAGIC) {
+                throw new IOException("ノード集計ファイルではありません: " + path);
+            }
+            if (version != VERSION) {
+                throw new IOException("未対応のバージョンです: " + version);
+            }
+            if (N < 0 || runs < 0 || fileSize != HEADER_BYTES + 12L * N) {
+                throw new IOException("ファイルサイズがヘッダーと一致しません: " + path);
+            }
+
+            // 列は固定長のバッファで分割して読み込む
+            NodeOutcomeAggregator aggregator = new NodeOutcomeAggregator(N);
+            CRC32C crc = new CRC32C();
+            long position = HEADER_BYTES;
+            for (int i = 0; i < N; ) {
+                int count = Math.min(N - i, IO_BUFFER_BYTES / Integer.BYTES);
+                ByteBuffer chunk = readFully(channel, position, count * Integer.BYTES, path);
+                crc.update(chunk.duplicate());
+                for (int j = 0; j < count; j++, i++) {
+                    aggregator.infections[i] = chunk.getInt();
+                }
+                position += (long) count * Integer.BYTES;
+            }
+            for (int i = 0; i < N; ) {
+                int count = Math.min(N - i, IO_BUFFER_BYTES / Double.BYTES);
+                ByteBuffer chunk = readFully(channel, position, count * Double.BYTES, path);
+                crc.update(chunk.duplicate());
+                for (int j = 0; j < count; j++, i++) {
+                    double mean = chunk.getDouble();
+                    aggregator.timeSums[i] = aggregator.infections[i] > 0 ? mean * aggregator.infections[i] : 0.0;
+                }
+                position += (long) count * Double.BYTES;
+            }
+            if (crc.getValue() != checksum) {
+                throw new IOException("チェックサムが一致しません（ファイルが破損しています）: " + path);
+            }
+            aggregator.runs = runs;
+            return aggregator;
+        }
+    }
+
+    private static ByteBuffer readFully(FileChannel channel, long position, int length, Path path) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("ファイルを最後まで読み込めません: " + path);
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    /**
+     * ワーカーごとの記録領域（感染回数と感染時刻の和）
+     * SARSimulatorの感染の通知先として使い、1回の実行が終わるごとに endRun を呼ぶ
+     */
+    public static final class Recorder implements SARSimulator.InfectionObserver {
+        private final long[] infections;
+        private final double[] timeSums;
+        private long runs;
+
+        private Recorder(int N) {
+            this.infections = new long[N];
+            this.timeSums = new double[N];
+        }
+
+        @Override
+        public void infected(int node, double time) {
+            infections[node]++;
+            timeSums[node] += time;
+        }
+
+        /**
+         * 1回の実行の終わり
+         */
+        public void endRun() {
+            runs++;
+        }
+    }
+}
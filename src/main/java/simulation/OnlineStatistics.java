@@ -0,0 +1,83 @@
+package main.java.simulation;
+
+/**
+ * 平均と分散の逐次計算（Welfordの方法）
+ * 値を1つずつ加えても桁落ちしにくく、O(1)のメモリで平均・分散・標準誤差を求める
+ */
+public final class OnlineStatistics {
+    private long count;
+    private double mean;
+    private double m2;   // 平均からの偏差の二乗和
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    /**
+     * 値を1つ加える
+     */
+    public void add(double value) {
+        count++;
+        double delta = value - mean;
+        mean += delta / count;
+        m2 += delta * (value - mean);
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+    }
+
+    /**
+     * 別の集計を合わせる（並列に集計した結果の結合用）
+     */
+    public void merge(OnlineStatistics other) {
+        if (other.count == 0) {
+            return;
+        }
+        long total = count + other.count;
+        double delta = other.mean - mean;
+        mean += delta * other.count / total;
+        m2 += other.m2 + delta * delta * ((double) count * other.count / total);
+        count = total;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    public long count() {
+        return count;
+    }
+
+    public double mean() {
+        return count > 0 ? mean : Double.NaN;
+    }
+
+    /**
+     * 不偏分散（2個未満ならNaN）
+     */
+    public double variance() {
+        return count > 1 ? m2 / (count - 1) : Double.NaN;
+    }
+
+    public double standardDeviation() {
+        return Math.sqrt(variance());
+    }
+
+    /**
+     * 平均の標準誤差
+     */
+    public double standardError() {
+        return Math.sqrt(variance() / count);
+    }
+
+    /**
+     * 正規近似による平均の信頼区間の半幅
+     * @param z 信頼係数に対応する標準正規分布の分位点（95%なら1.96）
+     */
+    public double halfWidth(double z) {
+        return z * standardError();
+    }
+
+    public double min() {
+        return min;
+    }
+
+    public double max() {
+        return max;
+    }
+}
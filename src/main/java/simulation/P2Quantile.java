@@ -0,0 +1,122 @@
+package main.java.simulation;
+
+import java.util.Arrays;
+
+/**
+ * P²アルゴリズム（Jain & Chlamtac 1985）による分位点の逐次推定
+ * 5つのマーカー（最小値・p/2・p・(1+p)/2・最大値の分位点の推定値）のみを保持し、
+ * 値を保存せずにO(1)のメモリで分位点を推定する。5個未満の間は保持している値から正確に求める
+ */
+public final class P2Quantile {
+    private final double p;
+    private final double[] heights = new double[5];     // マーカーの高さ（分位点の推定値）
+    private final int[] positions = new int[5];         // マーカーの位置（1始まりの順位）
+    private final double[] desired = new double[5];     // マーカーの理想の位置
+    private final double[] increments;                  // 1個ごとの理想の位置の増分
+    private long count;
+
+    /**
+     * @param p 推定する分位点（0以上1以下）
+     */
+    public P2Quantile(double p) {
+        if (!(p >= 0 && p <= 1)) {
+            throw new IllegalArgumentException("分位点は0以上1以下である必要があります: " + p);
+        }
+        this.p = p;
+        this.increments = new double[]{0, p / 2, p, (1 + p) / 2, 1};
+    }
+
+    /**
+     * 値を1つ加える
+     */
+    public void add(double value) {
+        if (count < 5) {
+            heights[(int) count++] = value;
+            if (count == 5) {
+                Arrays.sort(heights);
+                for (int i = 0; i < 5; i++) {
+                    positions[i] = i + 1;
+                }
+                desired[0] = 1;
+                desired[1] = 1 + 2 * p;
+                desired[2] = 1 + 4 * p;
+                desired[3] = 3 + 2 * p;
+                desired[4] = 5;
+            }
+            return;
+        }
+        count++;
+
+        // 値の入る区間 k を求め、それより上のマーカーの位置を1つずらす
+        int k;
+        if (value < heights[0]) {
+            heights[0] = value;
+            k = 0;
+        } else if (value >= heights[4]) {
+            heights[4] = value;
+            k = 3;
+        } else {
+            k = 0;
+            while (value >= heights[k + 1]) {
+                k++;
+            }
+        }
+        for (int i = k + 1; i < 5; i++) {
+            positions[i]++;
+        }
+        for (int i = 0; i < 5; i++) {
+            desired[i] += increments[i];
+        }
+
+        // 中間のマーカーが理想の位置から1以上ずれていれば、放物線（だめなら線形）補間で高さを調整
+        for (int i = 1; i < 4; i++) {
+            double d = desired[i] - positions[i];
+            if ((d >= 1 && positions[i + 1] - positions[i] > 1) || (d <= -1 && positions[i - 1] - positions[i] < -1)) {
+                int step = d > 0 ? 1 : -1;
+                double height = parabolic(i, step);
+                if (heights[i - 1] < height && height < heights[i + 1]) {
+                    heights[i] = height;
+                } else {
+                    heights[i] += step * (heights[i + step] - heights[i]) / (positions[i + step] - positions[i]);
+                }
+                positions[i] += step;
+            }
+        }
+    }
+
+    private double parabolic(int i, int step) {
+        double below = positions[i] - positions[i - 1];
+        double above = positions[i + 1] - positions[i];
+        return heights[i] + step / (double) (positions[i + 1] - positions[i - 1])
+            * ((below + step) * (heights[i + 1] - heights[i]) / above
+            + (above - step) * (heights[i] - heights[i - 1]) / below);
+    }
+
+    public long count() {
+        return count;
+    }
+
+    /**
+     * 分位点の推定値（値がなければNaN）
+     */
+    public double value() {
+        if (count == 0) {
+            return Double.NaN;
+        }
+        if (count >= 5) {
+            // 最小値と最大値の両端のマーカーは正確
+            return p == 0 ? heights[0] : p == 1 ? heights[4] : heights[2];
+        }
+        // 5個未満は保持している値の線形補間
+        double[] sorted = Arrays.copyOf(heights, (int) count);
+        Arrays.sort(sorted);
+        double rank = p * (count - 1);
+        int lower = (int) Math.floor(rank);
+        int upper = Math.min(lower + 1, (int) count - 1);
+        return sorted[lower] + (rank - lower) * (sorted[upper] - sorted[lower]);
+    }
+
+    public double quantile() {
+        return p;
+    }
+}
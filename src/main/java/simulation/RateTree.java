@@ -0,0 +1,154 @@
+package main.java.simulation;
+
+import java.util.Arrays;
+
+/**
+ * イベント率の和を保持する二分木（Gillespie法のイベント選択用）
+ * 葉ごとの率の更新と、率に比例した葉の選択をともに O(log n) で行う。
+ * 内部節点は子の和から再計算するため、更新を繰り返しても誤差は蓄積しない。
+ * 葉は 2^20 個ごとのセグメント（それぞれ完全二分木）に分け、セグメントの和をさらに上位の木で持つため、
+ * 1つの配列の長さが int の上限を超えず、葉の数は Integer.MAX_VALUE まで扱える
+ */
+public final class RateTree {
+    private static final int SEGMENT_BITS = 20;
+    private static final int SEGMENT_MASK = (1 << SEGMENT_BITS) - 1;
+
+    private final int size;            // 葉の数
+    private final double[][] segments; // segments[s][1]が根、segments[s][capacities[s] + j]が葉 (s << SEGMENT_BITS) + j
+    private final int[] capacities;    // セグメントの葉の数以上の最小の2の冪
+    private final int topCapacity;     // セグメント数以上の最小の2の冪
+    private final double[] top;        // top[1]が根、top[topCapacity + s]がセグメントsの和
+
+    /**
+     * @param size 葉（イベントの種類）の数
+     */
+    public RateTree(int size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("葉の数は正の整数である必要があります: " + size);
+        }
+        this.size = size;
+        int segmentCount = (int) (((long) size + SEGMENT_MASK) >>> SEGMENT_BITS);
+        this.segments = new double[segmentCount][];
+        this.capacities = new int[segmentCount];
+        for (int s = 0; s < segmentCount; s++) {
+            int leaves = Math.min(1 << SEGMENT_BITS, size - (s << SEGMENT_BITS));
+            capacities[s] = powerOfTwo(leaves);
+            segments[s] = new double[2 * capacities[s]];
+        }
+        this.topCapacity = powerOfTwo(segmentCount);
+        this.top = new double[2 * topCapacity];
+    }
+
+    private static int powerOfTwo(int n) {
+        return n <= 1 ? 1 : Integer.highestOneBit(n - 1) << 1;
+    }
+
+    /**
+     * 葉の数
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 葉iの率
+     */
+    public double get(int i) {
+        int s = i >>> SEGMENT_BITS;
+        return segments[s][capacities[s] + (i & SEGMENT_MASK)];
+    }
+
+    /**
+     * 葉iの率を設定
+     */
+    public void set(int i, double rate) {
+        int s = i >>> SEGMENT_BITS;
+        double[] segment = segments[s];
+        int p = capacities[s] + (i & SEGMENT_MASK);
+        if (segment[p] == rate) {
+            return;
+        }
+        segment[p] = rate;
+        for (p >>>= 1; p > 0; p >>>= 1) {
+            segment[p] = segment[2 * p] + segment[2 * p + 1];
+        }
+        // セグメントの根（容量1なら葉そのもの）を上位の木に反映
+        p = topCapacity + s;
+        top[p] = segment[1];
+        for (p >>>= 1; p > 0; p >>>= 1) {
+            top[p] = top[2 * p] + top[2 * p + 1];
+        }
+    }
+
+    /**
+     * 全ての葉の率の和
+     */
+    public double total() {
+        return top[1];
+    }
+
+    /**
+     * 率に比例した確率で葉を選ぶ
+     * @param u [0, total()) の一様乱数
+     * @return 選ばれた葉の番号
+     */
+    public int sample(double u) {
+        int p = 1;
+        while (p < topCapacity) {
+            double left = top[2 * p];
+            // 丸め誤差で率0の部分木に入らないようにする
+            if (u < left || top[2 * p + 1] <= 0.0) {
+                p = 2 * p;
+            } else {
+                u -= left;
+                p = 2 * p + 1;
+            }
+        }
+        int s = p - topCapacity;
+        double[] segment = segments[s];
+        int capacity = capacities[s];
+        p = 1;
+        while (p < capacity) {
+            double left = segment[2 * p];
+            if (u < left || segment[2 * p + 1] <= 0.0) {
+                p = 2 * p;
+            } else {
+                u -= left;
+                p = 2 * p + 1;
+            }
+        }
+        return (s << SEGMENT_BITS) + (p - capacity);
+    }
+
+    /**
+     * 同じ大きさの木の率を全てコピーする（スナップショットの復元用）
+     */
+    public void copyFrom(RateTree other) {
+        if (other.size != size) {
+            throw new IllegalArgumentException("葉の数が一致しません: " + other.size + " と " + size);
+        }
+        for (int s = 0; s < segments.length; s++) {
+            System.arraycopy(other.segments[s], 0, segments[s], 0, segments[s].length);
+        }
+        System.arraycopy(other.top, 0, top, 0, top.length);
+    }
+
+    /**
+     * 複製
+     */
+    public RateTree copy() {
+        RateTree copy = new RateTree(size);
+        copy.copyFrom(this);
+        return copy;
+    }
+
+    /**
+     * 全ての率を0に戻す
+     */
+    public void clear() {
+        for (double[] segment : segments) {
+            Arrays.fill(segment, 0.0);
+        }
+        Arrays.fill(top, 0.0);
+    }
+}
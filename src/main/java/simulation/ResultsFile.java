@@ -0,0 +1,325 @@
+package main.java.simulation;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.CRC32C;
+
+/**
+ * シミュレーション結果（SimulationRun）の列形式バイナリファイル（書き出しと読み込み）
+ * 行を一定数ごとの行グループに分け、行グループ内ではフィールドごとに型付きの列として連続して書き出す。
+ * フッターに行グループの位置と列ごとの最小値・最大値を持つため、読み込み側は必要な列・行グループのみを読める
+ *
+ * <pre>
+ * ヘッダー（32バイト, リトルエンディアン）
+ *   int  magic         0x53415252 ("SARR")
+ *   int  version       形式のバージョン
+ *   int  columns       列数
+ *   int  rowGroups     行グループ数
+ *   long rows          総行数
+ *   long footerOffset  フッターの開始位置
+ * 行グループごと（Column の順に列を並べる）
+ *   int[rows] または double[rows]
+ * フッター
+ *   行グループごと
+ *     long offset    行グループの開始位置
+ *     int  rows      行数
+ *     int  reserved  予約（0）
+ *     long checksum  行グループのCRC32C
+ *     列ごとに double min, double max
+ *   long checksum    フッターのCRC32C
+ * </pre>
+ */
+public final class ResultsFile {
+    public static final int MAGIC = 0x53415252;
+    public static final int VERSION = 1;
+    public static final int HEADER_BYTES = 32;
+    public static final int DEFAULT_ROW_GROUP_ROWS = 1 << 16;
+
+    private static final int WRITE_BUFFER_BYTES = 1 << 20;
+
+    /**
+     * 列（results.csvの列と同じ順序・名前）
+     */
+    public enum Column {
+        RUN_ID(false),
+        TRANSMISSION_RATE(true),
+        RECOVERY_RATE(true),
+        NETWORK_TYPE(false),
+        NETWORK_SIZE(false),
+        INITIAL_INFECTIONS(false),
+        MAX_TIME(true),
+        MAX_INFECTED(false),
+        FINAL_INFECTED(false),
+        PEAK_TIME(true),
+        TOTAL_EVENTS(false),
+        SIMULATION_TIME(true),
+        FINAL_SIZE(true);
+
+        private final boolean floating;
+
+        Column(boolean floating) {
+            this.floating = floating;
+        }
+
+        /**
+         * double列ならtrue、int列ならfalse
+         */
+        public boolean isDouble() {
+            return floating;
+        }
+
+        /**
+         * 1行あたりのバイト数
+         */
+        public int bytes() {
+            return floating ? Double.BYTES : Integer.BYTES;
+        }
+
+        int intValue(SimulationDataWriter.SimulationRun run) {
+            switch (this) {
+                case RUN_ID: return run.runId;
+                case NETWORK_TYPE: return run.networkType;
+                case NETWORK_SIZE: return run.networkSize;
+                case INITIAL_INFECTIONS: return run.initialInfections;
+                case MAX_INFECTED: return run.maxInfected;
+                case FINAL_INFECTED: return run.finalInfected;
+                case TOTAL_EVENTS: return run.totalEvents;
+                default: throw new IllegalStateException("double列です: " + this);
+            }
+        }
+
+        double doubleValue(SimulationDataWriter.SimulationRun run) {
+            switch (this) {
+                case TRANSMISSION_RATE: return run.transmissionRate;
+                case RECOVERY_RATE: return run.recoveryRate;
+                case MAX_TIME: return run.maxTime;
+                case PEAK_TIME: return run.peakTime;
+                case SIMULATION_TIME: return run.simulationTime;
+                case FINAL_SIZE: return run.finalSize;
+                default: return intValue(run);
+            }
+        }
+    }
+
+    static final Column[] COLUMNS = Column.values();
+    static final int ROW_BYTES = Arrays.stream(COLUMNS).mapToInt(Column::bytes).sum();
+    static final int ROW_GROUP_ENTRY_BYTES = 24 + 16 * COLUMNS.length;
+
+    private ResultsFile() {
+    }
+
+    /**
+     * 結果を既定の行グループの大きさで書き出す
+     */
+    public static void write(List<SimulationDataWriter.SimulationRun> results, Path path) throws IOException {
+        write(results, path, DEFAULT_ROW_GROUP_ROWS);
+    }
+
+    /**
+     * 結果を列形式のバイナリファイルに書き出す
+     * @param results 書き出す結果
+     * @param path 出力ファイル
+     * @param rowGroupRows 行グループあたりの行数
+     */
+    public static void write(List<SimulationDataWriter.SimulationRun> results, Path path, int rowGroupRows)
+            throws IOException {
+        if (rowGroupRows <= 0 || (long) rowGroupRows * ROW_BYTES > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("行グループの行数が不正です: " + rowGroupRows);
+        }
+        // ディレクトリを作成
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+
+        int rows = results.size();
+        int rowGroups = (rows + rowGroupRows - 1) / rowGroupRows;
+        ByteBuffer footer = ByteBuffer.allocate(rowGroups * ROW_GROUP_ENTRY_BYTES + Long.BYTES)
+            .order(ByteOrder.LITTLE_ENDIAN);
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(WRITE_BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+
+            // ヘッダーは最後に書き込むため領域のみ確保
+            long position = HEADER_BYTES;
+            channel.position(position);
+            double[] min = new double[COLUMNS.length];
+            double[] max = new double[COLUMNS.length];
+            for (int g = 0; g < rowGroups; g++) {
+                int from = g * rowGroupRows;
+                int to = Math.min(rows, from + rowGroupRows);
+                CRC32C crc = new CRC32C();
+                Arrays.fill(min, Double.POSITIVE_INFINITY);
+                Arrays.fill(max, Double.NEGATIVE_INFINITY);
+                for (int c = 0; c < COLUMNS.length; c++) {
+                    Column column = COLUMNS[c];
+                    for (int r = from; r < to; r++) {
+                        SimulationDataWriter.SimulationRun run = results.get(r);
+                        if (buffer.remaining() < Double.BYTES) {
+                            flush(buffer, channel, crc);
+                        }
+                        double value = column.doubleValue(run);
+                        if (column.isDouble()) {
+                            buffer.putDouble(value);
+                        } else {
+                            buffer.putInt(column.intValue(run));
+                        }
+                        min[c] = Math.min(min[c], value);
+                        max[c] = Math.max(max[c], value);
+                    }
+                }
+                flush(buffer, channel, crc);
+
+                footer.putLong(position);
+                footer.putInt(to - from);
+                footer.putInt(0);
+                footer.putLong(crc.getValue());
+                for (int c = 0; c < COLUMNS.length; c++) {
+                    footer.putDouble(min[c]);
+                    footer.putDouble(max[c]);
+                }
+                position += (long) (to - from) * ROW_BYTES;
+            }
+
+            // フッター
+            CRC32C footerCrc = new CRC32C();
+            ByteBuffer entries = footer.duplicate();
+            entries.flip();
+            footerCrc.update(entries);
+            footer.putLong(footerCrc.getValue());
+            footer.flip();
+            while (footer.hasRemaining()) {
+                channel.write(footer);
+            }
+
+            // ヘッダー
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(MAGIC);
+            header.putInt(VERSION);
+            header.putInt(COLUMNS.length);
+            header.putInt(rowGroups);
+            header.putLong(rows);
+            header.putLong(position);
+            header.flip();
+            channel.position(0);
+            while (header.hasRemaining()) {
+                channel.write(header);
+            }
+        }
+    }
+
+    /**
+     * ファイルをメモリマップして読み込む（チェックサムを検証する）
+     */
+    public static MappedResults load(Path path) throws IOException {
+        return load(path, true);
+    }
+
+    /**
+     * ファイルをメモリマップして読み込む
+     * 列はヒープにコピーせず、行グループごとにマップしたバッファから読み出す
+     * @param path 入力ファイル
+     * @param verifyChecksum 行グループのチェックサムを検証するか（フッターは常に検証する）
+     */
+    public static MappedResults load(Path path, boolean verifyChecksum) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            if (fileSize < HEADER_BYTES) {
+                throw new IOException("結果ファイルが短すぎます: " + path);
+            }
+            ByteBuffer header = readFully(channel, 0, HEADER_BYTES, path);
+            int magic = header.getInt();
+            int version = header.getInt();
+            int columns = header.getInt();
+            int rowGroups = header.getInt();
+            long rows = header.getLong();
+            long footerOffset = header.getLong();
+
+            if (magic != MAGIC) {
+                throw new IOException("結果ファイルではありません: " + path);
+            }
+            if (version != VERSION) {
+                throw new IOException("未対応のバージョンです: " + version);
+            }
+            if (columns != COLUMNS.length) {
+                throw new IOException("列数が一致しません: " + columns);
+            }
+            if (rowGroups < 0 || rows < 0 || footerOffset < HEADER_BYTES
+                    || fileSize != footerOffset + (long) rowGroups * ROW_GROUP_ENTRY_BYTES + Long.BYTES) {
+                throw new IOException("ファイルサイズがヘッダーと一致しません: " + path);
+            }
+
+            ByteBuffer footer = readFully(channel, footerOffset, rowGroups * ROW_GROUP_ENTRY_BYTES + Long.BYTES, path);
+            CRC32C footerCrc = new CRC32C();
+            ByteBuffer entries = footer.duplicate();
+            entries.limit(rowGroups * ROW_GROUP_ENTRY_BYTES);
+            footerCrc.update(entries);
+            if (footerCrc.getValue() != footer.getLong(rowGroups * ROW_GROUP_ENTRY_BYTES)) {
+                throw new IOException("フッターのチェックサムが一致しません（ファイルが破損しています）: " + path);
+            }
+
+            int[] groupRows = new int[rowGroups];
+            ByteBuffer[] buffers = new ByteBuffer[rowGroups];
+            double[][] min = new double[rowGroups][COLUMNS.length];
+            double[][] max = new double[rowGroups][COLUMNS.length];
+            long expectedOffset = HEADER_BYTES;
+            long totalRows = 0;
+            for (int g = 0; g < rowGroups; g++) {
+                long offset = footer.getLong();
+                groupRows[g] = footer.getInt();
+                footer.getInt();
+                long checksum = footer.getLong();
+                for (int c = 0; c < COLUMNS.length; c++) {
+                    min[g][c] = footer.getDouble();
+                    max[g][c] = footer.getDouble();
+                }
+                long length = (long) groupRows[g] * ROW_BYTES;
+                if (offset != expectedOffset || groupRows[g] < 0 || length > Integer.MAX_VALUE) {
+                    throw new IOException("行グループの位置が不正です: " + g);
+                }
+                buffers[g] = channel.map(FileChannel.MapMode.READ_ONLY, offset, length).order(ByteOrder.LITTLE_ENDIAN);
+                if (verifyChecksum) {
+                    CRC32C crc = new CRC32C();
+                    crc.update(buffers[g].duplicate());
+                    if (crc.getValue() != checksum) {
+                        throw new IOException("チェックサムが一致しません（ファイルが破損しています）: " + path);
+                    }
+                }
+                expectedOffset += length;
+                totalRows += groupRows[g];
+            }
+            if (expectedOffset != footerOffset || totalRows != rows) {
+                throw new IOException("行数がヘッダーと一致しません: " + path);
+            }
+            return new MappedResults(path, rows, groupRows, buffers, min, max);
+        }
+    }
+
+    private static ByteBuffer readFully(FileChannel channel, long position, int length, Path path) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("ファイルを最後まで読み込めません: " + path);
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    private static void flush(ByteBuffer buffer, FileChannel channel, CRC32C crc) throws IOException {
+        buffer.flip();
+        crc.update(buffer.duplicate());
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
@@ -1,44 +1,120 @@
 package main.java.simulation;
 
-import main.java.network.Graph;
+import main.java.network.Network;
 import java.util.*;
+import java.util.function.IntConsumer;
 
 /**
  * SARモデルのGillespieシミュレーション
  * ネットワーク上での感染症の伝播をシミュレーション
+ *
+ * ノードの状態と感染隣接ノード数はプリミティブ配列で持ち、
+ * 感染イベントは感受性ノードごとの感染隣接ノード数を葉とするRateTreeから、
+ * 回復イベントは感染ノードの一覧から選ぶ（総率 = τ × 木の総和 + γ × 感染ノード数）。
+ * 介入（Intervention）はイベントループの中で時刻順に適用し、影響を受けたノードの率のみを修正する。
+ * 状態は Snapshot として一括コピーでき、同じ時点から介入を変えた分岐（what-if）を再開できる
  */
 public class SARSimulator {
-    private Graph network;
-    private double transmissionRate;  // τ (感染率)
-    private double recoveryRate;      // γ (回復率)
-    private Set<Integer> infectedNodes;
-    private Set<Integer> atRiskNodes;
-    private Set<Integer> recoveredNodes;
-    private Map<Integer, Double> infectionRates;
-    private double totalInfectionRate;
-    private double totalRecoveryRate;
-    private double totalRate;
-    
-    // シミュレーション結果
-    private List<Double> times;
-    private List<Integer> susceptibleCounts;
-    private List<Integer> infectedCounts;
-    private List<Integer> recoveredCounts;
-    
-    public SARSimulator(Graph network, double transmissionRate, double recoveryRate) {
+    private static final byte SUSCEPTIBLE = 0;
+    private static final byte INFECTED = 1;
+    private static final byte RECOVERED = 2;
+
+    private final Network network;
+    private final int N;
+    private final double transmissionRate;  // τ (感染率)
+    private final double recoveryRate;      // γ (回復率)
+
+    // ノードごとの状態
+    private final byte[] state;
+    private final int[] infectedNeighbors;  // 有効なエッジで繋がった感染隣接ノード数
+    private final RateTree infectionPressure; // 感受性ノードの葉 = 感染隣接ノード数（τは掛けない）
+    private final int[] infectedList;       // 感染ノードの一覧（先頭infectedCount個）
+    private final int[] infectedPosition;   // 感染ノードの一覧中の位置
+    private int infectedCount;
+    private int recoveredCount;
+    private int vaccinatedCount;            // 回復ノードのうちワクチン接種によるもの
+    private double transmissionScale;       // 介入による感染率の倍率
+    private double clock;                   // 直前のsimulateが終了した時刻
+    private InfectionObserver infectionObserver; // 感染の通知先（nullなら通知しない）
+    private TransmissionObserver transmissionObserver; // 感染経路の通知先（nullなら感染源を選ばない）
+    private Random infectorRandom;          // 感染源の選択用（シミュレーションの乱数列を変えない）
+    private int infectorCandidates;
+    private int sampledInfector;
+
+    // エッジの有効/無効（最初の隔離で作成する。nullなら全エッジが有効）
+    private int[] slotOffsets;              // 各ノードの隣接リストのスロット開始位置（N+1要素）
+    private int[] reverseSlots;             // スロット (i→k) に対する逆向きのスロット (k→i)（対がなければ-1）
+    private long[] activeSlots;             // スロットごとの有効ビット
+
+    // 隣接ノードの走査（forEachNeighbor）で使う処理。圧縮グラフなどでも逐次復号で走査できる
+    private int slot;
+    private int delta;
+    private final IntConsumer neighborUpdater = this::updateNeighbor;
+    private final IntConsumer infectorSampler = this::sampleInfector;
+    private int[] scratch = new int[16];
+    private int scratchSize;
+    private final IntConsumer scratchCollector = neighbor -> {
+        if (scratchSize == scratch.length) {
+            scratch = Arrays.copyOf(scratch, 2 * scratch.length);
+        }
+        scratch[scratchSize++] = neighbor;
+    };
+
+    public SARSimulator(Network network, double transmissionRate, double recoveryRate) {
         this.network = network;
+        this.N = network.nodeCount();
         this.transmissionRate = transmissionRate;
         this.recoveryRate = recoveryRate;
-        this.infectedNodes = new HashSet<>();
-        this.atRiskNodes = new HashSet<>();
-        this.recoveredNodes = new HashSet<>();
-        this.infectionRates = new HashMap<>();
-        this.times = new ArrayList<>();
-        this.susceptibleCounts = new ArrayList<>();
-        this.infectedCounts = new ArrayList<>();
-        this.recoveredCounts = new ArrayList<>();
+        this.state = new byte[N];
+        this.infectedNeighbors = new int[N];
+        this.infectionPressure = new RateTree(N);
+        this.infectedList = new int[N];
+        this.infectedPosition = new int[N];
+    }
+
+    /**
+     * ノードの感染を受け取る
+     */
+    public interface InfectionObserver {
+        /**
+         * @param node 感染したノード（初期感染ノードは時刻0で通知する）
+         * @param time 感染した時刻
+         */
+        void infected(int node, double time);
+    }
+
+    /**
+     * 感染の通知先を設定（nullで解除）。ノードごとの集計（NodeOutcomeAggregator）などに使う
+     */
+    public void setInfectionObserver(InfectionObserver observer) {
+        this.infectionObserver = observer;
     }
-    
+
+    /**
+     * 感染経路（誰が誰をいつ感染させたか）を受け取る
+     */
+    public interface TransmissionObserver {
+        /**
+         * @param infectee 感染したノード
+         * @param infector 感染源（初期感染ノードは-1）
+         * @param time 感染した時刻
+         */
+        void transmitted(int infectee, int infector, double time);
+    }
+
+    /**
+     * 感染経路の通知先を設定（nullで解除）
+     * 感染源は有効なエッジで繋がった感染隣接ノードから、感染率に比例して（一様に）選ぶ。
+     * 選択には random を使うため、記録の有無でシミュレーションの結果は変わらない
+     */
+    public void setTransmissionObserver(TransmissionObserver observer, Random random) {
+        if (observer != null && random == null) {
+            throw new IllegalArgumentException("感染源の選択には乱数生成器が必要です");
+        }
+        this.transmissionObserver = observer;
+        this.infectorRandom = random;
+    }
+
     /**
      * GillespieアルゴリズムによるSARシミュレーション
      * @param initialInfections 初期感染ノードのセット
@@ -46,230 +122,632 @@ public class SARSimulator {
      * @return シミュレーション結果
      */
     public SimulationResult runSimulation(Set<Integer> initialInfections, double maxTime) {
-        // 初期化
+        return runSimulation(initialInfections.stream().mapToInt(Integer::intValue).toArray(), maxTime);
+    }
+
+    /**
+     * GillespieアルゴリズムによるSARシミュレーション
+     * @param initialInfections 初期感染ノード（SeedSelectionの結果など）
+     * @param maxTime 最大シミュレーション時間
+     * @return シミュレーション結果
+     */
+    public SimulationResult runSimulation(int[] initialInfections, double maxTime) {
+        return runSimulation(initialInfections, maxTime, Collections.emptyList(), new Random());
+    }
+
+    /**
+     * 乱数生成器を指定してシミュレーションを実行
+     */
+    public SimulationResult runSimulation(int[] initialInfections, double maxTime, Random random) {
+        return runSimulation(initialInfections, maxTime, Collections.emptyList(), random);
+    }
+
+    /**
+     * 介入を行いながらシミュレーションを実行
+     * @param initialInfections 初期感染ノード
+     * @param maxTime 最大シミュレーション時間
+     * @param interventions 介入の一覧（時刻順でなくてもよい。同じ時刻なら一覧の順に適用）
+     * @param random 乱数生成器
+     * @return シミュレーション結果
+     */
+    public SimulationResult runSimulation(int[] initialInfections, double maxTime,
+                                          List<Intervention> interventions, Random random) {
+        initializeSimulation(initialInfections);
+        return simulate(0.0, maxTime, interventions, random, Integer.MAX_VALUE, true);
+    }
+
+    /**
+     * 時刻 time まで実行し、その時点の状態のスナップショットを返す
+     * 時刻 time をまたぐイベントの待ち時間は捨てる（指数分布の無記憶性により、再開時に引き直してよい）
+     * @param initialInfections 初期感染ノード
+     * @param time スナップショットを取る時刻
+     * @param interventions time より前に行う介入
+     * @param random 乱数生成器（状態をスナップショットに含める）
+     * @return 時刻 time の状態
+     */
+    public Snapshot runUntil(int[] initialInfections, double time, List<Intervention> interventions,
+                             SplitMixRandom random) {
+        initializeSimulation(initialInfections);
+        simulate(0.0, time, interventions, random, Integer.MAX_VALUE, false);
+        return snapshot(time, random);
+    }
+
+    /**
+     * スナップショットから再開して maxTime まで実行
+     * スナップショット自体は変更しないため、同じスナップショットから何度でも分岐できる。
+     * 乱数はスナップショットの乱数状態の複製を使うため、同じ介入なら同じ結果になる（共通乱数）
+     * @param snapshot 再開する状態
+     * @param maxTime 最大シミュレーション時間
+     * @param interventions 介入の一覧（スナップショットの時刻より前のものは無視）
+     * @return スナップショットの時刻からのシミュレーション結果
+     */
+    public SimulationResult resume(Snapshot snapshot, double maxTime, List<Intervention> interventions) {
+        return resume(snapshot, maxTime, interventions, snapshot.random.copy());
+    }
+
+    /**
+     * 乱数生成器を指定してスナップショットから再開
+     */
+    public SimulationResult resume(Snapshot snapshot, double maxTime, List<Intervention> interventions,
+                                   Random random) {
+        restore(snapshot);
+        return simulate(snapshot.time, maxTime, interventions, random, Integer.MAX_VALUE, true);
+    }
+
+    /**
+     * 初期感染ノードから、累積感染ノード数が level に達するまで実行（多段分割法の最初の段）
+     * @return 到達したイベント直後の状態（感染が終息するか maxTime までに到達しなければnull）
+     */
+    public Snapshot runUntilCumulative(int[] initialInfections, int level, double maxTime, SplitMixRandom random) {
         initializeSimulation(initialInfections);
-        
-        double currentTime = 0.0;
-        Random random = new Random();
-        
+        return continueUntilCumulative(level, maxTime, random);
+    }
+
+    /**
+     * スナップショットから、累積感染ノード数が level に達するまで実行（多段分割法の2段目以降）
+     * @return 到達したイベント直後の状態（感染が終息するか maxTime までに到達しなければnull）
+     */
+    public Snapshot runUntilCumulative(Snapshot start, int level, double maxTime, SplitMixRandom random) {
+        restore(start);
+        clock = start.time;
+        return continueUntilCumulative(level, maxTime, random);
+    }
+
+    private Snapshot continueUntilCumulative(int level, double maxTime, SplitMixRandom random) {
+        if (cumulativeInfections() < level) {
+            simulate(clock, maxTime, Collections.emptyList(), random, level, false);
+        }
+        return cumulativeInfections() >= level ? snapshot(clock, random) : null;
+    }
+
+    private int cumulativeInfections() {
+        return infectedCount + recoveredCount - vaccinatedCount;
+    }
+
+    /**
+     * 現在の状態のスナップショット（配列は System.arraycopy による一括コピー）
+     * @param time 現在の時刻
+     * @param random 乱数生成器（複製して保存する）
+     */
+    public Snapshot snapshot(double time, SplitMixRandom random) {
+        if (random == null) {
+            throw new IllegalArgumentException("スナップショットには乱数生成器が必要です");
+        }
+        return new Snapshot(this, time, random);
+    }
+
+    /**
+     * スナップショットの状態に戻す（配列は確保し直さずにコピーする）
+     */
+    public void restore(Snapshot snapshot) {
+        if (snapshot.state.length != N) {
+            throw new IllegalArgumentException("スナップショットのノード数が一致しません: " + snapshot.state.length + " と " + N);
+        }
+        System.arraycopy(snapshot.state, 0, state, 0, N);
+        System.arraycopy(snapshot.infectedNeighbors, 0, infectedNeighbors, 0, N);
+        infectionPressure.copyFrom(snapshot.infectionPressure);
+        System.arraycopy(snapshot.infectedList, 0, infectedList, 0, snapshot.infectedCount);
+        System.arraycopy(snapshot.infectedPosition, 0, infectedPosition, 0, N);
+        infectedCount = snapshot.infectedCount;
+        recoveredCount = snapshot.recoveredCount;
+        vaccinatedCount = snapshot.vaccinatedCount;
+        transmissionScale = snapshot.transmissionScale;
+        // スロット位置はネットワークのみで決まり変更されないため共有する
+        if (snapshot.slotOffsets != null) {
+            slotOffsets = snapshot.slotOffsets;
+            reverseSlots = snapshot.reverseSlots;
+        }
+        if (snapshot.activeSlots == null) {
+            activeSlots = null;
+        } else if (activeSlots != null && activeSlots.length == snapshot.activeSlots.length) {
+            System.arraycopy(snapshot.activeSlots, 0, activeSlots, 0, activeSlots.length);
+        } else {
+            activeSlots = snapshot.activeSlots.clone();
+        }
+    }
+
+    /**
+     * 同じネットワークとパラメータで、現在の状態をコピーしたシミュレータを作成
+     * 別スレッドで分岐先を並列に実行する場合に使う
+     */
+    public SARSimulator fork() {
+        return new SARSimulator(this);
+    }
+
+    /**
+     * 状態の配列を元のシミュレータから直接1回だけコピーする（fork用）
+     * 通知先は引き継がない
+     */
+    private SARSimulator(SARSimulator source) {
+        this.network = source.network;
+        this.N = source.N;
+        this.transmissionRate = source.transmissionRate;
+        this.recoveryRate = source.recoveryRate;
+        this.state = source.state.clone();
+        this.infectedNeighbors = source.infectedNeighbors.clone();
+        this.infectionPressure = source.infectionPressure.copy();
+        this.infectedList = source.infectedList.clone();
+        this.infectedPosition = source.infectedPosition.clone();
+        this.infectedCount = source.infectedCount;
+        this.recoveredCount = source.recoveredCount;
+        this.vaccinatedCount = source.vaccinatedCount;
+        this.transmissionScale = source.transmissionScale;
+        this.clock = source.clock;
+        // スロット位置と逆向きのスロットはネットワークのみで決まるため共有する
+        this.slotOffsets = source.slotOffsets;
+        this.reverseSlots = source.reverseSlots;
+        this.activeSlots = source.activeSlots == null ? null : source.activeSlots.clone();
+    }
+
+    /**
+     * 時刻 startTime の現在の状態から maxTime までイベントループを実行
+     * @param stopLevel 累積感染ノード数がこの値に達したイベントの直後に停止する
+     * @param record 状態の推移を記録するか（falseなら結果はnull）
+     */
+    private SimulationResult simulate(double startTime, double maxTime, List<Intervention> interventions,
+                                      Random random, int stopLevel, boolean record) {
+        List<Intervention> schedule = new ArrayList<>();
+        for (Intervention intervention : interventions) {
+            if (intervention.time >= startTime) {
+                schedule.add(intervention);
+            }
+        }
+        schedule.sort(Comparator.comparingDouble(intervention -> intervention.time));
+        int nextIntervention = 0;
+
+        List<Double> times = record ? new ArrayList<>() : null;
+        List<Integer> susceptibleCounts = record ? new ArrayList<>() : null;
+        List<Integer> infectedCounts = record ? new ArrayList<>() : null;
+        List<Integer> recoveredCounts = record ? new ArrayList<>() : null;
+        double currentTime = startTime;
+
         // 初期状態を記録
-        recordState(currentTime);
-        
-        while (currentTime < maxTime && totalRate > 0) {
+        recordState(currentTime, times, susceptibleCounts, infectedCounts, recoveredCounts);
+
+        while (currentTime < maxTime) {
+            double totalRecoveryRate = recoveryRate * infectedCount;
+            double totalInfectionRate = transmissionRate * transmissionScale * infectionPressure.total();
+            double totalRate = totalInfectionRate + totalRecoveryRate;
+            if (totalRate <= 0) {
+                // 以後イベントは起きないが、maxTime より前の介入は適用して記録する（介入で率が正になれば再開）
+                if (nextIntervention < schedule.size() && schedule.get(nextIntervention).time < maxTime) {
+                    currentTime = Math.max(currentTime, schedule.get(nextIntervention).time);
+                    apply(schedule.get(nextIntervention++));
+                    recordState(currentTime, times, susceptibleCounts, infectedCounts, recoveredCounts);
+                    continue;
+                }
+                break;
+            }
+
             // 次のイベントまでの時間を計算
-            double timeToNextEvent = exponentialVariate(totalRate, random);
-            currentTime += timeToNextEvent;
-            
-            if (currentTime >= maxTime) {
+            double eventTime = currentTime + exponentialVariate(totalRate, random);
+
+            // 次のイベントより前の介入を適用（指数分布の無記憶性により、介入後に時間を引き直してよい）
+            if (nextIntervention < schedule.size() && schedule.get(nextIntervention).time <= eventTime
+                    && schedule.get(nextIntervention).time < maxTime) {
+                currentTime = Math.max(currentTime, schedule.get(nextIntervention).time);
+                apply(schedule.get(nextIntervention++));
+                recordState(currentTime, times, susceptibleCounts, infectedCounts, recoveredCounts);
+                continue;
+            }
+
+            if (eventTime >= maxTime) {
                 break;
             }
-            
+            currentTime = eventTime;
+
             // イベントの種類を決定
             double r = random.nextDouble() * totalRate;
-            
+
             if (r < totalRecoveryRate) {
-                // 回復イベント
-                performRecoveryEvent(random);
+                // 回復イベント（rは [0, γ × 感染ノード数) で一様なので感染ノードの添字に使える）
+                int index = Math.min((int) (r / recoveryRate), infectedCount - 1);
+                recover(infectedList[index]);
             } else {
                 // 感染イベント
-                performInfectionEvent(random);
+                double u = (r - totalRecoveryRate) / (transmissionRate * transmissionScale);
+                int node = infectionPressure.sample(Math.min(u, Math.nextDown(infectionPressure.total())));
+                if (transmissionObserver != null) {
+                    transmissionObserver.transmitted(node, chooseInfector(node), currentTime);
+                }
+                infect(node);
+                if (infectionObserver != null) {
+                    infectionObserver.infected(node, currentTime);
+                }
             }
-            
+
             // 状態を記録
-            recordState(currentTime);
+            recordState(currentTime, times, susceptibleCounts, infectedCounts, recoveredCounts);
+            if (cumulativeInfections() >= stopLevel) {
+                break;
+            }
         }
-        
-        return new SimulationResult(times, susceptibleCounts, infectedCounts, recoveredCounts);
+
+        clock = currentTime;
+        return record ? new SimulationResult(times, susceptibleCounts, infectedCounts, recoveredCounts) : null;
     }
-    
+
     /**
      * シミュレーションの初期化
      */
-    private void initializeSimulation(Set<Integer> initialInfections) {
-        infectedNodes.clear();
-        atRiskNodes.clear();
-        recoveredNodes.clear();
-        infectionRates.clear();
-        
+    private void initializeSimulation(int[] initialInfections) {
+        Arrays.fill(state, SUSCEPTIBLE);
+        Arrays.fill(infectedNeighbors, 0);
+        infectionPressure.clear();
+        infectedCount = 0;
+        recoveredCount = 0;
+        vaccinatedCount = 0;
+        transmissionScale = 1.0;
+        clock = 0.0;
+        activeSlots = null;
+
         // 初期感染ノードを設定
-        infectedNodes.addAll(initialInfections);
-        
-        // 感染リスクのあるノードを特定
-        updateAtRiskNodes();
-        
-        // 感染率を計算
-        calculateInfectionRates();
-        
-        // 総率を計算
-        updateTotalRates();
-    }
-    
-    /**
-     * 感染リスクのあるノードを更新
-     */
-    private void updateAtRiskNodes() {
-        atRiskNodes.clear();
-        
-        for (int node = 0; node < network.N; node++) {
-            if (!infectedNodes.contains(node)) {
-                int infectedNeighbors = countInfectedNeighbors(node);
-                if (infectedNeighbors > 0) {
-                    atRiskNodes.add(node);
+        for (int node : initialInfections) {
+            if (node < 0 || node >= N) {
+                throw new IllegalArgumentException("無効な初期感染ノード: " + node);
+            }
+            if (state[node] == SUSCEPTIBLE) {
+                infect(node);
+                if (transmissionObserver != null) {
+                    transmissionObserver.transmitted(node, -1, 0.0);
+                }
+                if (infectionObserver != null) {
+                    infectionObserver.infected(node, 0.0);
                 }
             }
         }
     }
-    
+
     /**
-     * 指定ノードの感染隣接ノード数をカウント
+     * 感受性ノードを感染させ、隣接ノードの感染隣接ノード数を増やす
      */
-    private int countInfectedNeighbors(int node) {
-        int count = 0;
-        int start = network.addressList[node];
-        int end = network.cursorList[node];
-        
-        for (int i = start; i < end; i++) {
-            int neighbor = network.edgeList[i];
-            if (infectedNodes.contains(neighbor)) {
-                count++;
-            }
+    private void infect(int node) {
+        state[node] = INFECTED;
+        infectionPressure.set(node, 0.0);
+        infectedPosition[node] = infectedCount;
+        infectedList[infectedCount++] = node;
+        updateNeighbors(node, +1);
+    }
+
+    /**
+     * 感受性ノードの感染源を、有効なエッジで繋がった感染隣接ノードから一様に選ぶ（リザーバーサンプリング）
+     * 多重エッジは本数に比例して選ばれる
+     */
+    private int chooseInfector(int node) {
+        infectorCandidates = 0;
+        sampledInfector = -1;
+        slot = slotOffsets != null ? slotOffsets[node] : 0;
+        network.forEachNeighbor(node, infectorSampler);
+        return sampledInfector;
+    }
+
+    private void sampleInfector(int neighbor) {
+        if ((activeSlots == null || isActive(slot++)) && state[neighbor] == INFECTED
+                && infectorRandom.nextInt(++infectorCandidates) == 0) {
+            sampledInfector = neighbor;
         }
-        
-        return count;
     }
-    
+
     /**
-     * 感染率を計算
+     * 感染ノードを回復させ、隣接ノードの感染隣接ノード数を減らす
+     * 回復したノードは再び感染しない
      */
-    private void calculateInfectionRates() {
-        infectionRates.clear();
-        
-        for (int node : atRiskNodes) {
-            int infectedNeighbors = countInfectedNeighbors(node);
-            double rate = transmissionRate * infectedNeighbors;
-            infectionRates.put(node, rate);
+    private void recover(int node) {
+        state[node] = RECOVERED;
+        recoveredCount++;
+
+        // 一覧の末尾のノードを空いた位置に移す
+        int position = infectedPosition[node];
+        int last = infectedList[--infectedCount];
+        infectedList[position] = last;
+        infectedPosition[last] = position;
+
+        updateNeighbors(node, -1);
+    }
+
+    /**
+     * 有効なエッジで繋がった隣接ノードの感染隣接ノード数を delta だけ変え、感染率を修正
+     */
+    private void updateNeighbors(int node, int delta) {
+        this.delta = delta;
+        this.slot = slotOffsets != null ? slotOffsets[node] : 0;
+        network.forEachNeighbor(node, neighborUpdater);
+    }
+
+    /**
+     * 1つの隣接ノードの感染隣接ノード数を更新（無効なエッジの先は変えない）
+     */
+    private void updateNeighbor(int neighbor) {
+        if (activeSlots == null || isActive(slot++)) {
+            infectedNeighbors[neighbor] += delta;
+            updatePressure(neighbor);
         }
     }
-    
-    /**
-     * 総率を更新
-     */
-    private void updateTotalRates() {
-        totalInfectionRate = infectionRates.values().stream()
-                .mapToDouble(Double::doubleValue)
-                .sum();
-        totalRecoveryRate = recoveryRate * infectedNodes.size();
-        totalRate = totalInfectionRate + totalRecoveryRate;
-    }
-    
-    /**
-     * 回復イベントを実行
-     */
-    private void performRecoveryEvent(Random random) {
-        // ランダムに感染ノードを選択
-        List<Integer> infectedList = new ArrayList<>(infectedNodes);
-        int recoveredNode = infectedList.get(random.nextInt(infectedList.size()));
-        
-        // 感染ノードから削除し、回復ノードに追加
-        infectedNodes.remove(recoveredNode);
-        recoveredNodes.add(recoveredNode);
-        
-        // 隣接ノードの感染率を更新
-        updateNeighborInfectionRates(recoveredNode);
-        
-        // 総率を更新
-        updateTotalRates();
-    }
-    
-    /**
-     * 感染イベントを実行
-     */
-    private void performInfectionEvent(Random random) {
-        // 感染リスクのあるノードから選択
-        List<Integer> atRiskList = new ArrayList<>(atRiskNodes);
-        double[] probabilities = new double[atRiskList.size()];
-        
-        for (int i = 0; i < atRiskList.size(); i++) {
-            probabilities[i] = infectionRates.get(atRiskList.get(i));
+
+    /**
+     * 感受性ノードの感染率（感染隣接ノード数）を木に反映
+     */
+    private void updatePressure(int node) {
+        if (state[node] == SUSCEPTIBLE) {
+            infectionPressure.set(node, infectedNeighbors[node]);
         }
-        
-        int infectedNode = selectNodeByProbability(atRiskList, probabilities, random);
-        
-        // 感染ノードに追加
-        infectedNodes.add(infectedNode);
-        atRiskNodes.remove(infectedNode);
-        infectionRates.remove(infectedNode);
-        
-        // 隣接ノードの感染率を更新
-        updateNeighborInfectionRates(infectedNode);
-        
-        // 総率を更新
-        updateTotalRates();
-    }
-    
-    /**
-     * 隣接ノードの感染率を更新
-     */
-    private void updateNeighborInfectionRates(int node) {
-        int start = network.addressList[node];
-        int end = network.cursorList[node];
-        
-        for (int i = start; i < end; i++) {
-            int neighbor = network.edgeList[i];
-            
-            if (!infectedNodes.contains(neighbor)) {
-                int infectedNeighbors = countInfectedNeighbors(neighbor);
-                
-                if (infectedNeighbors > 0) {
-                    atRiskNodes.add(neighbor);
-                    infectionRates.put(neighbor, transmissionRate * infectedNeighbors);
-                } else {
-                    atRiskNodes.remove(neighbor);
-                    infectionRates.remove(neighbor);
+    }
+
+    /**
+     * 介入を適用
+     */
+    private void apply(Intervention intervention) {
+        switch (intervention.type) {
+            case VACCINATE:
+                for (int node : intervention.nodes) {
+                    checkNode(node);
+                    if (state[node] == SUSCEPTIBLE) {
+                        state[node] = RECOVERED;
+                        recoveredCount++;
+                        vaccinatedCount++;
+                        infectionPressure.set(node, 0.0);
+                    }
+                }
+                break;
+            case QUARANTINE:
+                for (int node : intervention.nodes) {
+                    checkNode(node);
+                    isolate(node);
                 }
+                break;
+            case SCALE_TRANSMISSION:
+                // 木の葉はτを含まないため、倍率の変更はO(1)
+                transmissionScale *= intervention.factor;
+                break;
+            default:
+                throw new IllegalArgumentException("未知の介入: " + intervention.type);
+        }
+    }
+
+    /**
+     * ノードに接続する有効なエッジを両方向とも無効化し、両端の感染隣接ノード数を修正
+     */
+    private void isolate(int node) {
+        ensureEdgeMask();
+        scratchSize = 0;
+        network.forEachNeighbor(node, scratchCollector);
+        int[] neighbors = Arrays.copyOf(scratch, scratchSize);
+
+        for (int j = 0; j < neighbors.length; j++) {
+            int s = slotOffsets[node] + j;
+            if (!isActive(s)) {
+                continue;
+            }
+            int neighbor = neighbors[j];
+            deactivate(s);
+            int reverse = reverseSlots[s];
+            if (reverse >= 0) {
+                deactivate(reverse);
+            }
+
+            if (state[node] == INFECTED) {
+                infectedNeighbors[neighbor]--;
+                updatePressure(neighbor);
+            }
+            if (state[neighbor] == INFECTED) {
+                infectedNeighbors[node]--;
+                updatePressure(node);
             }
         }
     }
-    
+
     /**
-     * 確率に基づいてノードを選択
+     * エッジの有効ビットを作成（全て有効）
+     * スロット位置と逆向きのスロットはネットワークのみで決まるため、最初の隔離で1度だけ求めて実行間で使い回す
      */
-    private int selectNodeByProbability(List<Integer> nodes, double[] probabilities, Random random) {
-        double totalProb = 0.0;
-        for (double prob : probabilities) {
-            totalProb += prob;
+    private void ensureEdgeMask() {
+        if (activeSlots != null) {
+            return;
         }
-        
-        double r = random.nextDouble() * totalProb;
-        double cumulativeProb = 0.0;
-        
-        for (int i = 0; i < nodes.size(); i++) {
-            cumulativeProb += probabilities[i];
-            if (r <= cumulativeProb) {
-                return nodes.get(i);
+        if (slotOffsets == null) {
+            int[] offsets = new int[N + 1];
+            long total = 0;
+            for (int i = 0; i < N; i++) {
+                offsets[i] = (int) total;
+                total += network.degree(i);
+                if (total > Integer.MAX_VALUE) {
+                    throw new IllegalArgumentException("隣接リストのサイズがint配列の上限を超えます: " + total);
+                }
             }
+            offsets[N] = (int) total;
+            reverseSlots = reverseSlots(network, offsets);
+            slotOffsets = offsets;
+        }
+        activeSlots = new long[(slotOffsets[N] + 63) >>> 6];
+        Arrays.fill(activeSlots, -1L);
+    }
+
+    /**
+     * 逆向きのスロットを求める
+     * 各ノードの隣接リストを (隣接ノード, スロット) の順に並べ、u < v の対について
+     * u の隣接リスト中の m 番目の v と、v の隣接リスト中の m 番目の u を対応させる（多重エッジにも対応）。
+     * 自己ループは隣り合う2つずつを対にする
+     */
+    private static int[] reverseSlots(Network network, int[] slotOffsets) {
+        int n = slotOffsets.length - 1;
+        long[] sorted = new long[slotOffsets[n]];
+        int[] cursor = new int[1];
+        IntConsumer collector = neighbor -> {
+            sorted[cursor[0]] = ((long) neighbor << 32) | cursor[0];
+            cursor[0]++;
+        };
+        for (int i = 0; i < n; i++) {
+            cursor[0] = slotOffsets[i];
+            network.forEachNeighbor(i, collector);
+            Arrays.sort(sorted, slotOffsets[i], slotOffsets[i + 1]);
+        }
+
+        int[] reverse = new int[sorted.length];
+        Arrays.fill(reverse, -1);
+        for (int u = 0; u < n; u++) {
+            int s = slotOffsets[u];
+            int end = slotOffsets[u + 1];
+            while (s < end) {
+                int v = (int) (sorted[s] >>> 32);
+                int runEnd = s;
+                while (runEnd < end && (int) (sorted[runEnd] >>> 32) == v) {
+                    runEnd++;
+                }
+                if (u == v) {
+                    for (int r = s; r + 1 < runEnd; r += 2) {
+                        reverse[(int) sorted[r]] = (int) sorted[r + 1];
+                        reverse[(int) sorted[r + 1]] = (int) sorted[r];
+                    }
+                } else if (u < v) {
+                    int t = lowerBound(sorted, slotOffsets[v], slotOffsets[v + 1], (long) u << 32);
+                    for (int r = s; r < runEnd && t < slotOffsets[v + 1] && (int) (sorted[t] >>> 32) == u; r++, t++) {
+                        reverse[(int) sorted[r]] = (int) sorted[t];
+                        reverse[(int) sorted[t]] = (int) sorted[r];
+                    }
+                }
+                s = runEnd;
+            }
+        }
+        return reverse;
+    }
+
+    private static int lowerBound(long[] values, int from, int to, long key) {
+        while (from < to) {
+            int middle = (from + to) >>> 1;
+            if (values[middle] < key) {
+                from = middle + 1;
+            } else {
+                to = middle;
+            }
+        }
+        return from;
+    }
+
+    private boolean isActive(int s) {
+        return (activeSlots[s >>> 6] & (1L << s)) != 0;
+    }
+
+    private void deactivate(int s) {
+        activeSlots[s >>> 6] &= ~(1L << s);
+    }
+
+    private void checkNode(int node) {
+        if (node < 0 || node >= N) {
+            throw new IllegalArgumentException("無効なノード: " + node);
         }
-        
-        return nodes.get(nodes.size() - 1);
     }
-    
+
     /**
      * 指数分布の乱数を生成
      */
     private double exponentialVariate(double rate, Random random) {
         return -Math.log(1 - random.nextDouble()) / rate;
     }
-    
+
     /**
      * 現在の状態を記録
      */
-    private void recordState(double time) {
+    private void recordState(double time, List<Double> times, List<Integer> susceptibleCounts,
+                             List<Integer> infectedCounts, List<Integer> recoveredCounts) {
+        if (times == null) {
+            return;
+        }
         times.add(time);
-        susceptibleCounts.add(network.N - infectedNodes.size() - recoveredNodes.size());
-        infectedCounts.add(infectedNodes.size());
-        recoveredCounts.add(recoveredNodes.size()); // Track recovered nodes
+        susceptibleCounts.add(N - infectedCount - recoveredCount);
+        infectedCounts.add(infectedCount);
+        recoveredCounts.add(recoveredCount);
     }
-    
+
+    /**
+     * シミュレーション状態のスナップショット
+     * ノード状態・感染隣接ノード数・率の木・感染ノード一覧・エッジの有効ビットと乱数状態を保持する。
+     * 作成後は変更されないため、複数のシミュレータから同時に restore / resume してよい
+     */
+    public static final class Snapshot {
+        private final double time;
+        private final byte[] state;
+        private final int[] infectedNeighbors;
+        private final RateTree infectionPressure;
+        private final int[] infectedList;
+        private final int[] infectedPosition;
+        private final int infectedCount;
+        private final int recoveredCount;
+        private final int vaccinatedCount;
+        private final double transmissionScale;
+        private final int[] slotOffsets;
+        private final int[] reverseSlots;
+        private final long[] activeSlots;
+        private final SplitMixRandom random;
+
+        private Snapshot(SARSimulator simulator, double time, SplitMixRandom random) {
+            int n = simulator.N;
+            this.time = time;
+            this.state = new byte[n];
+            System.arraycopy(simulator.state, 0, state, 0, n);
+            this.infectedNeighbors = new int[n];
+            System.arraycopy(simulator.infectedNeighbors, 0, infectedNeighbors, 0, n);
+            this.infectionPressure = simulator.infectionPressure.copy();
+            this.infectedList = new int[n];
+            System.arraycopy(simulator.infectedList, 0, infectedList, 0, simulator.infectedCount);
+            this.infectedPosition = new int[n];
+            System.arraycopy(simulator.infectedPosition, 0, infectedPosition, 0, n);
+            this.infectedCount = simulator.infectedCount;
+            this.recoveredCount = simulator.recoveredCount;
+            this.vaccinatedCount = simulator.vaccinatedCount;
+            this.transmissionScale = simulator.transmissionScale;
+            this.slotOffsets = simulator.slotOffsets;
+            this.reverseSlots = simulator.reverseSlots;
+            this.activeSlots = simulator.activeSlots == null ? null : simulator.activeSlots.clone();
+            this.random = random.copy();
+        }
+
+        /**
+         * スナップショットの時刻
+         */
+        public double time() {
+            return time;
+        }
+
+        public int susceptibleCount() {
+            return state.length - infectedCount - recoveredCount;
+        }
+
+        public int infectedCount() {
+            return infectedCount;
+        }
+
+        public int recoveredCount() {
+            return recoveredCount;
+        }
+
+        /**
+         * 累積感染ノード数（感染中＋感染を経て回復。ワクチン接種は含まない）
+         */
+        public int cumulativeInfections() {
+            return infectedCount + recoveredCount - vaccinatedCount;
+        }
+    }
+
     /**
      * シミュレーション結果クラス
      */
@@ -278,23 +756,23 @@ public class SARSimulator {
         public final List<Integer> susceptibleCounts;
         public final List<Integer> infectedCounts;
         public final List<Integer> recoveredCounts;
-        
-        public SimulationResult(List<Double> times, List<Integer> susceptibleCounts, 
+
+        public SimulationResult(List<Double> times, List<Integer> susceptibleCounts,
                               List<Integer> infectedCounts, List<Integer> recoveredCounts) {
             this.times = times;
             this.susceptibleCounts = susceptibleCounts;
             this.infectedCounts = infectedCounts;
             this.recoveredCounts = recoveredCounts;
         }
-        
+
         public void printResults() {
             System.out.println("=== SARシミュレーション結果 ===");
             System.out.println("時間\t感受性\t感染\t回復");
             for (int i = 0; i < times.size(); i++) {
-                System.out.printf("%.3f\t%d\t%d\t%d%n", 
-                    times.get(i), susceptibleCounts.get(i), 
+                System.out.printf("%.3f\t%d\t%d\t%d%n",
+                    times.get(i), susceptibleCounts.get(i),
                     infectedCounts.get(i), recoveredCounts.get(i));
             }
         }
     }
-} 
\ No newline at end of file
+}
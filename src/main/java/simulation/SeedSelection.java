@@ -0,0 +1,247 @@
+package main.java.simulation;
+
+import main.java.network.Graph;
+import main.java.network.analysis.GraphStatistics;
+import java.util.BitSet;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 初期感染ノードの選び方
+ * 結果はシミュレーターにそのまま渡せるint配列（重複なし）で返す。
+ * 一様抽出はFloydの方法（O(選ぶ数)）、上位ノードの選択は全体のソートをせず
+ * 部分選択（3分割のクイックセレクト, 平均O(N)）で閾値を求める
+ */
+public final class SeedSelection {
+
+    /**
+     * 選び方
+     */
+    public enum Strategy {
+        UNIFORM,          // 全ノードから一様に選ぶ
+        GIANT_COMPONENT,  // 巨大連結成分から一様に選ぶ
+        HIGH_DEGREE,      // 次数の大きい順（同じ次数の中では一様に選ぶ）
+        K_CORE,           // コア数の大きい順（同じコア数の中では一様に選ぶ）
+        RANDOM_NEIGHBOR   // 一様に選んだノードの隣接ノードを選ぶ（友人関係のパラドックス）
+    }
+
+    private SeedSelection() {
+    }
+
+    /**
+     * 指定した方式で初期感染ノードを選ぶ
+     * @param graph 対象のグラフ
+     * @param strategy 選び方
+     * @param count 選ぶノード数
+     * @param random 乱数生成器
+     * @return 選ばれたノード（重複なし）
+     */
+    public static int[] select(Graph graph, Strategy strategy, int count, Random random) {
+        if (count < 0 || count > graph.N) {
+            throw new IllegalArgumentException("初期感染ノード数は0以上ノード数以下である必要があります: " + count);
+        }
+        switch (strategy) {
+            case UNIFORM:
+                return sample(graph.N, count, random);
+            case GIANT_COMPONENT:
+                return graph.componentIndex().sampleGiant(count, random);
+            case HIGH_DEGREE:
+                int[] degrees = new int[graph.N];
+                for (int i = 0; i < graph.N; i++) {
+                    degrees[i] = graph.degree(i);
+                }
+                return top(degrees, count, random);
+            case K_CORE:
+                return top(GraphStatistics.coreNumbers(graph), count, random);
+            case RANDOM_NEIGHBOR:
+                return randomNeighbors(graph, count, random);
+            default:
+                throw new IllegalArgumentException("未知の選び方: " + strategy);
+        }
+    }
+
+    /**
+     * [0, n) から重複なく一様に選ぶ（Floydの方法）
+     */
+    public static int[] sample(int n, int count, Random random) {
+        if (count < 0 || count > n) {
+            throw new IllegalArgumentException("選ぶ数は0以上" + n + "以下である必要があります: " + count);
+        }
+        BitSet chosen = new BitSet(n);
+        int[] sample = new int[count];
+        for (int k = 0, j = n - count; j < n; j++, k++) {
+            int t = random.nextInt(j + 1);
+            if (chosen.get(t)) {
+                t = j;
+            }
+            chosen.set(t);
+            sample[k] = t;
+        }
+        return sample;
+    }
+
+    /**
+     * スコアの大きい順にcount個のノードを選ぶ
+     * count番目のスコアを閾値とし、閾値より大きいノードは全て、閾値と等しいノードからは残りを一様に選ぶ
+     */
+    static int[] top(int[] scores, int count, Random random) {
+        if (count == 0) {
+            return new int[0];
+        }
+        int threshold = kthLargest(scores.clone(), count);
+
+        int[] selected = new int[count];
+        int above = 0;
+        int ties = 0;
+        for (int i = 0; i < scores.length; i++) {
+            if (scores[i] > threshold) {
+                selected[above++] = i;
+            } else if (scores[i] == threshold) {
+                ties++;
+            }
+        }
+        int[] tied = new int[ties];
+        ties = 0;
+        for (int i = 0; i < scores.length; i++) {
+            if (scores[i] == threshold) {
+                tied[ties++] = i;
+            }
+        }
+        int[] picks = sample(tied.length, count - above, random);
+        for (int j = 0; j < picks.length; j++) {
+            selected[above + j] = tied[picks[j]];
+        }
+        return selected;
+    }
+
+    /**
+     * k番目に大きい値（配列は並べ替えられる）
+     * 次数のように同じ値が多い場合にも線形時間になるよう3分割で分割する
+     */
+    static int kthLargest(int[] values, int k) {
+        int lo = 0;
+        int hi = values.length - 1;
+        int target = k - 1;
+        ThreadLocalRandom pivotRandom = ThreadLocalRandom.current(); // 閾値の値はピボットの選び方に依存しない
+        while (lo < hi) {
+            int pivot = values[lo + pivotRandom.nextInt(hi - lo + 1)];
+            // [lo, lt) > pivot, [lt, gt] == pivot, (gt, hi] < pivot
+            int lt = lo, i = lo, gt = hi;
+            while (i <= gt) {
+                if (values[i] > pivot) {
+                    swap(values, lt++, i++);
+                } else if (values[i] < pivot) {
+                    swap(values, i, gt--);
+                } else {
+                    i++;
+                }
+            }
+            if (target < lt) {
+                hi = lt - 1;
+            } else if (target > gt) {
+                lo = gt + 1;
+            } else {
+                return pivot;
+            }
+        }
+        return values[lo];
+    }
+
+    /**
+     * 一様に選んだノードの隣接ノードを、重複しないcount個が集まるまで選ぶのと同じ分布で選ぶ
+     * 1回の試行でノードvが選ばれる確率は、vを指す隣接スロット（u→v）ごとの 1/(N·deg(u)) の和に比例する（概ね次数に比例）。
+     * 棄却を繰り返す代わりに、この重みで非復元の重み付き抽出（Efraimidis–Spirakis法: 鍵 log(r)/w の上位count個）を行うため、
+     * 時間は O(エッジスロット数 + N log count) で、countが到達可能なノード数に近くても、自己ループしか持たないノードがあっても終わる
+     */
+    private static int[] randomNeighbors(Graph graph, int count, Random random) {
+        // 重みは自分を指すスロットから求める（次数が0でも他から指されていれば到達可能）
+        double[] weights = new double[graph.N];
+        for (int u = 0; u < graph.N; u++) {
+            int degree = graph.degree(u);
+            for (int j = 0; j < degree; j++) {
+                weights[graph.neighbor(u, j)] += 1.0 / degree;
+            }
+        }
+        int reachable = 0;
+        for (int v = 0; v < graph.N; v++) {
+            if (weights[v] > 0.0) {
+                reachable++;
+            }
+        }
+        if (count > reachable) {
+            throw new IllegalArgumentException("隣接ノードとして選ばれうるノード数(" + reachable + ")を超えて選ぶことはできません: " + count);
+        }
+
+        // 鍵の小さい順の二分ヒープで上位count個を保持
+        int[] heapNodes = new int[count];
+        double[] heapKeys = new double[count];
+        int size = 0;
+        for (int v = 0; v < graph.N && count > 0; v++) {
+            if (weights[v] <= 0.0) {
+                continue;
+            }
+            double key = Math.log(random.nextDouble()) / weights[v];
+            if (size < count) {
+                siftUp(heapNodes, heapKeys, size++, v, key);
+            } else if (key > heapKeys[0]) {
+                siftDown(heapNodes, heapKeys, size, v, key);
+            }
+        }
+
+        // 鍵の大きい順（逐次に選んだ場合の順）に並べる
+        int[] selected = new int[count];
+        for (int i = count - 1; i >= 0; i--) {
+            selected[i] = heapNodes[0];
+            size--;
+            siftDown(heapNodes, heapKeys, size, heapNodes[size], heapKeys[size]);
+        }
+        return selected;
+    }
+
+    private static void siftUp(int[] nodes, double[] keys, int i, int node, double key) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (keys[parent] <= key) {
+                break;
+            }
+            nodes[i] = nodes[parent];
+            keys[i] = keys[parent];
+            i = parent;
+        }
+        nodes[i] = node;
+        keys[i] = key;
+    }
+
+    /**
+     * 根を node で置き換えて下へ移す（size はヒープの大きさ）
+     */
+    private static void siftDown(int[] nodes, double[] keys, int size, int node, double key) {
+        if (size == 0) {
+            return;
+        }
+        int i = 0;
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && keys[child + 1] < keys[child]) {
+                child++;
+            }
+            if (key <= keys[child]) {
+                break;
+            }
+            nodes[i] = nodes[child];
+            keys[i] = keys[child];
+            i = child;
+        }
+        nodes[i] = node;
+        keys[i] = key;
+    }
+
+    private static void swap(int[] values, int i, int j) {
+        int tmp = values[i];
+        values[i] = values[j];
+        values[j] = tmp;
+    }
+}
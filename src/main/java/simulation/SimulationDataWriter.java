@@ -44,20 +44,73 @@ public class SimulationDataWriter {
             // ヘッダーを書き出し
             writer.println("run_id,transmission_rate,recovery_rate,network_type,network_size," +
                          "initial_infections,max_time,max_infected,final_infected,peak_time," +
-                         "total_events,simulation_time");
+                         "total_events,simulation_time,final_size");
             
             // 各シミュレーション結果を書き出し
             for (SimulationRun result : results) {
-                writer.printf("%d,%.6f,%.6f,%d,%d,%d,%.6f,%d,%d,%.6f,%d,%.6f%n",
+                writer.printf("%d,%.6f,%.6f,%d,%d,%d,%.6f,%d,%d,%.6f,%d,%.6f,%.6f%n",
                     result.runId, result.transmissionRate, result.recoveryRate,
                     result.networkType, result.networkSize, result.initialInfections,
                     result.maxTime, result.maxInfected, result.finalInfected,
-                    result.peakTime, result.totalEvents, result.simulationTime);
+                    result.peakTime, result.totalEvents, result.simulationTime, result.finalSize);
             }
         }
         System.out.println("シミュレーション結果を保存しました: " + resultsFile);
     }
     
+    /**
+     * シミュレーション結果を列形式のバイナリファイル（ResultsFile）に書き出す
+     * 全桁の精度を保ち、読み込み側は必要な列のみをメモリマップで読める
+     */
+    public static void writeResultsBinary(String outputDir, List<SimulationRun> results) throws IOException {
+        // ディレクトリを作成
+        Files.createDirectories(Paths.get(outputDir));
+        
+        // バイナリファイルに書き出し
+        String resultsFile = outputDir + "/results.bin";
+        ResultsFile.write(results, Paths.get(resultsFile));
+        System.out.println("シミュレーション結果（バイナリ）を保存しました: " + resultsFile);
+    }
+    
+    /**
+     * ネットワークの統計量（次数分布・連結成分・k-コア・クラスタ係数）をJSONファイルに書き出す
+     */
+    public static void writeNetworkStats(String outputDir, Map<String, Object> networkStats) throws IOException {
+        // ディレクトリを作成
+        Files.createDirectories(Paths.get(outputDir));
+        
+        // JSONファイルに書き出し
+        String statsFile = outputDir + "/network_stats.json";
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(new File(statsFile), networkStats);
+        System.out.println("ネットワーク統計量を保存しました: " + statsFile);
+    }
+    
+    /**
+     * 共通乱数による隣り合うパラメータ値の間の対応のある差をJSONファイルに書き出す
+     */
+    public static void writePairedDifferences(String outputDir, Map<String, Object> pairedDifferences) throws IOException {
+        // ディレクトリを作成
+        Files.createDirectories(Paths.get(outputDir));
+        
+        // JSONファイルに書き出し
+        String pairedFile = outputDir + "/paired_differences.json";
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(new File(pairedFile), pairedDifferences);
+        System.out.println("対応のある差を保存しました: " + pairedFile);
+    }
+    
+    /**
+     * 設定ごとの感染ノード数の推移の帯（平均・標準偏差・分位点）をJSONファイルに書き出す
+     */
+    public static void writeTrajectoryBands(String outputDir, Map<String, Object> trajectoryBands) throws IOException {
+        // ディレクトリを作成
+        Files.createDirectories(Paths.get(outputDir));
+        
+        // JSONファイルに書き出し
+        String bandsFile = outputDir + "/trajectory_bands.json";
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(new File(bandsFile), trajectoryBands);
+        System.out.println("感染ノード数の推移の帯を保存しました: " + bandsFile);
+    }
+    
     /**
      * シミュレーション状態をJSONファイルに書き出す
      */
@@ -83,15 +136,24 @@ public class SimulationDataWriter {
         public final int initialInfections;
         public final double maxTime;
         public final int maxInfected;
-        public final int finalInfected;
+        public final int finalInfected; // 終了時の感染ノード数（有病数）
         public final double peakTime;
         public final int totalEvents;
         public final double simulationTime;
+        public final double finalSize;  // 終了時までに感染したノードの割合 (N - S_end) / N（不明ならNaN）
         
         public SimulationRun(int runId, double transmissionRate, double recoveryRate,
                            int networkType, int networkSize, int initialInfections,
                            double maxTime, int maxInfected, int finalInfected,
                            double peakTime, int totalEvents, double simulationTime) {
+            this(runId, transmissionRate, recoveryRate, networkType, networkSize, initialInfections,
+                maxTime, maxInfected, finalInfected, peakTime, totalEvents, simulationTime, Double.NaN);
+        }
+        
+        public SimulationRun(int runId, double transmissionRate, double recoveryRate,
+                           int networkType, int networkSize, int initialInfections,
+                           double maxTime, int maxInfected, int finalInfected,
+                           double peakTime, int totalEvents, double simulationTime, double finalSize) {
             this.runId = runId;
             this.transmissionRate = transmissionRate;
             this.recoveryRate = recoveryRate;
@@ -104,6 +166,7 @@ public class SimulationDataWriter {
             this.peakTime = peakTime;
             this.totalEvents = totalEvents;
             this.simulationTime = simulationTime;
+            this.finalSize = finalSize;
         }
     }
 } 
\ No newline at end of file
@@ -0,0 +1,67 @@
+package main.java.simulation;
+
+import java.util.Random;
+
+/**
+ * 状態を64ビット1つで表す乱数生成器（SplitMix64）
+ * java.util.Random は内部状態を取り出せないため、シミュレーションのスナップショットでは
+ * このクラスを用いて乱数の状態ごと保存・複製する
+ */
+public class SplitMixRandom extends Random {
+    private static final long serialVersionUID = 1L;
+
+    private long state;
+
+    public SplitMixRandom(long seed) {
+        super(seed);
+        this.state = seed;
+    }
+
+    /**
+     * 同じ状態の複製（以後は元と同じ乱数列を生成する）
+     */
+    public SplitMixRandom copy() {
+        return new SplitMixRandom(state);
+    }
+
+    /**
+     * 現在の状態
+     */
+    public long state() {
+        return state;
+    }
+
+    @Override
+    public synchronized void setSeed(long seed) {
+        super.setSeed(seed);
+        this.state = seed;
+    }
+
+    @Override
+    protected int next(int bits) {
+        return (int) (nextLong() >>> (64 - bits));
+    }
+
+    @Override
+    public long nextLong() {
+        long z = (state += 0x9E3779B97F4A7C15L);
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    @Override
+    public double nextDouble() {
+        return (nextLong() >>> 11) * 0x1.0p-53;
+    }
+
+    /**
+     * 正規乱数（Box–Muller法）。2つ目の値をキャッシュしないため、状態は state のみで決まる
+     */
+    @Override
+    public double nextGaussian() {
+        double u = 1.0 - nextDouble();
+        double v = nextDouble();
+        return Math.sqrt(-2.0 * Math.log(u)) * Math.cos(2.0 * Math.PI * v);
+    }
+}
@@ -0,0 +1,213 @@
+package main.java.simulation;
+
+import main.java.network.temporal.ContactStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * 時間ネットワーク（時刻つき接触列）上のSARシミュレーション
+ *
+ * 接触 (u, v, t) を時刻順に1件ずつ読み、一方が感染・他方が感受性なら確率 p で感染させる。
+ * 感染したノードの回復時刻は感染時に指数分布（率 γ）から決め、回復時刻の最小ヒープで管理する。
+ * 接触列はストリームから読み進めるだけでメモリに保持せず、ノードごとの状態はプリミティブ配列に持つ
+ */
+public class TemporalSimulator {
+    private static final byte SUSCEPTIBLE = 0;
+    private static final byte INFECTED = 1;
+    private static final byte RECOVERED = 2;
+
+    private final int N;
+    private final double transmissionProbability; // p (1回の接触での感染確率)
+    private final double recoveryRate;            // γ (回復率)
+    private final double recordInterval;          // 状態を記録する時間間隔
+
+    private final byte[] state;
+    // 回復時刻の最小ヒープ（感染中のノードのみ）
+    private double[] heapTimes = new double[16];
+    private int[] heapNodes = new int[16];
+    private int heapSize;
+    private int infectedCount;
+    private int recoveredCount;
+    private long contactCount;
+
+    /**
+     * @param N ノード数
+     * @param transmissionProbability 1回の接触での感染確率 p
+     * @param recoveryRate 回復率 γ
+     * @param recordInterval 状態を記録する時間間隔（接触列の時刻の単位）
+     */
+    public TemporalSimulator(int N, double transmissionProbability, double recoveryRate, double recordInterval) {
+        if (N <= 0) throw new IllegalArgumentException("ノード数Nは正の整数である必要があります");
+        if (transmissionProbability < 0 || transmissionProbability > 1) {
+            throw new IllegalArgumentException("感染確率pは0以上1以下である必要があります: " + transmissionProbability);
+        }
+        if (recoveryRate < 0) throw new IllegalArgumentException("回復率γは0以上である必要があります: " + recoveryRate);
+        if (recordInterval <= 0) throw new IllegalArgumentException("記録間隔は正の値である必要があります: " + recordInterval);
+        this.N = N;
+        this.transmissionProbability = transmissionProbability;
+        this.recoveryRate = recoveryRate;
+        this.recordInterval = recordInterval;
+        this.state = new byte[N];
+    }
+
+    /**
+     * 接触列を再生してシミュレーションを実行
+     * @param contacts 時刻順の接触列（読み終えても閉じない）
+     * @param initialInfections 初期感染ノード（startTime に感染）
+     * @param startTime 開始時刻（これより前の接触は読み飛ばす）
+     * @param endTime 終了時刻
+     * @param random 乱数生成器
+     * @return startTime から recordInterval ごとに記録した結果
+     */
+    public SARSimulator.SimulationResult runSimulation(ContactStream contacts, int[] initialInfections,
+                                                      double startTime, double endTime, Random random) throws IOException {
+        Arrays.fill(state, SUSCEPTIBLE);
+        heapSize = 0;
+        infectedCount = 0;
+        recoveredCount = 0;
+        contactCount = 0;
+        for (int node : initialInfections) {
+            checkNode(node);
+            if (state[node] == SUSCEPTIBLE) {
+                infect(node, startTime, random);
+            }
+        }
+
+        List<Double> times = new ArrayList<>();
+        List<Integer> susceptibleCounts = new ArrayList<>();
+        List<Integer> infectedCounts = new ArrayList<>();
+        List<Integer> recoveredCounts = new ArrayList<>();
+        double nextRecord = startTime;
+
+        while (contacts.next()) {
+            double t = contacts.time();
+            if (t < startTime) {
+                continue;
+            }
+            if (t >= endTime) {
+                break;
+            }
+            // 記録時刻と回復を接触の時刻まで進める
+            while (nextRecord <= t) {
+                recoverUntil(nextRecord);
+                record(nextRecord, times, susceptibleCounts, infectedCounts, recoveredCounts);
+                nextRecord += recordInterval;
+            }
+            recoverUntil(t);
+            contactCount++;
+
+            int u = contacts.source();
+            int v = contacts.target();
+            checkNode(u);
+            checkNode(v);
+            if (state[u] == INFECTED && state[v] == SUSCEPTIBLE) {
+                if (random.nextDouble() < transmissionProbability) {
+                    infect(v, t, random);
+                }
+            } else if (state[v] == INFECTED && state[u] == SUSCEPTIBLE) {
+                if (random.nextDouble() < transmissionProbability) {
+                    infect(u, t, random);
+                }
+            }
+            // 感染者がいなくなれば以降の接触は状態を変えない
+            if (infectedCount == 0) {
+                break;
+            }
+        }
+
+        while (nextRecord < endTime) {
+            recoverUntil(nextRecord);
+            record(nextRecord, times, susceptibleCounts, infectedCounts, recoveredCounts);
+            nextRecord += recordInterval;
+        }
+        return new SARSimulator.SimulationResult(times, susceptibleCounts, infectedCounts, recoveredCounts);
+    }
+
+    /**
+     * 直前の実行で処理した接触数
+     */
+    public long contactCount() {
+        return contactCount;
+    }
+
+    private void checkNode(int node) {
+        if (node < 0 || node >= N) {
+            throw new IllegalArgumentException("無効なノード: " + node);
+        }
+    }
+
+    private void infect(int node, double time, Random random) {
+        state[node] = INFECTED;
+        infectedCount++;
+        double recoveryTime = recoveryRate > 0
+                ? time - Math.log(1 - random.nextDouble()) / recoveryRate
+                : Double.POSITIVE_INFINITY;
+        push(recoveryTime, node);
+    }
+
+    /**
+     * 回復時刻が time 以前の感染ノードを回復させる
+     */
+    private void recoverUntil(double time) {
+        while (heapSize > 0 && heapTimes[0] <= time) {
+            int node = heapNodes[0];
+            pop();
+            state[node] = RECOVERED;
+            infectedCount--;
+            recoveredCount++;
+        }
+    }
+
+    private void push(double time, int node) {
+        if (heapSize == heapTimes.length) {
+            heapTimes = Arrays.copyOf(heapTimes, 2 * heapSize);
+            heapNodes = Arrays.copyOf(heapNodes, 2 * heapSize);
+        }
+        int i = heapSize++;
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (heapTimes[parent] <= time) {
+                break;
+            }
+            heapTimes[i] = heapTimes[parent];
+            heapNodes[i] = heapNodes[parent];
+            i = parent;
+        }
+        heapTimes[i] = time;
+        heapNodes[i] = node;
+    }
+
+    private void pop() {
+        double time = heapTimes[--heapSize];
+        int node = heapNodes[heapSize];
+        int i = 0;
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= heapSize) {
+                break;
+            }
+            if (child + 1 < heapSize && heapTimes[child + 1] < heapTimes[child]) {
+                child++;
+            }
+            if (time <= heapTimes[child]) {
+                break;
+            }
+            heapTimes[i] = heapTimes[child];
+            heapNodes[i] = heapNodes[child];
+            i = child;
+        }
+        heapTimes[i] = time;
+        heapNodes[i] = node;
+    }
+
+    private void record(double time, List<Double> times, List<Integer> susceptibleCounts,
+                        List<Integer> infectedCounts, List<Integer> recoveredCounts) {
+        times.add(time);
+        susceptibleCounts.add(N - infectedCount - recoveredCount);
+        infectedCounts.add(infectedCount);
+        recoveredCounts.add(recoveredCount);
+    }
+}
@@ -0,0 +1,223 @@
+package main.java.simulation;
+
+import main.java.network.Network;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 感染率τの流行閾値の探索
+ * 「1つのランダムなノードから始めて、累積感染ノード数が N × outbreakFraction に達する確率が
+ * targetProbability となるτ」を臨界点とし、log τ 上の二分法で評価点を選ぶ。
+ * 各評価は累積感染が大規模流行の水準に達した時点で打ち切る（終息すればそこで終わる）ため安価に済む。
+ * 最後に全ての評価点の結果へロジスティック回帰 logit p = a + b log τ を当てはめ、
+ * 臨界点とそのデルタ法による標準誤差を求める
+ */
+public final class ThresholdFinder {
+    private static final double Z_95 = 1.959963984540054;
+
+    private final Network network;
+    private final double recoveryRate;
+    private final double outbreakFraction;
+    private final double targetProbability;
+    private final int runsPerStep;
+    private final int steps;
+
+    /**
+     * @param network ネットワーク
+     * @param recoveryRate 回復率γ
+     * @param outbreakFraction 大規模流行とみなす累積感染ノードの割合
+     * @param targetProbability 臨界点とみなす大規模流行の確率
+     * @param runsPerStep 評価点ごとのシミュレーション回数
+     * @param steps 二分法の反復回数
+     */
+    public ThresholdFinder(Network network, double recoveryRate, double outbreakFraction,
+                           double targetProbability, int runsPerStep, int steps) {
+        if (!(recoveryRate > 0)) {
+            throw new IllegalArgumentException("回復率は正の値である必要があります: " + recoveryRate);
+        }
+        if (!(outbreakFraction > 0 && outbreakFraction <= 1)) {
+            throw new IllegalArgumentException("大規模流行の割合は (0, 1] である必要があります: " + outbreakFraction);
+        }
+        if (!(targetProbability > 0 && targetProbability < 1)) {
+            throw new IllegalArgumentException("目標確率は (0, 1) である必要があります: " + targetProbability);
+        }
+        if (runsPerStep <= 0 || steps < 0) {
+            throw new IllegalArgumentException("評価回数が不正です: runsPerStep=" + runsPerStep + ", steps=" + steps);
+        }
+        this.network = network;
+        this.recoveryRate = recoveryRate;
+        this.outbreakFraction = outbreakFraction;
+        this.targetProbability = targetProbability;
+        this.runsPerStep = runsPerStep;
+        this.steps = steps;
+    }
+
+    /**
+     * 不均一平均場近似（ボンドパーコレーション）による臨界点
+     * 感染確率 T = τ/(τ+γ) が <k>/(<k²>-<k>) となるτ。探索範囲の初期値に使う
+     */
+    public static double meanFieldEstimate(Network network, double recoveryRate) {
+        int n = network.nodeCount();
+        double sum = 0;
+        double sumSquares = 0;
+        for (int i = 0; i < n; i++) {
+            double k = network.degree(i);
+            sum += k;
+            sumSquares += k * k;
+        }
+        if (sumSquares <= 2 * sum) {
+            // 巨大成分ができない（全ての次数が2以下など）ため、臨界点は非常に大きい
+            return Double.POSITIVE_INFINITY;
+        }
+        double transmissibility = sum / (sumSquares - sum);
+        return recoveryRate * transmissibility / (1 - transmissibility);
+    }
+
+    /**
+     * 平均場近似の臨界点の1/4倍〜4倍を探索範囲として臨界点を探索
+     */
+    public Result find(long seed) {
+        double estimate = meanFieldEstimate(network, recoveryRate);
+        if (Double.isInfinite(estimate)) {
+            throw new IllegalArgumentException("平均場近似で臨界点が定まりません。探索範囲を指定してください");
+        }
+        return find(estimate / 4, estimate * 4, seed);
+    }
+
+    /**
+     * 探索範囲 [low, high] で臨界点を探索
+     * @param low 大規模流行の確率が目標を下回るτ
+     * @param high 大規模流行の確率が目標を上回るτ
+     * @param seed 乱数シード
+     */
+    public Result find(double low, double high, long seed) {
+        if (!(low > 0 && high > low)) {
+            throw new IllegalArgumentException("探索範囲が不正です: [" + low + ", " + high + "]");
+        }
+        SplitMixRandom master = new SplitMixRandom(seed);
+        List<double[]> points = new ArrayList<>(); // {log τ, 大規模流行の回数}
+
+        double lowProbability = evaluate(low, master, points);
+        double highProbability = evaluate(high, master, points);
+        if (lowProbability > targetProbability || highProbability < targetProbability) {
+            throw new IllegalArgumentException(String.format(
+                "探索範囲に臨界点が含まれません: p(%.4g)=%.3f, p(%.4g)=%.3f, 目標=%.3f",
+                low, lowProbability, high, highProbability, targetProbability));
+        }
+
+        for (int step = 0; step < steps; step++) {
+            double middle = Math.sqrt(low * high);
+            if (evaluate(middle, master, points) < targetProbability) {
+                low = middle;
+            } else {
+                high = middle;
+            }
+        }
+
+        long simulations = (long) points.size() * runsPerStep;
+        double[] fit = fitLogistic(points);
+        if (fit == null) {
+            // 確率が0と1に完全に分かれるなど、回帰が定まらない場合は二分法の区間を返す
+            double center = Math.sqrt(low * high);
+            return new Result(center, (high - low) / 2, low, high, simulations, false);
+        }
+        return new Result(Math.exp(fit[0]), Math.exp(fit[0]) * fit[1],
+            Math.exp(fit[0] - Z_95 * fit[1]), Math.exp(fit[0] + Z_95 * fit[1]), simulations, true);
+    }
+
+    /**
+     * τで runsPerStep 回実行し、大規模流行の割合を返す
+     */
+    private double evaluate(double transmissionRate, SplitMixRandom master, List<double[]> points) {
+        SARSimulator simulator = new SARSimulator(network, transmissionRate, recoveryRate);
+        int n = network.nodeCount();
+        int level = Math.max(1, (int) Math.ceil(outbreakFraction * n));
+        int outbreaks = 0;
+        for (int run = 0; run < runsPerStep; run++) {
+            SplitMixRandom random = new SplitMixRandom(master.nextLong());
+            int[] seed = {random.nextInt(n)};
+            if (simulator.runUntilCumulative(seed, level, Double.POSITIVE_INFINITY, random) != null) {
+                outbreaks++;
+            }
+        }
+        points.add(new double[]{Math.log(transmissionRate), outbreaks});
+        return (double) outbreaks / runsPerStep;
+    }
+
+    /**
+     * ロジスティック回帰（Newton法）から log τ_c とその標準誤差を求める
+     * @return {log τ_c, 標準誤差}。回帰が収束しない、または傾きが正でなければnull
+     */
+    private double[] fitLogistic(List<double[]> points) {
+        double target = Math.log(targetProbability / (1 - targetProbability));
+        double a = target;
+        double b = 0;
+        double[] inverse = null;
+        for (int iteration = 0; iteration < 100; iteration++) {
+            // 勾配とFisher情報行列
+            double g0 = 0, g1 = 0, h00 = 0, h01 = 0, h11 = 0;
+            for (double[] point : points) {
+                double x = point[0];
+                double p = 1 / (1 + Math.exp(-(a + b * x)));
+                double w = runsPerStep * p * (1 - p);
+                double residual = point[1] - runsPerStep * p;
+                g0 += residual;
+                g1 += residual * x;
+                h00 += w;
+                h01 += w * x;
+                h11 += w * x * x;
+            }
+            double determinant = h00 * h11 - h01 * h01;
+            if (!(determinant > 0)) {
+                return null;
+            }
+            inverse = new double[]{h11 / determinant, -h01 / determinant, h00 / determinant};
+            double da = inverse[0] * g0 + inverse[1] * g1;
+            double db = inverse[1] * g0 + inverse[2] * g1;
+            a += da;
+            b += db;
+            if (!Double.isFinite(a) || !Double.isFinite(b)) {
+                return null;
+            }
+            if (Math.abs(da) + Math.abs(db) < 1e-10) {
+                if (!(b > 0)) {
+                    return null;
+                }
+                double x = (target - a) / b;
+                // デルタ法: x = (target - a) / b の勾配は (-1/b, -x/b)
+                double variance = (inverse[0] + 2 * x * inverse[1] + x * x * inverse[2]) / (b * b);
+                return new double[]{x, Math.sqrt(variance)};
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 探索結果
+     */
+    public static final class Result {
+        public final double criticalRate;   // 臨界点 τ_c
+        public final double standardError;  // τ_c の標準誤差
+        public final double lower;          // 95%信頼区間の下限
+        public final double upper;          // 95%信頼区間の上限
+        public final long simulations;      // 実行したシミュレーションの回数
+        public final boolean fitted;        // ロジスティック回帰によるか（falseなら二分法の区間）
+
+        Result(double criticalRate, double standardError, double lower, double upper,
+               long simulations, boolean fitted) {
+            this.criticalRate = criticalRate;
+            this.standardError = standardError;
+            this.lower = lower;
+            this.upper = upper;
+            this.simulations = simulations;
+            this.fitted = fitted;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("τ_c=%.4g ± %.2g (95%%CI: %.4g - %.4g, シミュレーション回数=%d)",
+                criticalRate, standardError, lower, upper, simulations);
+        }
+    }
+}
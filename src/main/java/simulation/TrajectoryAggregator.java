@@ -0,0 +1,125 @@
+package main.java.simulation;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 実行ごとの感染ノード数の推移を共通の時刻グリッドに写し、グリッド点ごとに逐次集計する
+ * 各グリッド点では平均・分散（Welfordの方法）と分位点（P²アルゴリズム）のみを保持するため、
+ * メモリは実行回数によらず O(グリッド点数 × 分位点数) で、実行ごとのイベント列は保持しない
+ */
+public final class TrajectoryAggregator {
+    private final double[] grid;
+    private final double[] quantiles;
+    private final OnlineStatistics[] statistics;
+    private final P2Quantile[][] sketches;  // [グリッド点][分位点]
+    private long runs;
+
+    /**
+     * @param maxTime グリッドの最後の時刻
+     * @param points グリッド点の数（0からmaxTimeまで等間隔、2以上）
+     * @param quantiles 推定する分位点（例: 0.05, 0.5, 0.95）
+     */
+    public TrajectoryAggregator(double maxTime, int points, double... quantiles) {
+        if (!(maxTime > 0) || points < 2) {
+            throw new IllegalArgumentException("グリッドの設定が不正です: maxTime=" + maxTime + ", points=" + points);
+        }
+        this.grid = new double[points];
+        for (int g = 0; g < points; g++) {
+            grid[g] = maxTime * g / (points - 1);
+        }
+        this.quantiles = quantiles.clone();
+        this.statistics = new OnlineStatistics[points];
+        this.sketches = new P2Quantile[points][quantiles.length];
+        for (int g = 0; g < points; g++) {
+            statistics[g] = new OnlineStatistics();
+            for (int q = 0; q < quantiles.length; q++) {
+                sketches[g][q] = new P2Quantile(quantiles[q]);
+            }
+        }
+    }
+
+    /**
+     * 1回の実行の感染ノード数を加える
+     * 記録は状態が変わった時刻のみなので、各グリッド点ではその時刻以前の最後の記録の値を使う
+     * （実行が maxTime より前に終わった場合は最後の値が続くとみなす）
+     */
+    public void add(SARSimulator.SimulationResult result) {
+        add(result.times, result.infectedCounts);
+    }
+
+    /**
+     * 1回の実行の値の推移を加える
+     * @param times 記録時刻（昇順）
+     * @param values 各時刻の値
+     */
+    public void add(List<Double> times, List<? extends Number> values) {
+        if (times.size() != values.size() || times.isEmpty()) {
+            throw new IllegalArgumentException("時刻と値の数が不正です: " + times.size() + " と " + values.size());
+        }
+        int index = 0;
+        for (int g = 0; g < grid.length; g++) {
+            while (index + 1 < times.size() && times.get(index + 1) <= grid[g]) {
+                index++;
+            }
+            double value = values.get(index).doubleValue();
+            statistics[g].add(value);
+            for (P2Quantile sketch : sketches[g]) {
+                sketch.add(value);
+            }
+        }
+        runs++;
+    }
+
+    public long runs() {
+        return runs;
+    }
+
+    public double[] grid() {
+        return grid.clone();
+    }
+
+    public double mean(int point) {
+        return statistics[point].mean();
+    }
+
+    public double standardDeviation(int point) {
+        return statistics[point].standardDeviation();
+    }
+
+    /**
+     * グリッド点 point での q 番目の分位点の推定値
+     */
+    public double quantile(int point, int q) {
+        return sketches[point][q].value();
+    }
+
+    /**
+     * JSON書き出し用の帯（時刻・平均・標準偏差・分位点）
+     */
+    public Map<String, Object> toMap() {
+        double[] mean = new double[grid.length];
+        double[] standardDeviation = new double[grid.length];
+        for (int g = 0; g < grid.length; g++) {
+            mean[g] = mean(g);
+            standardDeviation[g] = standardDeviation(g);
+        }
+        Map<String, Object> bands = new LinkedHashMap<>();
+        for (int q = 0; q < quantiles.length; q++) {
+            double[] values = new double[grid.length];
+            for (int g = 0; g < grid.length; g++) {
+                values[g] = quantile(g, q);
+            }
+            bands.put(String.valueOf(quantiles[q]), values);
+        }
+
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("runs", runs);
+        map.put("times", grid.clone());
+        map.put("mean_infected", mean);
+        map.put("std_infected", standardDeviation);
+        map.put("quantiles_infected", bands);
+        return map;
+    }
+}
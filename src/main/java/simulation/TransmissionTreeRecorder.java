@@ -0,0 +1,451 @@
+package main.java.simulation;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+
+/**
+ * 感染経路（伝播木）の記録
+ * 1回の実行の (感染ノード, 感染源, 時刻) をプリミティブ配列に溜め、実行の終わりにバイナリファイルへ追記する。
+ * 同時に世代の分布・子の数（二次感染数）の分布・感染時刻ごとの実効再生産数 R_eff を集計する。
+ * R_eff は感染時刻の区間ごとに、その区間で感染したノードの子の数の平均（最大時間で打ち切られた分は含まない）
+ *
+ * <pre>
+ * バイナリ形式（リトルエンディアン）
+ * ヘッダー（16バイト）
+ *   int  magic     0x53415254 ("SART")
+ *   int  version   形式のバージョン
+ *   int  N         ノード数
+ *   int  reserved  予約（0）
+ * 実行ごとのブロック（ファイル末尾まで繰り返す）
+ *   long runId
+ *   int  count      感染イベント数
+ *   int  reserved   予約（0）
+ *   int[count]    infectees
+ *   int[count]    infectors（初期感染ノードは-1）
+ *   double[count] times
+ *   long checksum   列部のCRC32C
+ * </pre>
+ */
+public final class TransmissionTreeRecorder implements SARSimulator.TransmissionObserver, Closeable {
+    public static final int MAGIC = 0x53415254;
+    public static final int VERSION = 1;
+    public static final int HEADER_BYTES = 16;
+
+    private static final int WRITE_BUFFER_BYTES = 1 << 20;
+    private static final int READ_BUFFER_BYTES = 1 << 20;
+
+    private final int N;
+    private final double binWidth;
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+    private CRC32C columnCrc;          // 列部を書き込み中ならそのCRC（バッファの crcStart 以降が未反映）
+    private int crcStart;
+
+    // 実行中の記録（各ノードは1回の実行で高々1回感染する）
+    private final int[] infectees;
+    private final int[] infectors;
+    private final double[] times;
+    private final int[] generation;   // ノードの世代（初期感染ノードは0）
+    private final int[] offspring;    // ノードが感染させたノード数
+    private int count;
+    private long runId;
+    private boolean running;
+
+    // 全実行の累計
+    private long runs;
+    private long[] generationCounts = new long[16];
+    private long[] offspringCounts = new long[16];
+    private double[] reffSums = new double[16];
+    private long[] reffCounts = new long[16];
+
+    /**
+     * @param N ノード数
+     * @param binWidth R_eff を集計する感染時刻の区間幅
+     * @param path 出力ファイル（nullならファイルに書き出さず集計のみ）
+     */
+    public TransmissionTreeRecorder(int N, double binWidth, Path path) throws IOException {
+        if (N < 0) {
+            throw new IllegalArgumentException("ノード数は0以上である必要があります: " + N);
+        }
+        if (!(binWidth > 0)) {
+            throw new IllegalArgumentException("区間幅は正の値である必要があります: " + binWidth);
+        }
+        this.N = N;
+        this.binWidth = binWidth;
+        this.infectees = new int[N];
+        this.infectors = new int[N];
+        this.times = new double[N];
+        this.generation = new int[N];
+        this.offspring = new int[N];
+
+        if (path == null) {
+            this.channel = null;
+            this.buffer = null;
+            return;
+        }
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE,
+            StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        this.buffer = ByteBuffer.allocateDirect(WRITE_BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(MAGIC);
+        buffer.putInt(VERSION);
+        buffer.putInt(N);
+        buffer.putInt(0);
+    }
+
+    /**
+     * 実行の始まり
+     */
+    public void beginRun(long runId) {
+        if (running) {
+            throw new IllegalStateException("前の実行が終わっていません: " + this.runId);
+        }
+        this.runId = runId;
+        this.count = 0;
+        this.running = true;
+    }
+
+    @Override
+    public void transmitted(int infectee, int infector, double time) {
+        if (!running) {
+            throw new IllegalStateException("beginRun が呼ばれていません");
+        }
+        infectees[count] = infectee;
+        infectors[count] = infector;
+        times[count] = time;
+        count++;
+        generation[infectee] = infector < 0 ? 0 : generation[infector] + 1;
+        offspring[infectee] = 0;
+        if (infector >= 0) {
+            offspring[infector]++;
+        }
+    }
+
+    /**
+     * 実行の終わり。伝播木をファイルに追記し、集計に加える
+     * @return この実行の集計
+     */
+    public RunSummary endRun() throws IOException {
+        if (!running) {
+            throw new IllegalStateException("beginRun が呼ばれていません");
+        }
+        running = false;
+        if (channel != null) {
+            writeRun();
+        }
+
+        int maxGeneration = 0;
+        long totalOffspring = 0;
+        double lastTime = 0;
+        for (int e = 0; e < count; e++) {
+            maxGeneration = Math.max(maxGeneration, generation[infectees[e]]);
+            lastTime = Math.max(lastTime, times[e]);
+        }
+        int[] generations = new int[count > 0 ? maxGeneration + 1 : 0];
+        int bins = (int) (lastTime / binWidth) + 1;
+        double[] reffSum = new double[count > 0 ? bins : 0];
+        int[] reffCount = new int[count > 0 ? bins : 0];
+        for (int e = 0; e < count; e++) {
+            int node = infectees[e];
+            int children = offspring[node];
+            generations[generation[node]]++;
+            totalOffspring += children;
+            int bin = (int) (times[e] / binWidth);
+            reffSum[bin] += children;
+            reffCount[bin]++;
+
+            generationCounts = grow(generationCounts, generation[node]);
+            generationCounts[generation[node]]++;
+            offspringCounts = grow(offspringCounts, children);
+            offspringCounts[children]++;
+            reffSums = grow(reffSums, bin);
+            reffCounts = grow(reffCounts, bin);
+            reffSums[bin] += children;
+            reffCounts[bin]++;
+        }
+        runs++;
+
+        double[] reff = new double[reffSum.length];
+        for (int b = 0; b < reff.length; b++) {
+            reff[b] = reffCount[b] > 0 ? reffSum[b] / reffCount[b] : Double.NaN;
+        }
+        return new RunSummary(runId, count, generations, count > 0 ? (double) totalOffspring / count : 0.0, reff);
+    }
+
+    /**
+     * 実行の記録を書き出す（列はヒープにコピーせず書き出し用バッファへ直接書き込み、CRCは flush のたびに更新する）
+     */
+    private void writeRun() throws IOException {
+        putLong(runId);
+        putInt(count);
+        putInt(0);
+        columnCrc = new CRC32C();
+        crcStart = buffer.position();
+        for (int e = 0; e < count; e++) {
+            putInt(infectees[e]);
+        }
+        for (int e = 0; e < count; e++) {
+            putInt(infectors[e]);
+        }
+        for (int e = 0; e < count; e++) {
+            putDouble(times[e]);
+        }
+        updateCrc();
+        long checksum = columnCrc.getValue();
+        columnCrc = null;
+        putLong(checksum);
+    }
+
+    private void putInt(int value) throws IOException {
+        if (buffer.remaining() < Integer.BYTES) {
+            flush();
+        }
+        buffer.putInt(value);
+    }
+
+    private void putLong(long value) throws IOException {
+        if (buffer.remaining() < Long.BYTES) {
+            flush();
+        }
+        buffer.putLong(value);
+    }
+
+    private void putDouble(double value) throws IOException {
+        if (buffer.remaining() < Double.BYTES) {
+            flush();
+        }
+        buffer.putDouble(value);
+    }
+
+    /**
+     * バッファの crcStart から現在位置までを列部のCRCに反映
+     */
+    private void updateCrc() {
+        if (columnCrc != null) {
+            ByteBuffer pending = buffer.duplicate();
+            pending.limit(buffer.position());
+            pending.position(crcStart);
+            columnCrc.update(pending);
+            crcStart = buffer.position();
+        }
+    }
+
+    private void flush() throws IOException {
+        updateCrc();
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+        crcStart = 0;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (channel != null && channel.isOpen()) {
+            flush();
+            channel.close();
+        }
+    }
+
+    private static long[] grow(long[] array, int index) {
+        return index < array.length ? array : Arrays.copyOf(array, Math.max(index + 1, 2 * array.length));
+    }
+
+    private static double[] grow(double[] array, int index) {
+        return index < array.length ? array : Arrays.copyOf(array, Math.max(index + 1, 2 * array.length));
+    }
+
+    public long runs() {
+        return runs;
+    }
+
+    /**
+     * 全実行の世代ごとの感染ノード数（添字が世代）
+     */
+    public long[] generationDistribution() {
+        return trim(generationCounts);
+    }
+
+    /**
+     * 全実行の子の数ごとのノード数（添字が子の数）
+     */
+    public long[] offspringDistribution() {
+        return trim(offspringCounts);
+    }
+
+    /**
+     * 全実行の感染時刻の区間ごとの実効再生産数（区間 [b × binWidth, (b+1) × binWidth)）
+     */
+    public double[] effectiveReproductionNumber() {
+        int length = trim(reffCounts).length;
+        double[] reff = new double[length];
+        for (int b = 0; b < length; b++) {
+            reff[b] = reffCounts[b] > 0 ? reffSums[b] / reffCounts[b] : Double.NaN;
+        }
+        return reff;
+    }
+
+    /**
+     * 全実行の集計（JSON書き出し用）
+     */
+    public Map<String, Object> summary() {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("runs", runs);
+        summary.put("bin_width", binWidth);
+        summary.put("generation_distribution", generationDistribution());
+        summary.put("offspring_distribution", offspringDistribution());
+        summary.put("effective_reproduction_number", effectiveReproductionNumber());
+        return summary;
+    }
+
+    private static long[] trim(long[] counts) {
+        int length = counts.length;
+        while (length > 0 && counts[length - 1] == 0) {
+            length--;
+        }
+        return Arrays.copyOf(counts, length);
+    }
+
+    /**
+     * 伝播木のファイルを先頭から順に読み込む
+     * @param path 入力ファイル
+     * @param action 実行ごとの伝播木の処理
+     */
+    public static void read(Path path, Consumer<Tree> action) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            ByteBuffer header = readFully(channel, 0, HEADER_BYTES, path);
+            if (header.getInt() != MAGIC) {
+                throw new IOException("伝播木ファイルではありません: " + path);
+            }
+            int version = header.getInt();
+            if (version != VERSION) {
+                throw new IOException("未対応のバージョンです: " + version);
+            }
+            int N = header.getInt();
+
+            long position = HEADER_BYTES;
+            while (position < fileSize) {
+                ByteBuffer blockHeader = readFully(channel, position, 16, path);
+                long runId = blockHeader.getLong();
+                int count = blockHeader.getInt();
+                if (count < 0 || count > N) {
+                    throw new IOException("感染イベント数が不正です: " + count);
+                }
+                long end = position + 16 + 16L * count + Long.BYTES;
+                if (end > fileSize) {
+                    throw new IOException("ファイルが途中で終わっています: " + path);
+                }
+
+                // 列は固定長のバッファで分割して読み込む（16 * count は int の範囲を超えうる）
+                int[] infectees = new int[count];
+                int[] infectors = new int[count];
+                double[] times = new double[count];
+                CRC32C crc = new CRC32C();
+                long columnPosition = readInts(channel, position + 16, infectees, crc, path);
+                columnPosition = readInts(channel, columnPosition, infectors, crc, path);
+                columnPosition = readDoubles(channel, columnPosition, times, crc, path);
+                long checksum = readFully(channel, columnPosition, Long.BYTES, path).getLong();
+                if (crc.getValue() != checksum) {
+                    throw new IOException("チェックサムが一致しません（ファイルが破損しています）: " + path);
+                }
+                action.accept(new Tree(runId, infectees, infectors, times));
+                position = end;
+            }
+        }
+    }
+
+    /**
+     * position から int 列を values に読み込み、CRCを更新する
+     * @return 列の次の位置
+     */
+    private static long readInts(FileChannel channel, long position, int[] values, CRC32C crc, Path path) throws IOException {
+        for (int i = 0; i < values.length; ) {
+            int count = Math.min(values.length - i, READ_BUFFER_BYTES / Integer.BYTES);
+            ByteBuffer chunk = readFully(channel, position, count * Integer.BYTES, path);
+            crc.update(chunk.duplicate());
+            chunk.asIntBuffer().get(values, i, count);
+            i += count;
+            position += (long) count * Integer.BYTES;
+        }
+        return position;
+    }
+
+    /**
+     * position から double 列を values に読み込み、CRCを更新する
+     * @return 列の次の位置
+     */
+    private static long readDoubles(FileChannel channel, long position, double[] values, CRC32C crc, Path path) throws IOException {
+        for (int i = 0; i < values.length; ) {
+            int count = Math.min(values.length - i, READ_BUFFER_BYTES / Double.BYTES);
+            ByteBuffer chunk = readFully(channel, position, count * Double.BYTES, path);
+            crc.update(chunk.duplicate());
+            chunk.asDoubleBuffer().get(values, i, count);
+            i += count;
+            position += (long) count * Double.BYTES;
+        }
+        return position;
+    }
+
+    private static ByteBuffer readFully(FileChannel channel, long position, int length, Path path) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("ファイルが途中で終わっています: " + path);
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    /**
+     * 1回の実行の集計
+     */
+    public static final class RunSummary {
+        public final long runId;
+        public final int infections;           // 感染イベント数（初期感染ノードを含む）
+        public final int[] generations;        // 世代ごとの感染ノード数
+        public final double meanOffspring;     // 感染ノードあたりの子の数の平均
+        public final double[] reff;            // 感染時刻の区間ごとの実効再生産数
+
+        RunSummary(long runId, int infections, int[] generations, double meanOffspring, double[] reff) {
+            this.runId = runId;
+            this.infections = infections;
+            this.generations = generations;
+            this.meanOffspring = meanOffspring;
+            this.reff = reff;
+        }
+    }
+
+    /**
+     * ファイルから読み込んだ1回の実行の伝播木
+     */
+    public static final class Tree {
+        public final long runId;
+        public final int[] infectees;
+        public final int[] infectors;  // 初期感染ノードは-1
+        public final double[] times;
+
+        Tree(long runId, int[] infectees, int[] infectors, double[] times) {
+            this.runId = runId;
+            this.infectees = infectees;
+            this.infectors = infectors;
+            this.times = times;
+        }
+    }
+}
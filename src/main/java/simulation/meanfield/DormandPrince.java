@@ -0,0 +1,123 @@
+package main.java.simulation.meanfield;
+
+/**
+ * 適応刻み幅のRunge-Kutta法（Dormand-Prince 5(4)、RK45）
+ * 5次の解で進め、4次の解との差で局所誤差を見積もって刻み幅を調整する
+ */
+public final class DormandPrince {
+    private static final double C2 = 1.0 / 5, C3 = 3.0 / 10, C4 = 4.0 / 5, C5 = 8.0 / 9;
+    private static final double A21 = 1.0 / 5;
+    private static final double A31 = 3.0 / 40, A32 = 9.0 / 40;
+    private static final double A41 = 44.0 / 45, A42 = -56.0 / 15, A43 = 32.0 / 9;
+    private static final double A51 = 19372.0 / 6561, A52 = -25360.0 / 2187, A53 = 64448.0 / 6561, A54 = -212.0 / 729;
+    private static final double A61 = 9017.0 / 3168, A62 = -355.0 / 33, A63 = 46732.0 / 5247, A64 = 49.0 / 176,
+        A65 = -5103.0 / 18656;
+    private static final double B1 = 35.0 / 384, B3 = 500.0 / 1113, B4 = 125.0 / 192, B5 = -2187.0 / 6784, B6 = 11.0 / 84;
+    // 5次と4次の重みの差（誤差の見積もり）
+    private static final double E1 = 71.0 / 57600, E3 = -71.0 / 16695, E4 = 71.0 / 1920, E5 = -17253.0 / 339200,
+        E6 = 22.0 / 525, E7 = -1.0 / 40;
+
+    private final double relativeTolerance;
+    private final double absoluteTolerance;
+    private long steps;
+
+    /**
+     * 刻みごとの時刻と解を受け取る
+     */
+    public interface Observer {
+        void observe(double t, double[] y);
+    }
+
+    public DormandPrince(double relativeTolerance, double absoluteTolerance) {
+        if (!(relativeTolerance > 0) || !(absoluteTolerance > 0)) {
+            throw new IllegalArgumentException("許容誤差は正の値である必要があります: "
+                + relativeTolerance + ", " + absoluteTolerance);
+        }
+        this.relativeTolerance = relativeTolerance;
+        this.absoluteTolerance = absoluteTolerance;
+    }
+
+    /**
+     * t0 から t1 まで積分する（y は t1 の解で上書きされる）
+     * @param interval 記録間隔（t0 と interval ごとの時刻、および t1 で observer を呼ぶ。刻みはこれらの時刻に合わせる）
+     */
+    public void integrate(OdeSystem system, double[] y, double t0, double t1, double interval, Observer observer) {
+        if (!(interval > 0) || !(t1 >= t0)) {
+            throw new IllegalArgumentException("積分区間または記録間隔が不正です: [" + t0 + ", " + t1 + "], " + interval);
+        }
+        int n = system.dimension();
+        double[] k1 = new double[n], k2 = new double[n], k3 = new double[n], k4 = new double[n];
+        double[] k5 = new double[n], k6 = new double[n], k7 = new double[n];
+        double[] stage = new double[n];
+        double[] next = new double[n];
+
+        double t = t0;
+        system.derivative(t, y, k1);
+        observer.observe(t, y);
+        double h = Math.min(interval, t1 - t0) / 10;
+        long record = 1;
+
+        while (t < t1) {
+            double target = Math.min(t0 + record * interval, t1);
+            double step = Math.min(h, target - t);
+
+            for (int i = 0; i < n; i++) stage[i] = y[i] + step * A21 * k1[i];
+            system.derivative(t + C2 * step, stage, k2);
+            for (int i = 0; i < n; i++) stage[i] = y[i] + step * (A31 * k1[i] + A32 * k2[i]);
+            system.derivative(t + C3 * step, stage, k3);
+            for (int i = 0; i < n; i++) stage[i] = y[i] + step * (A41 * k1[i] + A42 * k2[i] + A43 * k3[i]);
+            system.derivative(t + C4 * step, stage, k4);
+            for (int i = 0; i < n; i++) {
+                stage[i] = y[i] + step * (A51 * k1[i] + A52 * k2[i] + A53 * k3[i] + A54 * k4[i]);
+            }
+            system.derivative(t + C5 * step, stage, k5);
+            for (int i = 0; i < n; i++) {
+                stage[i] = y[i] + step * (A61 * k1[i] + A62 * k2[i] + A63 * k3[i] + A64 * k4[i] + A65 * k5[i]);
+            }
+            system.derivative(t + step, stage, k6);
+            for (int i = 0; i < n; i++) {
+                next[i] = y[i] + step * (B1 * k1[i] + B3 * k3[i] + B4 * k4[i] + B5 * k5[i] + B6 * k6[i]);
+            }
+            system.derivative(t + step, next, k7);
+            steps++;
+
+            // 誤差の二乗平均（成分ごとの許容誤差で正規化）
+            double error = 0;
+            for (int i = 0; i < n; i++) {
+                double e = step * (E1 * k1[i] + E3 * k3[i] + E4 * k4[i] + E5 * k5[i] + E6 * k6[i] + E7 * k7[i]);
+                double scale = absoluteTolerance + relativeTolerance * Math.max(Math.abs(y[i]), Math.abs(next[i]));
+                error += (e / scale) * (e / scale);
+            }
+            error = Math.sqrt(error / n);
+            double factor = error == 0 ? 5.0 : Math.min(5.0, Math.max(0.2, 0.9 * Math.pow(error, -0.2)));
+
+            if (error <= 1.0 || step <= Math.ulp(t) * 16) {
+                // 受理（FSAL: 最後の段の微分を次の刻みの最初の段に使う）
+                t = step == target - t ? target : t + step;
+                System.arraycopy(next, 0, y, 0, n);
+                double[] swap = k1;
+                k1 = k7;
+                k7 = swap;
+                if (t == target) {
+                    observer.observe(t, y);
+                    record++;
+                }
+                // 記録時刻に合わせて縮めた刻みでは刻み幅を更新しない
+                if (step == h) {
+                    h = step * factor;
+                } else {
+                    h = Math.max(h, step * factor);
+                }
+            } else {
+                h = step * factor;
+            }
+        }
+    }
+
+    /**
+     * これまでに評価した刻みの数（棄却したものを含む）
+     */
+    public long steps() {
+        return steps;
+    }
+}
@@ -0,0 +1,327 @@
+package main.java.simulation.meanfield;
+
+import main.java.network.Network;
+import main.java.simulation.SARSimulator;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 平均場近似による決定論的なSARモデルの解
+ * ネットワークからは次数分布のみを取り出し、以下のいずれかの常微分方程式を
+ * 適応刻み幅のRunge-Kutta法（DormandPrince）で解く。パラメータ探索の初期段階で
+ * Gillespie法の代わりに使う高速な近似として、SimulationResultと同じ形で結果を返す。
+ * 初期感染ノードは全ノードから一様に選ばれるとみなす
+ */
+public final class MeanFieldSolver {
+
+    /**
+     * 近似の種類
+     */
+    public enum Model {
+        HETEROGENEOUS_MEAN_FIELD, // 次数クラスごとの不均一平均場近似
+        PAIR_APPROXIMATION,       // ペア近似（平均次数の正則グラフとみなし、三つ組を閉じる）
+        EDGE_BASED                // エッジベースのコンパートメントモデル（Miller-Slim-Volz）
+    }
+
+    private final int N;
+    private final int[] degrees;        // 出現する次数（昇順）
+    private final double[] probability; // 次数 degrees[c] のノードの割合
+    private final double meanDegree;
+    private final DormandPrince integrator;
+
+    public MeanFieldSolver(Network network) {
+        this(network, 1e-8, 1e-10);
+    }
+
+    /**
+     * @param relativeTolerance RK45の相対許容誤差
+     * @param absoluteTolerance RK45の絶対許容誤差
+     */
+    public MeanFieldSolver(Network network, double relativeTolerance, double absoluteTolerance) {
+        this.N = network.nodeCount();
+        if (N == 0) {
+            throw new IllegalArgumentException("ノードのないネットワークは扱えません");
+        }
+        int maxDegree = 0;
+        for (int i = 0; i < N; i++) {
+            maxDegree = Math.max(maxDegree, network.degree(i));
+        }
+        long[] histogram = new long[maxDegree + 1];
+        for (int i = 0; i < N; i++) {
+            histogram[network.degree(i)]++;
+        }
+        int classes = 0;
+        for (long count : histogram) {
+            if (count > 0) {
+                classes++;
+            }
+        }
+        this.degrees = new int[classes];
+        this.probability = new double[classes];
+        double sum = 0;
+        for (int k = 0, c = 0; k <= maxDegree; k++) {
+            if (histogram[k] > 0) {
+                degrees[c] = k;
+                probability[c] = (double) histogram[k] / N;
+                sum += k * probability[c];
+                c++;
+            }
+        }
+        this.meanDegree = sum;
+        this.integrator = new DormandPrince(relativeTolerance, absoluteTolerance);
+    }
+
+    /**
+     * 方程式を解き、記録間隔ごとの状態を SimulationResult の形で返す（人数は N 倍して丸める）
+     * @param model 近似の種類
+     * @param transmissionRate 感染率τ
+     * @param recoveryRate 回復率γ
+     * @param initialInfections 初期感染ノード数
+     * @param maxTime 最大時間
+     * @param recordInterval 記録間隔
+     */
+    public SARSimulator.SimulationResult solve(Model model, double transmissionRate, double recoveryRate,
+                                               int initialInfections, double maxTime, double recordInterval) {
+        if (initialInfections < 0 || initialInfections > N) {
+            throw new IllegalArgumentException("初期感染ノード数が不正です: " + initialInfections);
+        }
+        double rho = (double) initialInfections / N;
+        List<Double> times = new ArrayList<>();
+        List<Integer> susceptibleCounts = new ArrayList<>();
+        List<Integer> infectedCounts = new ArrayList<>();
+        List<Integer> recoveredCounts = new ArrayList<>();
+        double[] sir = new double[3];
+
+        Compartments system = create(model, transmissionRate, recoveryRate, rho);
+        double[] y = system.initialState();
+        integrator.integrate(system, y, 0.0, maxTime, recordInterval, (t, state) -> {
+            system.fractions(state, sir);
+            int susceptible = (int) Math.round(N * sir[0]);
+            int infected = (int) Math.round(N * sir[1]);
+            times.add(t);
+            susceptibleCounts.add(susceptible);
+            infectedCounts.add(infected);
+            recoveredCounts.add(Math.max(0, N - susceptible - infected));
+        });
+        return new SARSimulator.SimulationResult(times, susceptibleCounts, infectedCounts, recoveredCounts);
+    }
+
+    /**
+     * 最終状態の感受性・感染・回復の割合
+     */
+    public double[] finalFractions(Model model, double transmissionRate, double recoveryRate,
+                                   int initialInfections, double maxTime) {
+        Compartments system = create(model, transmissionRate, recoveryRate, (double) initialInfections / N);
+        double[] y = system.initialState();
+        integrator.integrate(system, y, 0.0, maxTime, maxTime > 0 ? maxTime : 1.0, (t, state) -> { });
+        double[] sir = new double[3];
+        system.fractions(y, sir);
+        return sir;
+    }
+
+    public double meanDegree() {
+        return meanDegree;
+    }
+
+    /**
+     * 積分器がこれまでに評価した刻みの数
+     */
+    public long integratorSteps() {
+        return integrator.steps();
+    }
+
+    private Compartments create(Model model, double transmissionRate, double recoveryRate, double rho) {
+        switch (model) {
+            case HETEROGENEOUS_MEAN_FIELD:
+                return new HeterogeneousMeanField(transmissionRate, recoveryRate, rho);
+            case PAIR_APPROXIMATION:
+                return new PairApproximation(transmissionRate, recoveryRate, rho);
+            case EDGE_BASED:
+                return new EdgeBased(transmissionRate, recoveryRate, rho);
+            default:
+                throw new IllegalArgumentException("未知の近似: " + model);
+        }
+    }
+
+    /**
+     * 方程式と、変数から S, I, R の割合への変換
+     */
+    private interface Compartments extends OdeSystem {
+        double[] initialState();
+
+        void fractions(double[] y, double[] sir);
+    }
+
+    /**
+     * 不均一平均場近似
+     * ds_k/dt = -τ k s_k Θ, di_k/dt = τ k s_k Θ - γ i_k, Θ = Σ k P(k) i_k / <k>
+     * 変数は次数クラスごとの (s_k, i_k)
+     */
+    private final class HeterogeneousMeanField implements Compartments {
+        private final double tau;
+        private final double gamma;
+        private final double rho;
+
+        HeterogeneousMeanField(double tau, double gamma, double rho) {
+            this.tau = tau;
+            this.gamma = gamma;
+            this.rho = rho;
+        }
+
+        @Override
+        public int dimension() {
+            return 2 * degrees.length;
+        }
+
+        @Override
+        public double[] initialState() {
+            double[] y = new double[dimension()];
+            for (int c = 0; c < degrees.length; c++) {
+                y[2 * c] = 1 - rho;
+                y[2 * c + 1] = rho;
+            }
+            return y;
+        }
+
+        @Override
+        public void derivative(double t, double[] y, double[] dydt) {
+            double theta = 0;
+            for (int c = 0; c < degrees.length; c++) {
+                theta += degrees[c] * probability[c] * y[2 * c + 1];
+            }
+            theta = meanDegree > 0 ? theta / meanDegree : 0;
+            for (int c = 0; c < degrees.length; c++) {
+                double infection = tau * degrees[c] * y[2 * c] * theta;
+                dydt[2 * c] = -infection;
+                dydt[2 * c + 1] = infection - gamma * y[2 * c + 1];
+            }
+        }
+
+        @Override
+        public void fractions(double[] y, double[] sir) {
+            double s = 0;
+            double i = 0;
+            for (int c = 0; c < degrees.length; c++) {
+                s += probability[c] * y[2 * c];
+                i += probability[c] * y[2 * c + 1];
+            }
+            sir[0] = s;
+            sir[1] = i;
+            sir[2] = 1 - s - i;
+        }
+    }
+
+    /**
+     * ペア近似（Keeling 1999、クラスタ係数0）
+     * 変数は [S], [I], [SS], [SI], [II]（ノード数あたり、ペアは両方向に数える）。
+     * 三つ組は [XSY] = ((n-1)/n) [XS][SY] / [S]（n = 平均次数）で閉じる
+     */
+    private final class PairApproximation implements Compartments {
+        private final double tau;
+        private final double gamma;
+        private final double rho;
+        private final double closure;
+
+        PairApproximation(double tau, double gamma, double rho) {
+            this.tau = tau;
+            this.gamma = gamma;
+            this.rho = rho;
+            this.closure = meanDegree > 0 ? (meanDegree - 1) / meanDegree : 0;
+        }
+
+        @Override
+        public int dimension() {
+            return 5;
+        }
+
+        @Override
+        public double[] initialState() {
+            // 初期感染ノードが一様に選ばれたときのペアの期待値
+            return new double[]{1 - rho, rho, meanDegree * (1 - rho) * (1 - rho),
+                meanDegree * rho * (1 - rho), meanDegree * rho * rho};
+        }
+
+        @Override
+        public void derivative(double t, double[] y, double[] dydt) {
+            double s = y[0], i = y[1], ss = y[2], si = y[3], ii = y[4];
+            double ssi = s > 0 ? closure * ss * si / s : 0;
+            double isi = s > 0 ? closure * si * si / s : 0;
+            dydt[0] = -tau * si;
+            dydt[1] = tau * si - gamma * i;
+            dydt[2] = -2 * tau * ssi;
+            dydt[3] = tau * (ssi - isi - si) - gamma * si;
+            dydt[4] = 2 * tau * (isi + si) - 2 * gamma * ii;
+        }
+
+        @Override
+        public void fractions(double[] y, double[] sir) {
+            sir[0] = y[0];
+            sir[1] = y[1];
+            sir[2] = 1 - y[0] - y[1];
+        }
+    }
+
+    /**
+     * エッジベースのコンパートメントモデル（Miller-Slim-Volz）
+     * θ はランダムなエッジでまだ感染が伝わっていない確率。ψ(x) = Σ P(k) x^k として
+     * dθ/dt = -τθ + τ(1-ρ)ψ'(θ)/ψ'(1) + γ(1-θ), S = (1-ρ)ψ(θ), dR/dt = γ I
+     * 変数は (θ, R)
+     */
+    private final class EdgeBased implements Compartments {
+        private final double tau;
+        private final double gamma;
+        private final double rho;
+
+        EdgeBased(double tau, double gamma, double rho) {
+            this.tau = tau;
+            this.gamma = gamma;
+            this.rho = rho;
+        }
+
+        @Override
+        public int dimension() {
+            return 2;
+        }
+
+        @Override
+        public double[] initialState() {
+            return new double[]{1.0, 0.0};
+        }
+
+        @Override
+        public void derivative(double t, double[] y, double[] dydt) {
+            double theta = y[0];
+            double susceptible = (1 - rho) * psi(theta);
+            double susceptibleEdges = meanDegree > 0 ? (1 - rho) * psiPrime(theta) / meanDegree : 0;
+            dydt[0] = -tau * theta + tau * susceptibleEdges + gamma * (1 - theta);
+            dydt[1] = gamma * (1 - susceptible - y[1]);
+        }
+
+        @Override
+        public void fractions(double[] y, double[] sir) {
+            double susceptible = (1 - rho) * psi(y[0]);
+            sir[0] = susceptible;
+            sir[1] = 1 - susceptible - y[1];
+            sir[2] = y[1];
+        }
+
+        private double psi(double x) {
+            double value = 0;
+            for (int c = 0; c < degrees.length; c++) {
+                value += probability[c] * Math.pow(x, degrees[c]);
+            }
+            return value;
+        }
+
+        private double psiPrime(double x) {
+            double value = 0;
+            for (int c = 0; c < degrees.length; c++) {
+                if (degrees[c] > 0) {
+                    value += probability[c] * degrees[c] * Math.pow(x, degrees[c] - 1);
+                }
+            }
+            return value;
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package main.java.simulation.meanfield;
+
+/**
+ * 常微分方程式系 dy/dt = f(t, y)
+ */
+public interface OdeSystem {
+
+    /**
+     * 変数の数
+     */
+    int dimension();
+
+    /**
+     * 右辺 f(t, y) を dydt に書き込む
+     */
+    void derivative(double t, double[] y, double[] dydt);
+}
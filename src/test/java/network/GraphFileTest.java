@@ -0,0 +1,177 @@
+package network;
+
+import main.java.network.CompressedGraph;
+import main.java.network.Graph;
+import main.java.network.io.EdgeListImporter;
+import main.java.network.io.GraphFile;
+import main.java.network.io.MappedGraph;
+import main.java.network.topology.BA;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * GraphFile（バイナリ形式の書き出し・メモリマップ読み込み）とEdgeListImporterのテスト
+ */
+public class GraphFileTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("書き出したグラフをマップして同じ隣接関係が得られる")
+    public void testRoundTrip() throws IOException {
+        Graph graph = BA.generateBA(200, 5, 3, 7L);
+        Path file = tempDir.resolve("graphs/ba.sarg");
+
+        GraphFile.write(graph, file);
+        MappedGraph mapped = GraphFile.load(file);
+
+        assertEquals(graph.N, mapped.nodeCount());
+        assertEquals(graph.edgeList.length, mapped.edgeSlotCount());
+        for (int i = 0; i < graph.N; i++) {
+            assertEquals(graph.cursorList[i] - graph.addressList[i], mapped.degree(i));
+            for (int j = 0; j < mapped.degree(i); j++) {
+                assertEquals(graph.edgeList[graph.addressList[i] + j], mapped.neighbor(i, j));
+            }
+        }
+
+        Graph copy = mapped.toGraph();
+        assertArrayEquals(graph.edgeList, copy.edgeList);
+    }
+
+    @Test
+    @DisplayName("破損したファイルはチェックサムで検出される")
+    public void testCorruptedFileIsRejected() throws IOException {
+        Graph graph = BA.generateBA(100, 4, 2, 3L);
+        Path file = tempDir.resolve("corrupted.sarg");
+        GraphFile.write(graph, file);
+
+        // 隣接リストの末尾1バイトを書き換える
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+            raf.seek(raf.length() - 1);
+            int value = raf.read();
+            raf.seek(raf.length() - 1);
+            raf.write(value ^ 0xFF);
+        }
+
+        IOException e = assertThrows(IOException.class, () -> GraphFile.load(file));
+        assertTrue(e.getMessage().contains("チェックサム"));
+        assertDoesNotThrow(() -> GraphFile.load(file, false));
+    }
+
+    @Test
+    @DisplayName("圧縮グラフも書き出して読み込むと同じ隣接関係になる")
+    public void testWriteCompressedGraph() throws IOException {
+        Graph graph = BA.generateBA(500, 5, 3, 9L);
+        Path file = tempDir.resolve("compressed.sarg");
+        GraphFile.write(CompressedGraph.of(graph), file);
+
+        NetworkBackendTest.assertSameNetwork(graph.compact(), GraphFile.load(file));
+    }
+
+    @Test
+    @DisplayName("グラフファイル以外は読み込めない")
+    public void testInvalidFile() throws IOException {
+        Path file = tempDir.resolve("invalid.sarg");
+        Files.write(file, new byte[64]);
+        assertThrows(IOException.class, () -> GraphFile.load(file));
+    }
+
+    @Test
+    @DisplayName("キャッシュファイルがなければ生成して保存する")
+    public void testLoadOrCreate() throws IOException {
+        Path file = tempDir.resolve("cache.sarg");
+        MappedGraph first = GraphFile.loadOrCreate(file, () -> BA.generateBA(50, 3, 2, 1L));
+        MappedGraph second = GraphFile.loadOrCreate(file, () -> {
+            throw new AssertionError("キャッシュがあれば生成しない");
+        });
+        assertEquals(first.edgeSlotCount(), second.edgeSlotCount());
+    }
+
+    @Test
+    @DisplayName("破損したキャッシュファイルは生成し直し、一時ファイルを残さない")
+    public void testLoadOrCreateCorrupt() throws IOException {
+        Path file = tempDir.resolve("corrupt.sarg");
+        Files.write(file, new byte[64]);
+        MappedGraph graph = GraphFile.loadOrCreate(file, () -> BA.generateBA(50, 3, 2, 1L));
+
+        assertEquals(50, graph.nodeCount());
+        assertEquals(50, GraphFile.load(file).nodeCount());
+        try (Stream<Path> files = Files.list(tempDir)) {
+            assertEquals(1, files.count());
+        }
+    }
+
+    @Test
+    @DisplayName("エッジリストのIDが連続化され、自己ループと重複エッジが除かれる")
+    public void testEdgeListImport() throws IOException {
+        Path file = tempDir.resolve("edges.txt");
+        Files.writeString(file, "# Directed graph\n% comment\n"
+                + "100 7\n7\t100\n100 7 0.5\n\n"
+                + "  42 100\r\n9000000000 42\n42 42\n");
+
+        EdgeListImporter.Result result = EdgeListImporter.load(file, 2);
+        Graph graph = result.graph;
+
+        assertArrayEquals(new long[]{7, 42, 100, 9000000000L}, result.originalIds);
+        assertEquals(3, result.nodeOf(9000000000L));
+        assertEquals(-1, result.nodeOf(8));
+        // 7-100, 42-100, 42-9000000000 の3本
+        assertEquals(6, graph.edgeSlotCount());
+        assertArrayEquals(new int[]{2}, neighbors(graph, 0));
+        assertArrayEquals(new int[]{2, 3}, neighbors(graph, 1));
+        assertArrayEquals(new int[]{0, 1}, neighbors(graph, 2));
+        assertArrayEquals(new int[]{1}, neighbors(graph, 3));
+    }
+
+    @Test
+    @DisplayName("チャンクの大きさやスレッド数によらず同じグラフが得られる")
+    public void testEdgeListImportIsChunkIndependent() throws IOException {
+        Graph graph = BA.generateBA(300, 5, 3, 11L);
+        StringBuilder text = new StringBuilder("# BA\n");
+        for (int i = 0; i < graph.N; i++) {
+            for (int j = graph.addressList[i]; j < graph.cursorList[i]; j++) {
+                text.append(10 * i + 5).append(' ').append(10 * graph.edgeList[j] + 5).append('\n');
+            }
+        }
+        Path file = tempDir.resolve("ba.txt");
+        Files.writeString(file, text);
+
+        Graph reference = EdgeListImporter.load(file, 1, 0).graph;
+        Graph chunked = EdgeListImporter.load(file, 4, 64).graph;
+        assertArrayEquals(reference.edgeList, chunked.edgeList);
+        assertArrayEquals(reference.addressList, chunked.addressList);
+        assertArrayEquals(reference.cursorList, chunked.cursorList);
+
+        // ID 10*i+5 は昇順なので元のノード番号と一致する
+        assertEquals(graph.N, reference.N);
+        for (int i = 0; i < graph.N; i++) {
+            // BAは多重エッジを含み得るため重複を除いて比較する
+            int[] expected = Arrays.stream(neighbors(graph, i)).distinct().sorted().toArray();
+            assertArrayEquals(expected, neighbors(reference, i));
+        }
+    }
+
+    @Test
+    @DisplayName("不正な行を含むエッジリストはIOExceptionになる")
+    public void testMalformedEdgeList() throws IOException {
+        Path file = tempDir.resolve("bad.txt");
+        Files.writeString(file, "1 2\n3 x\n");
+        IOException e = assertThrows(IOException.class, () -> EdgeListImporter.load(file, 1));
+        assertTrue(e.getMessage().contains("バイト位置 4"));
+    }
+
+    private static int[] neighbors(Graph graph, int node) {
+        return Arrays.copyOfRange(graph.edgeList, graph.addressList[node], graph.cursorList[node]);
+    }
+}
@@ -0,0 +1,165 @@
+package network;
+
+import main.java.network.CSRBuilder;
+import main.java.network.EdgeBuffer;
+import main.java.network.Graph;
+import main.java.network.RelabeledGraph;
+import main.java.network.analysis.ComponentIndex;
+import main.java.network.analysis.GraphStatistics;
+import main.java.network.topology.ER;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * GraphStatistics（次数分布・連結成分・k-コア・クラスタ係数）とComponentIndexのテスト
+ */
+public class GraphStatisticsTest {
+
+    @Test
+    @DisplayName("小さなグラフで各統計量が手計算と一致する")
+    public void testSmallGraph() {
+        // 成分0: 4-クリーク {0,1,2,3} と 3-4 のペンダント
+        // 成分1: パス 5-6-7
+        // 成分2: 孤立ノード 8
+        Graph graph = graph(9, 0, 1, 0, 2, 0, 3, 1, 2, 1, 3, 2, 3, 3, 4, 5, 6, 6, 7);
+        GraphStatistics stats = GraphStatistics.compute(graph, 2);
+
+        assertEquals(9, stats.nodeCount);
+        assertEquals(9, stats.edgeCount);
+        assertEquals(0, stats.minDegree);
+        assertEquals(4, stats.maxDegree);
+        assertArrayEquals(new long[]{1, 3, 1, 3, 1}, stats.degreeHistogram);
+
+        assertEquals(3, stats.componentCount);
+        assertEquals(5, stats.largestComponentSize);
+        assertArrayEquals(new int[]{0, 0, 0, 0, 0, 1, 1, 1, 2}, stats.componentOf);
+        assertArrayEquals(new int[]{5, 3, 1}, stats.componentSizes);
+
+        assertArrayEquals(new int[]{3, 3, 3, 3, 1, 1, 1, 1, 0}, stats.coreNumber);
+        assertEquals(3, stats.degeneracy);
+
+        assertEquals(4, stats.triangleCount);
+        // ノード0-2: 1, ノード3: 3/6, ノード6: 0
+        assertEquals((3 * 1.0 + 0.5) / 9, stats.averageClustering, 1e-12);
+        // 3 × 4 / (3 × 3 + 6 + 1)
+        assertEquals(12.0 / 16, stats.transitivity, 1e-12);
+    }
+
+    @Test
+    @DisplayName("並列計算の結果がスレッド数に依存せず、逐次計算と一致する")
+    public void testMatchesSequentialReference() {
+        Graph graph = ER.generateER(2000, 0.002, 5L);
+        GraphStatistics single = GraphStatistics.compute(graph, 1);
+        GraphStatistics parallel = GraphStatistics.compute(graph, 4);
+
+        assertArrayEquals(single.componentOf, parallel.componentOf);
+        assertArrayEquals(single.coreNumber, parallel.coreNumber);
+        assertArrayEquals(single.degreeHistogram, parallel.degreeHistogram);
+        assertEquals(single.averageClustering, parallel.averageClustering);
+        assertEquals(single.triangleCount, parallel.triangleCount);
+
+        // 幅優先探索による成分番号
+        int[] component = new int[graph.N];
+        Arrays.fill(component, -1);
+        int count = 0;
+        for (int root = 0; root < graph.N; root++) {
+            if (component[root] != -1) {
+                continue;
+            }
+            ArrayDeque<Integer> queue = new ArrayDeque<>();
+            component[root] = count;
+            queue.add(root);
+            while (!queue.isEmpty()) {
+                int node = queue.poll();
+                for (int j = graph.addressList[node]; j < graph.cursorList[node]; j++) {
+                    if (component[graph.edgeList[j]] == -1) {
+                        component[graph.edgeList[j]] = count;
+                        queue.add(graph.edgeList[j]);
+                    }
+                }
+            }
+            count++;
+        }
+        assertArrayEquals(component, parallel.componentOf);
+
+        // k-コアの定義: コア数k以上のノードが誘導する部分グラフでは各ノードの次数がk以上
+        for (int k = 1; k <= parallel.degeneracy; k++) {
+            for (int i = 0; i < graph.N; i++) {
+                if (parallel.coreNumber[i] < k) {
+                    continue;
+                }
+                int inCore = 0;
+                for (int j = graph.addressList[i]; j < graph.cursorList[i]; j++) {
+                    if (parallel.coreNumber[graph.edgeList[j]] >= k) {
+                        inCore++;
+                    }
+                }
+                assertTrue(inCore >= k, "ノード" + i + "は" + k + "-コアの条件を満たしません");
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("統計量がグラフに対してキャッシュされる")
+    public void testStatisticsAreCached() {
+        Graph graph = ER.generateER(300, 0.02, 9L);
+        GraphStatistics stats = graph.statistics();
+        assertSame(stats, graph.statistics());
+        assertEquals(graph.N, stats.toMap().get("node_count"));
+    }
+
+    @Test
+    @DisplayName("巨大連結成分から重複なく初期感染ノードが選ばれる")
+    public void testSampleGiant() {
+        // 疎なERグラフは多数の小さな成分を持つ
+        Graph graph = ER.generateER(3000, 1.5 / 3000, 3L);
+        ComponentIndex index = graph.componentIndex();
+        assertSame(index, graph.componentIndex());
+        assertTrue(index.giantSize() < graph.N);
+        assertEquals(index.giantSize(), graph.statistics().largestComponentSize);
+
+        int[] seeds = index.sampleGiant(index.giantSize() / 2, new Random(1));
+        assertEquals(seeds.length, Arrays.stream(seeds).distinct().count());
+        for (int seed : seeds) {
+            assertTrue(index.inGiant(seed));
+        }
+        assertEquals(index.giantSize(), index.sampleGiant(index.giantSize(), new Random(2)).length);
+        assertThrows(IllegalArgumentException.class, () -> index.sampleGiant(index.giantSize() + 1, new Random(3)));
+    }
+
+    @Test
+    @DisplayName("巨大連結成分の部分グラフが元のグラフの誘導部分グラフと一致する")
+    public void testExtractGiant() {
+        Graph graph = ER.generateER(3000, 1.5 / 3000, 4L);
+        ComponentIndex index = graph.componentIndex();
+        RelabeledGraph giant = index.extractGiant(graph);
+
+        assertEquals(index.giantSize(), giant.graph.N);
+        assertArrayEquals(index.giantNodes(), giant.toOriginal);
+        assertEquals(1, giant.graph.componentIndex().componentCount());
+        for (int i = 0; i < graph.N; i++) {
+            assertEquals(index.inGiant(i), giant.toRelabeled[i] >= 0);
+        }
+        for (int i = 0; i < giant.graph.N; i++) {
+            int original = giant.toOriginal[i];
+            assertEquals(graph.degree(original), giant.graph.degree(i));
+            for (int j = 0; j < giant.graph.degree(i); j++) {
+                assertEquals(graph.neighbor(original, j), giant.toOriginal[giant.graph.neighbor(i, j)]);
+            }
+        }
+    }
+
+    private static Graph graph(int N, int... endpoints) {
+        EdgeBuffer buffer = new EdgeBuffer();
+        for (int e = 0; e < endpoints.length; e += 2) {
+            buffer.add(endpoints[e], endpoints[e + 1]);
+        }
+        return CSRBuilder.build(N, new EdgeBuffer[]{buffer}, 1);
+    }
+}
@@ -0,0 +1,268 @@
+package network;
+
+import main.java.network.CompactGraph;
+import main.java.network.CompressedGraph;
+import main.java.network.Graph;
+import main.java.network.GraphReordering;
+import main.java.network.Network;
+import main.java.network.OffHeapGraph;
+import main.java.network.RelabeledGraph;
+import main.java.network.implicit.CompleteNetwork;
+import main.java.network.implicit.PeriodicLattice;
+import main.java.network.topology.BA;
+import main.java.network.topology.ER;
+import main.java.network.topology.RR;
+import main.java.simulation.SARSimulator;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Networkインターフェースの各実装（グラフの内部表現）のテスト
+ */
+public class NetworkBackendTest {
+
+    @Test
+    @DisplayName("ヒープ外グラフはコピー元と同じ隣接関係を持つ")
+    public void testOffHeapCopy() {
+        Graph graph = BA.generateBA(300, 5, 3, 5L);
+        OffHeapGraph offHeap = OffHeapGraph.copyOf(graph);
+
+        assertSameNetwork(graph, offHeap);
+        assertEquals(graph.edgeList.length, offHeap.edgeSlotCount());
+        assertArrayEquals(graph.edgeList, offHeap.toGraph().edgeList);
+    }
+
+    @Test
+    @DisplayName("ヒープ外ERグラフの隣接関係は対称")
+    public void testOffHeapER() {
+        OffHeapGraph graph = ER.generateEROffHeap(500, 0.02, 9L);
+        assertEquals(500, graph.nodeCount());
+        assertTrue(graph.edgeSlotCount() > 0);
+        for (int i = 0; i < graph.nodeCount(); i++) {
+            for (int j = 0; j < graph.degree(i); j++) {
+                int neighbor = graph.neighbor(i, j);
+                assertNotEquals(i, neighbor, "自己ループがあります");
+                assertTrue(contains(graph, neighbor, i), "隣接関係が非対称です: " + i + " - " + neighbor);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("int配列に収まらないサイズは生成前に拒否される")
+    public void testIntOverflowIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> RR.generateRR(1_500_000_000, 2));
+        assertThrows(IllegalArgumentException.class, () -> BA.generateBA(Integer.MAX_VALUE, 3, 2));
+    }
+
+    @Test
+    @DisplayName("周期格子の隣接ノードは座標計算で得られ、対称である")
+    public void testPeriodicLattice() {
+        PeriodicLattice square = PeriodicLattice.square(5);
+        assertEquals(25, square.nodeCount());
+        assertEquals(100, square.edgeSlotCount());
+        // ノード0 (x=0, y=0) の隣接ノード: x+1, x-1(周期), y+1, y-1(周期)
+        assertEquals(1, square.neighbor(0, 0));
+        assertEquals(4, square.neighbor(0, 1));
+        assertEquals(5, square.neighbor(0, 2));
+        assertEquals(20, square.neighbor(0, 3));
+
+        PeriodicLattice cubic = PeriodicLattice.cubic(4);
+        assertEquals(64, cubic.nodeCount());
+        for (Network lattice : new Network[]{square, cubic}) {
+            for (int i = 0; i < lattice.nodeCount(); i++) {
+                List<Integer> iterated = new ArrayList<>();
+                lattice.forEachNeighbor(i, iterated::add);
+                assertEquals(lattice.degree(i), iterated.size());
+                for (int j = 0; j < lattice.degree(i); j++) {
+                    int neighbor = lattice.neighbor(i, j);
+                    assertEquals(neighbor, (int) iterated.get(j));
+                    assertNotEquals(i, neighbor, "自己ループがあります");
+                    assertTrue(contains(lattice, neighbor, i), "隣接関係が非対称です: " + i + " - " + neighbor);
+                }
+            }
+        }
+
+        assertThrows(IllegalArgumentException.class, () -> PeriodicLattice.square(2));
+        assertThrows(IllegalArgumentException.class, () -> PeriodicLattice.cubic(2000));
+    }
+
+    @Test
+    @DisplayName("完全グラフは自分以外の全ノードと隣接する")
+    public void testCompleteNetwork() {
+        CompleteNetwork complete = new CompleteNetwork(6);
+        // BAの初期完全グラフのみのグラフと同じ隣接関係になる
+        Graph graph = BA.generateBA(6, 6, 0, 1L);
+        assertSameNetwork(graph, complete);
+        assertEquals(30, complete.edgeSlotCount());
+    }
+
+    @Test
+    @DisplayName("暗黙的な格子上でもSARシミュレーションを実行できる")
+    public void testSimulationOnImplicitLattice() {
+        PeriodicLattice lattice = PeriodicLattice.square(1000);
+        SARSimulator simulator = new SARSimulator(lattice, 1.0, 0.5);
+        SARSimulator.SimulationResult result = simulator.runSimulation(Set.of(0, 500_500), 5.0);
+
+        int last = result.times.size() - 1;
+        assertEquals(lattice.nodeCount(), result.susceptibleCounts.get(last)
+                + result.infectedCounts.get(last) + result.recoveredCounts.get(last));
+    }
+
+    @ParameterizedTest(name = "並べ替え方式={0}")
+    @EnumSource(GraphReordering.Order.class)
+    @DisplayName("ノードの付け替えは隣接関係を保ち、対応表で元のIDに戻せる")
+    public void testReordering(GraphReordering.Order order) {
+        Graph graph = BA.generateBA(400, 5, 2, 21L);
+        RelabeledGraph relabeled = GraphReordering.reorder(graph, order);
+
+        assertEquals(graph.N, relabeled.graph.N);
+        for (int i = 0; i < graph.N; i++) {
+            assertEquals(i, relabeled.toOriginal[relabeled.toRelabeled[i]]);
+            int newId = relabeled.toRelabeled[i];
+            assertEquals(graph.degree(i), relabeled.graph.degree(newId));
+            for (int j = 0; j < graph.degree(i); j++) {
+                assertTrue(contains(relabeled.graph, newId, relabeled.toRelabeled[graph.neighbor(i, j)]));
+            }
+        }
+
+        double[] values = new double[graph.N];
+        for (int i = 0; i < graph.N; i++) {
+            values[i] = relabeled.toOriginal[i];
+        }
+        double[] restored = relabeled.toOriginalOrder(values, -1.0);
+        for (int i = 0; i < graph.N; i++) {
+            assertEquals(i, restored[i], 0.0);
+        }
+    }
+
+    @Test
+    @DisplayName("RCM順は番号をばらばらにした格子の帯幅を縮める")
+    public void testRcmReducesBandwidth() {
+        Graph lattice = OffHeapGraph.copyOf(PeriodicLattice.square(20)).toGraph();
+        int[] shuffled = new int[lattice.N];
+        for (int i = 0; i < shuffled.length; i++) {
+            shuffled[i] = i;
+        }
+        Random random = new Random(3);
+        for (int i = shuffled.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = shuffled[i];
+            shuffled[i] = shuffled[j];
+            shuffled[j] = tmp;
+        }
+        Graph scrambled = GraphReordering.relabel(lattice, shuffled).graph;
+
+        Graph rcm = GraphReordering.reorder(scrambled, GraphReordering.Order.RCM).graph;
+        assertTrue(GraphReordering.bandwidth(rcm) < GraphReordering.bandwidth(scrambled) / 2,
+                "RCM後の帯幅: " + GraphReordering.bandwidth(rcm));
+    }
+
+    @Test
+    @DisplayName("次数降順の並べ替えではハブが先頭に来る")
+    public void testDegreeDescendingOrder() {
+        Graph graph = BA.generateBA(300, 5, 2, 4L);
+        Graph sorted = GraphReordering.reorder(graph, GraphReordering.Order.DEGREE_DESCENDING).graph;
+        for (int i = 1; i < sorted.N; i++) {
+            assertTrue(sorted.degree(i - 1) >= sorted.degree(i));
+        }
+    }
+
+    @Test
+    @DisplayName("コンパクト形式は隣接関係を保ち、エッジ判定と共通隣接ノードを正しく計算する")
+    public void testCompactGraph() {
+        Graph graph = ER.generateER(150, 0.08, 17L);
+        CompactGraph compact = graph.compact();
+
+        assertEquals(graph.edgeList.length, compact.edgeSlotCount());
+        int[] common = new int[graph.N];
+        for (int u = 0; u < graph.N; u++) {
+            assertEquals(graph.degree(u), compact.degree(u));
+            for (int j = 1; j < compact.degree(u); j++) {
+                assertTrue(compact.neighbor(u, j - 1) <= compact.neighbor(u, j), "隣接リストがソートされていません");
+            }
+            for (int v = 0; v < graph.N; v++) {
+                assertEquals(contains(graph, u, v), compact.hasEdge(u, v));
+
+                int expected = 0;
+                for (int j = 0; j < graph.degree(u); j++) {
+                    if (contains(graph, v, graph.neighbor(u, j))) {
+                        expected++;
+                    }
+                }
+                assertEquals(expected, compact.intersectionSize(u, v));
+                int count = compact.commonNeighbors(u, v, common);
+                for (int k = 0; k < count; k++) {
+                    assertTrue(contains(graph, u, common[k]) && contains(graph, v, common[k]));
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("次数が大きく異なるノード間の共通隣接ノード（二分探索による交差）")
+    public void testCompactGraphSkewedIntersection() {
+        // BA(m=1)は木であり、初期ノードは次数の大きいハブ、後から追加されたノードは次数1になる
+        CompactGraph star = BA.generateBA(400, 2, 1, 8L).compact();
+        for (int u = 0; u < star.nodeCount(); u++) {
+            for (int v = 0; v < 3; v++) {
+                int expected = 0;
+                for (int j = 0; j < star.degree(u); j++) {
+                    if (star.hasEdge(v, star.neighbor(u, j))) {
+                        expected++;
+                    }
+                }
+                assertEquals(expected, star.intersectionSize(u, v));
+            }
+        }
+        assertEquals(10L, CompactGraph.of(new CompleteNetwork(5)).triangleCount());
+    }
+
+    @Test
+    @DisplayName("圧縮グラフはソート済みの隣接リストを復元し、CSRより小さい")
+    public void testCompressedGraph() {
+        Graph graph = BA.generateBA(2000, 5, 3, 13L);
+        CompressedGraph compressed = CompressedGraph.of(graph);
+
+        assertSameNetwork(graph.compact(), compressed);
+        assertEquals(graph.edgeList.length, compressed.edgeSlotCount());
+        long csrBytes = 4L * (graph.edgeList.length + 2L * graph.N);
+        assertTrue(compressed.memoryBytes() < csrBytes,
+                "圧縮後: " + compressed.memoryBytes() + " バイト, CSR: " + csrBytes + " バイト");
+        assertThrows(IndexOutOfBoundsException.class, () -> compressed.neighbor(0, compressed.degree(0)));
+
+        // 圧縮グラフ上でもシミュレーションを実行できる
+        SARSimulator.SimulationResult result = new SARSimulator(compressed, 0.5, 0.2).runSimulation(Set.of(0), 10.0);
+        assertFalse(result.times.isEmpty());
+    }
+
+    static void assertSameNetwork(Network expected, Network actual) {
+        assertEquals(expected.nodeCount(), actual.nodeCount());
+        for (int i = 0; i < expected.nodeCount(); i++) {
+            assertEquals(expected.degree(i), actual.degree(i), "ノード " + i + " の次数が一致しません");
+            List<Integer> iterated = new ArrayList<>();
+            actual.forEachNeighbor(i, iterated::add);
+            for (int j = 0; j < expected.degree(i); j++) {
+                assertEquals(expected.neighbor(i, j), actual.neighbor(i, j));
+                assertEquals(expected.neighbor(i, j), (int) iterated.get(j));
+            }
+        }
+    }
+
+    static boolean contains(Network network, int node, int target) {
+        for (int j = 0; j < network.degree(node); j++) {
+            if (network.neighbor(node, j) == target) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
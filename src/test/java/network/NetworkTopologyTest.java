@@ -173,4 +173,59 @@ public class NetworkTopologyTest {
         assertEquals(20, erGraph.N);
         assertEquals(20, baGraph.N);
     }
+
+    @DisplayName("並列生成がスレッド数に依存しないことのテスト")
+    @ParameterizedTest(name = "スレッド数={0}")
+    @CsvSource({
+        "2",
+        "4",
+        "7"
+    })
+    public void testParallelGenerationIsDeterministic(int threads) {
+        assertSameGraph(ER.generateERParallel(300, 0.05, 11L, 1), ER.generateERParallel(300, 0.05, 11L, threads));
+        assertSameGraph(BA.generateBAParallel(300, 5, 3, 12L, 1), BA.generateBAParallel(300, 5, 3, 12L, threads));
+        assertSameGraph(RR.generateRRParallel(300, 3, 13L, 1), RR.generateRRParallel(300, 3, 13L, threads));
+    }
+    
+    @Test
+    @DisplayName("並列生成されたグラフの構造テスト")
+    public void testParallelGraphStructure() {
+        // RR: 全ノードの次数がk、自己ループ・多重辺なし
+        Graph rrGraph = RR.generateRRParallel(200, 4, 1L, 4);
+        for (int i = 0; i < rrGraph.N; i++) {
+            assertEquals(4, rrGraph.cursorList[i] - rrGraph.addressList[i]);
+            Set<Integer> neighbors = new HashSet<>();
+            for (int j = rrGraph.addressList[i]; j < rrGraph.cursorList[i]; j++) {
+                assertNotEquals(i, rrGraph.edgeList[j], "自己ループがあります");
+                assertTrue(neighbors.add(rrGraph.edgeList[j]), "多重辺があります");
+            }
+        }
+        
+        // BA: 新規ノードは少なくともm本のエッジを持ち、総エッジ数は決定的
+        Graph baGraph = BA.generateBAParallel(200, 5, 2, 1L, 4);
+        for (int i = 5; i < baGraph.N; i++) {
+            assertTrue(baGraph.cursorList[i] - baGraph.addressList[i] >= 2);
+        }
+        assertEquals(2 * (10 + 2 * 195), baGraph.edgeList.length);
+        
+        // ER: 隣接関係が対称
+        Graph erGraph = ER.generateERParallel(200, 0.05, 1L, 4);
+        for (int i = 0; i < erGraph.N; i++) {
+            for (int j = erGraph.addressList[i]; j < erGraph.cursorList[i]; j++) {
+                int neighbor = erGraph.edgeList[j];
+                boolean found = false;
+                for (int l = erGraph.addressList[neighbor]; l < erGraph.cursorList[neighbor]; l++) {
+                    found |= erGraph.edgeList[l] == i;
+                }
+                assertTrue(found, "隣接関係が非対称です: " + i + " - " + neighbor);
+            }
+        }
+    }
+    
+    private static void assertSameGraph(Graph expected, Graph actual) {
+        assertEquals(expected.N, actual.N);
+        assertArrayEquals(expected.addressList, actual.addressList);
+        assertArrayEquals(expected.cursorList, actual.cursorList);
+        assertArrayEquals(expected.edgeList, actual.edgeList);
+    }
 } 
\ No newline at end of file
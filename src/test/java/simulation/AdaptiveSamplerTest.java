@@ -0,0 +1,88 @@
+package simulation;
+
+import main.java.simulation.AdaptiveSampler;
+import main.java.simulation.OnlineStatistics;
+import main.java.simulation.SimulationDataWriter.SimulationRun;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * AdaptiveSampler（逐次停止規則）とOnlineStatistics（逐次平均・分散）のテスト
+ */
+public class AdaptiveSamplerTest {
+
+    @Test
+    @DisplayName("逐次計算した平均・分散が直接計算と一致し、分割して結合しても同じになる")
+    public void testOnlineStatistics() {
+        double[] values = new double[1000];
+        Random random = new Random(1);
+        for (int i = 0; i < values.length; i++) {
+            values[i] = 1e6 + random.nextGaussian();
+        }
+
+        OnlineStatistics all = new OnlineStatistics();
+        OnlineStatistics first = new OnlineStatistics();
+        OnlineStatistics second = new OnlineStatistics();
+        for (int i = 0; i < values.length; i++) {
+            all.add(values[i]);
+            (i < 300 ? first : second).add(values[i]);
+        }
+        first.merge(second);
+
+        double mean = 0;
+        for (double v : values) {
+            mean += v;
+        }
+        mean /= values.length;
+        double variance = 0;
+        for (double v : values) {
+            variance += (v - mean) * (v - mean);
+        }
+        variance /= values.length - 1;
+
+        assertEquals(mean, all.mean(), 1e-9);
+        assertEquals(variance, all.variance(), 1e-9);
+        assertEquals(all.mean(), first.mean(), 1e-9);
+        assertEquals(all.variance(), first.variance(), 1e-9);
+        assertEquals(1000, first.count());
+    }
+
+    @Test
+    @DisplayName("分散0の統計量は最小サンプル数で停止し、分散の大きい統計量は上限まで続ける")
+    public void testStoppingRule() {
+        AdaptiveSampler constant = new AdaptiveSampler(0.01, 5, 100);
+        int constantSamples = 0;
+        while (constant.needsMoreSamples()) {
+            constant.add(0.0);
+            constantSamples++;
+        }
+        assertEquals(5, constantSamples);
+        assertTrue(constant.converged());
+
+        AdaptiveSampler noisy = new AdaptiveSampler(0.01, 5, 100);
+        Random random = new Random(2);
+        int noisySamples = 0;
+        while (noisy.needsMoreSamples()) {
+            noisy.add(random.nextBoolean() ? 0.0 : 1.0);
+            noisySamples++;
+        }
+        assertEquals(100, noisySamples);
+        assertFalse(noisy.converged());
+
+        assertThrows(IllegalArgumentException.class, () -> new AdaptiveSampler(0.0, 5, 10));
+    }
+
+    @Test
+    @DisplayName("対象の統計量を実行結果から取り出す（感染者数はネットワークサイズに対する割合）")
+    public void testTarget() {
+        SimulationRun run = new SimulationRun(1, 0.3, 0.1, 0, 1000, 10, 50.0, 500, 200, 25.0, 1000, 1.5, 0.75);
+        assertEquals(0.5, AdaptiveSampler.Target.MAX_INFECTED.valueOf(run));
+        assertEquals(0.75, AdaptiveSampler.Target.FINAL_SIZE.valueOf(run));
+        assertEquals(0.2, AdaptiveSampler.Target.FINAL_PREVALENCE.valueOf(run));
+        assertEquals(25.0, AdaptiveSampler.Target.PEAK_TIME.valueOf(run));
+    }
+}
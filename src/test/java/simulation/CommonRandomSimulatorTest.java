@@ -0,0 +1,78 @@
+package simulation;
+
+import main.java.network.Graph;
+import main.java.network.topology.BA;
+import main.java.network.topology.ER;
+import main.java.simulation.CommonRandomSimulator;
+import main.java.simulation.OnlineStatistics;
+import main.java.simulation.SARSimulator;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * CommonRandomSimulator（共通乱数によるシミュレーション）のテスト
+ */
+public class CommonRandomSimulatorTest {
+
+    private static int finalSize(SARSimulator.SimulationResult result) {
+        int last = result.times.size() - 1;
+        return result.infectedCounts.get(last) + result.recoveredCounts.get(last);
+    }
+
+    @Test
+    @DisplayName("同じ時計ならτを大きくしても感染するノード数は減らない")
+    public void testMonotoneInTransmissionRate() {
+        Graph graph = BA.generateBA(500, 4, 2, 1L);
+        for (long seed = 0; seed < 20; seed++) {
+            CommonRandomSimulator simulator = new CommonRandomSimulator(graph, seed);
+            int previous = 0;
+            for (double tau = 0.1; tau <= 1.0; tau += 0.1) {
+                int size = finalSize(simulator.runSimulation(new int[]{0}, tau, 1.0, Double.POSITIVE_INFINITY));
+                assertTrue(size >= previous, "τ=" + tau + " で感染ノード数が減少: " + previous + " -> " + size);
+                previous = size;
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("最終規模の平均がGillespie法と一致し、各時刻でS+I+R=Nが成り立つ")
+    public void testAgreesWithGillespie() {
+        Graph graph = ER.generateER(300, 0.02, 3L);
+        SARSimulator gillespie = new SARSimulator(graph, 0.4, 0.5);
+        OnlineStatistics common = new OnlineStatistics();
+        OnlineStatistics reference = new OnlineStatistics();
+        for (int run = 0; run < 1000; run++) {
+            SARSimulator.SimulationResult result = new CommonRandomSimulator(graph, run)
+                .runSimulation(new int[]{0}, 0.4, 0.5, 1000.0);
+            common.add(finalSize(result));
+            reference.add(finalSize(gillespie.runSimulation(new int[]{0}, 1000.0, new Random(run))));
+            for (int i = 0; i < result.times.size(); i++) {
+                assertEquals(300, result.susceptibleCounts.get(i) + result.infectedCounts.get(i) + result.recoveredCounts.get(i));
+            }
+        }
+        double error = Math.sqrt(common.variance() / 1000 + reference.variance() / 1000);
+        assertEquals(reference.mean(), common.mean(), 4 * error);
+    }
+
+    @Test
+    @DisplayName("隣り合うτの差の分散は独立な実行より小さい")
+    public void testVarianceReduction() {
+        Graph graph = ER.generateER(300, 0.02, 4L);
+        OnlineStatistics paired = new OnlineStatistics();
+        OnlineStatistics independent = new OnlineStatistics();
+        for (int run = 0; run < 300; run++) {
+            CommonRandomSimulator simulator = new CommonRandomSimulator(graph, run);
+            int low = finalSize(simulator.runSimulation(new int[]{0}, 0.5, 0.5, 1000.0));
+            int high = finalSize(simulator.runSimulation(new int[]{0}, 0.55, 0.5, 1000.0));
+            int other = finalSize(new CommonRandomSimulator(graph, 10_000 + run).runSimulation(new int[]{0}, 0.55, 0.5, 1000.0));
+            paired.add(high - low);
+            independent.add(other - low);
+        }
+        assertTrue(paired.variance() < independent.variance() / 4,
+            "対応のある差の分散 " + paired.variance() + " / 独立な差の分散 " + independent.variance());
+    }
+}
@@ -0,0 +1,73 @@
+package simulation;
+
+import main.java.network.CSRBuilder;
+import main.java.network.EdgeBuffer;
+import main.java.network.Graph;
+import main.java.network.topology.BA;
+import main.java.simulation.DynamicMessagePassing;
+import main.java.simulation.SARSimulator;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * DynamicMessagePassing（動的メッセージパッシング）のテスト
+ */
+public class DynamicMessagePassingTest {
+
+    @Test
+    @DisplayName("木では最終的な感染確率が T^距離（T = τ/(τ+γ)）に一致する")
+    public void testTreeIsExact() {
+        // 0 を根とする深さ3の二分木
+        EdgeBuffer buffer = new EdgeBuffer();
+        for (int child = 1; child < 15; child++) {
+            buffer.add((child - 1) / 2, child);
+        }
+        Graph tree = CSRBuilder.build(15, new EdgeBuffer[]{buffer}, 1);
+
+        DynamicMessagePassing.Result result = new DynamicMessagePassing(tree, 1)
+            .solve(new int[]{0}, 1.0, 1.0, 0.001, 40.0);
+        double transmissibility = 0.5;
+        assertEquals(transmissibility, result.infectionProbability(1), 2e-3);
+        assertEquals(Math.pow(transmissibility, 2), result.infectionProbability(3), 2e-3);
+        assertEquals(Math.pow(transmissibility, 3), result.infectionProbability(14), 2e-3);
+        assertEquals(1.0, result.infectionProbability(0));
+    }
+
+    @Test
+    @DisplayName("期待値の和が各時刻でNに一致し、結果はスレッド数によらない")
+    public void testConservationAndThreads() {
+        Graph graph = BA.generateBA(2000, 5, 3, 1L);
+        DynamicMessagePassing.Result single = new DynamicMessagePassing(graph, 1).solve(new int[]{0, 1}, 0.3, 0.2, 0.1, 20.0);
+        DynamicMessagePassing.Result parallel = new DynamicMessagePassing(graph, 4).solve(new int[]{0, 1}, 0.3, 0.2, 0.1, 20.0);
+
+        assertEquals(201, single.times.length);
+        for (int t = 0; t < single.times.length; t++) {
+            assertEquals(2000, single.expectedSusceptible[t] + single.expectedInfected[t] + single.expectedRecovered[t], 1e-6);
+        }
+        assertArrayEquals(single.susceptible, parallel.susceptible);
+        assertArrayEquals(single.expectedInfected, parallel.expectedInfected);
+    }
+
+    @Test
+    @DisplayName("疎なグラフでは感染ノード数の期待値がGillespie法の平均に近い")
+    public void testAgreesWithMonteCarlo() {
+        Graph graph = BA.generateBA(500, 2, 1, 2L); // m=1なので木に近い
+        int[] seeds = {0};
+        DynamicMessagePassing.Result dmp = new DynamicMessagePassing(graph, 1).solve(seeds, 0.8, 0.5, 0.01, 10.0);
+
+        SARSimulator simulator = new SARSimulator(graph, 0.8, 0.5);
+        double sum = 0;
+        int runs = 2000;
+        for (int run = 0; run < runs; run++) {
+            SARSimulator.SimulationResult result = simulator.runSimulation(seeds, 10.0, new Random(run));
+            int last = result.times.size() - 1;
+            sum += result.infectedCounts.get(last) + result.recoveredCounts.get(last);
+        }
+        double everInfected = 500 - dmp.expectedSusceptible[dmp.times.length - 1];
+        assertEquals(sum / runs, everInfected, 0.05 * everInfected + 1.0);
+    }
+}
@@ -0,0 +1,100 @@
+package simulation;
+
+import main.java.network.Graph;
+import main.java.network.topology.BA;
+import main.java.network.topology.RR;
+import main.java.simulation.OnlineStatistics;
+import main.java.simulation.SARSimulator;
+import main.java.simulation.SeedSelection;
+import main.java.simulation.meanfield.DormandPrince;
+import main.java.simulation.meanfield.MeanFieldSolver;
+import main.java.simulation.meanfield.MeanFieldSolver.Model;
+import main.java.simulation.meanfield.OdeSystem;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * MeanFieldSolver（平均場近似）とDormandPrince（RK45）のテスト
+ */
+public class MeanFieldSolverTest {
+
+    @Test
+    @DisplayName("RK45の解が dy/dt = -y の厳密解と一致し、記録時刻に合わせて呼ばれる")
+    public void testDormandPrince() {
+        OdeSystem decay = new OdeSystem() {
+            @Override
+            public int dimension() {
+                return 1;
+            }
+
+            @Override
+            public void derivative(double t, double[] y, double[] dydt) {
+                dydt[0] = -y[0];
+            }
+        };
+        List<Double> times = new ArrayList<>();
+        double[] y = {1.0};
+        new DormandPrince(1e-10, 1e-12).integrate(decay, y, 0.0, 5.0, 0.5, (t, state) -> {
+            times.add(t);
+            assertEquals(Math.exp(-t), state[0], 1e-8);
+        });
+        assertEquals(11, times.size());
+        assertEquals(2.5, times.get(5), 1e-12);
+        assertEquals(Math.exp(-5.0), y[0], 1e-8);
+    }
+
+    @ParameterizedTest
+    @EnumSource(Model.class)
+    @DisplayName("各時刻でS+I+R=Nが成り立ち、閾値より十分下では流行しない")
+    public void testConservationAndSubcritical(Model model) {
+        Graph graph = BA.generateBA(1000, 5, 3, 1L);
+        MeanFieldSolver solver = new MeanFieldSolver(graph);
+
+        SARSimulator.SimulationResult result = solver.solve(model, 0.5, 0.2, 10, 50.0, 1.0);
+        assertEquals(51, result.times.size());
+        for (int i = 0; i < result.times.size(); i++) {
+            assertEquals(1000, result.susceptibleCounts.get(i) + result.infectedCounts.get(i) + result.recoveredCounts.get(i));
+        }
+        assertTrue(result.recoveredCounts.get(50) > 500);
+
+        double[] subcritical = solver.finalFractions(model, 0.001, 1.0, 10, 200.0);
+        assertEquals(0.01, subcritical[2], 1e-3);
+    }
+
+    @Test
+    @DisplayName("ランダム正則グラフではペア近似とエッジベースモデルが一致し、不均一平均場近似は流行を大きく見積もる")
+    public void testPairApproximationMatchesEdgeBased() {
+        Graph graph = RR.generateRR(2000, 4, 2L);
+        MeanFieldSolver solver = new MeanFieldSolver(graph);
+
+        double[] pair = solver.finalFractions(Model.PAIR_APPROXIMATION, 0.5, 0.5, 20, 200.0);
+        double[] edge = solver.finalFractions(Model.EDGE_BASED, 0.5, 0.5, 20, 200.0);
+        double[] hmf = solver.finalFractions(Model.HETEROGENEOUS_MEAN_FIELD, 0.5, 0.5, 20, 200.0);
+        assertEquals(edge[2], pair[2], 1e-4);
+        assertTrue(hmf[2] > edge[2] + 0.05);
+    }
+
+    @Test
+    @DisplayName("エッジベースモデルの最終規模がGillespie法の平均と一致する")
+    public void testEdgeBasedMatchesGillespie() {
+        Graph graph = RR.generateRR(3000, 5, 3L);
+        double edge = new MeanFieldSolver(graph).finalFractions(Model.EDGE_BASED, 0.4, 0.5, 30, 500.0)[2];
+
+        SARSimulator simulator = new SARSimulator(graph, 0.4, 0.5);
+        OnlineStatistics finalSize = new OnlineStatistics();
+        for (int run = 0; run < 20; run++) {
+            int[] seeds = SeedSelection.sample(3000, 30, new Random(run));
+            SARSimulator.SimulationResult result = simulator.runSimulation(seeds, 500.0, new Random(100 + run));
+            finalSize.add(result.recoveredCounts.get(result.recoveredCounts.size() - 1) / 3000.0);
+        }
+        assertEquals(edge, finalSize.mean(), 0.03);
+    }
+}
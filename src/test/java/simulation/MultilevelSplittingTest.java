@@ -0,0 +1,75 @@
+package simulation;
+
+import main.java.network.Graph;
+import main.java.network.topology.ER;
+import main.java.simulation.MultilevelSplitting;
+import main.java.simulation.SARSimulator;
+import main.java.simulation.SplitMixRandom;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * MultilevelSplitting（多段分割法）のテスト
+ */
+public class MultilevelSplittingTest {
+
+    @Test
+    @DisplayName("大規模流行確率の推定値が単純なモンテカルロの推定と整合する")
+    public void testAgreesWithPlainMonteCarlo() {
+        Graph graph = ER.generateER(200, 0.02, 1L);
+        SARSimulator simulator = new SARSimulator(graph, 0.3, 0.5);
+        int target = 60;
+
+        int plainRuns = 4000;
+        int plainHits = 0;
+        SplitMixRandom seeds = new SplitMixRandom(2);
+        for (int i = 0; i < plainRuns; i++) {
+            if (simulator.runUntilCumulative(new int[]{0}, target, 1e9, new SplitMixRandom(seeds.nextLong())) != null) {
+                plainHits++;
+            }
+        }
+        double plain = (double) plainHits / plainRuns;
+
+        MultilevelSplitting splitting = new MultilevelSplitting(simulator,
+            MultilevelSplitting.linearLevels(5, target, 4), 1000, 200);
+        MultilevelSplitting.Estimate estimate = splitting.estimate(new int[]{0}, 1e9, 3L);
+
+        assertTrue(plain > 0.02 && plain < 0.5, "テスト条件の確率が極端: " + plain);
+        assertTrue(estimate.lower < estimate.probability && estimate.probability < estimate.upper);
+        double plainError = Math.sqrt(plain * (1 - plain) / plainRuns);
+        assertEquals(plain, estimate.probability, 3 * (plainError + estimate.standardError), estimate.toString());
+        assertEquals(4000, estimate.trajectories);
+    }
+
+    @Test
+    @DisplayName("到達しえない段では確率0、初期感染だけで到達する段では確率1")
+    public void testDegenerateLevels() {
+        Graph graph = ER.generateER(100, 0.05, 4L);
+
+        MultilevelSplitting none = new MultilevelSplitting(new SARSimulator(graph, 0.0, 1.0), new int[]{2, 50}, 100, 10);
+        MultilevelSplitting.Estimate zero = none.estimate(new int[]{0}, 100.0, 5L);
+        assertEquals(0.0, zero.probability);
+        assertEquals(0.03, zero.upper, 1e-12);
+        assertEquals(100, zero.trajectories);
+
+        MultilevelSplitting seeded = new MultilevelSplitting(new SARSimulator(graph, 1.0, 1.0), new int[]{3}, 50, 10);
+        MultilevelSplitting.Estimate one = seeded.estimate(new int[]{0, 1, 2}, 100.0, 6L);
+        assertEquals(1.0, one.probability);
+        assertEquals(0.0, one.standardError);
+    }
+
+    @Test
+    @DisplayName("同じシードなら同じ推定値になり、不正な段は例外になる")
+    public void testReproducibleAndValidation() {
+        Graph graph = ER.generateER(150, 0.03, 7L);
+        SARSimulator simulator = new SARSimulator(graph, 0.5, 0.5);
+        MultilevelSplitting splitting = new MultilevelSplitting(simulator, new int[]{10, 30, 75}, 200, 50);
+        assertEquals(splitting.estimate(new int[]{0}, 100.0, 8L).probability,
+            splitting.estimate(new int[]{0}, 100.0, 8L).probability);
+
+        assertThrows(IllegalArgumentException.class, () -> new MultilevelSplitting(simulator, new int[]{10, 10}, 10, 10));
+        assertArrayEquals(new int[]{5, 10, 15}, MultilevelSplitting.linearLevels(5, 15, 3));
+    }
+}
@@ -0,0 +1,111 @@
+package simulation;
+
+import main.java.network.Graph;
+import main.java.network.topology.BA;
+import main.java.network.topology.ER;
+import main.java.simulation.MultiplexSimulator;
+import main.java.simulation.RateTree;
+import main.java.simulation.SeedSelection;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * MultiplexSimulator（情報層＋接触層）とRateTreeのテスト
+ */
+public class MultiplexSimulatorTest {
+
+    @Test
+    @DisplayName("RateTreeが率に比例して葉を選び、更新後の総和が正しい")
+    public void testRateTree() {
+        RateTree tree = new RateTree(5);
+        tree.set(0, 1.0);
+        tree.set(2, 3.0);
+        tree.set(4, 4.0);
+        assertEquals(8.0, tree.total(), 1e-12);
+
+        assertEquals(0, tree.sample(0.5));
+        assertEquals(2, tree.sample(1.0));
+        assertEquals(2, tree.sample(3.99));
+        assertEquals(4, tree.sample(4.0));
+        assertEquals(4, tree.sample(7.99));
+
+        tree.set(2, 0.0);
+        assertEquals(5.0, tree.total(), 1e-12);
+        int[] counts = new int[5];
+        Random random = new Random(1);
+        for (int i = 0; i < 50_000; i++) {
+            counts[tree.sample(random.nextDouble() * tree.total())]++;
+        }
+        assertEquals(0, counts[1] + counts[2] + counts[3]);
+        assertEquals(0.2, counts[0] / 50_000.0, 0.01);
+    }
+
+    @Test
+    @DisplayName("RateTreeは複数のセグメント（2^20葉ごと）にまたがる葉を選び、複製は独立している")
+    public void testRateTreeSegments() {
+        int size = 2 * (1 << 20) + 3; // 2つの満杯のセグメントと葉3つのセグメント
+        RateTree tree = new RateTree(size);
+        tree.set(5, 1.0);
+        tree.set((1 << 20) + 7, 2.0);
+        tree.set(size - 1, 4.0);
+        assertEquals(7.0, tree.total(), 1e-12);
+        assertEquals(5, tree.sample(0.5));
+        assertEquals((1 << 20) + 7, tree.sample(1.5));
+        assertEquals(size - 1, tree.sample(6.9));
+        assertEquals(4.0, tree.get(size - 1));
+
+        RateTree copy = tree.copy();
+        tree.set(size - 1, 0.0);
+        assertEquals(3.0, tree.total(), 1e-12);
+        assertEquals(7.0, copy.total(), 1e-12);
+        assertEquals((1 << 20) + 7, tree.sample(2.99));
+        assertThrows(IllegalArgumentException.class, () -> new RateTree(0));
+    }
+
+    @Test
+    @DisplayName("各時刻でS+I+R=Nが成り立ち、忘却がなければ認知ノード数は減らない")
+    public void testConservation() {
+        Graph information = ER.generateER(500, 0.02, 1L);
+        Graph contact = BA.generateBA(500, 4, 2, 2L);
+        MultiplexSimulator simulator = new MultiplexSimulator(information, contact, 0.4, 0.2, 0.3, 0.0, 0.5);
+
+        int[] seeds = SeedSelection.select(contact, SeedSelection.Strategy.UNIFORM, 5, new Random(3));
+        MultiplexSimulator.MultiplexResult result = simulator.runSimulation(seeds, new int[0], 50.0, new Random(4));
+
+        for (int i = 0; i < result.times.size(); i++) {
+            assertEquals(500, result.susceptibleCounts.get(i) + result.infectedCounts.get(i) + result.recoveredCounts.get(i));
+            assertTrue(result.awareCounts.get(i) >= result.infectedCounts.get(i));
+            if (i > 0) {
+                assertTrue(result.awareCounts.get(i) >= result.awareCounts.get(i - 1));
+            }
+        }
+        assertEquals(5, (int) result.awareCounts.get(0));
+    }
+
+    @Test
+    @DisplayName("全ノードが認知済みで感受性の倍率が0なら初期感染ノード以外は感染しない")
+    public void testFullAwarenessBlocksInfection() {
+        Graph information = ER.generateER(200, 0.05, 5L);
+        Graph contact = ER.generateER(200, 0.05, 6L);
+        MultiplexSimulator simulator = new MultiplexSimulator(information, contact, 5.0, 0.1, 1.0, 0.0, 0.0);
+
+        int[] everyone = IntStream.range(0, 200).toArray();
+        MultiplexSimulator.MultiplexResult result = simulator.runSimulation(new int[]{0, 1, 2}, everyone, 100.0, new Random(7));
+
+        int last = result.times.size() - 1;
+        assertEquals(3, result.infectedCounts.get(last) + result.recoveredCounts.get(last));
+        assertEquals(200, (int) result.awareCounts.get(last));
+    }
+
+    @Test
+    @DisplayName("層のノード数が異なる場合は例外になる")
+    public void testLayerSizeMismatch() {
+        assertThrows(IllegalArgumentException.class, () -> new MultiplexSimulator(
+            ER.generateER(10, 0.5, 1L), ER.generateER(11, 0.5, 1L), 0.1, 0.1, 0.1, 0.1, 0.5));
+    }
+}
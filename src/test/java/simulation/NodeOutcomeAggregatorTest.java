@@ -0,0 +1,87 @@
+package simulation;
+
+import main.java.network.Graph;
+import main.java.network.topology.BA;
+import main.java.simulation.NodeOutcomeAggregator;
+import main.java.simulation.SARSimulator;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * NodeOutcomeAggregator（ノードごとの結果の集計）のテスト
+ */
+public class NodeOutcomeAggregatorTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("集計結果はスレッド数によらず、感染頻度の和は平均最終規模に一致する")
+    public void testParallelAggregation() {
+        Graph graph = BA.generateBA(300, 5, 3, 1L);
+        NodeOutcomeAggregator single = NodeOutcomeAggregator.simulate(graph, 0.5, 0.3, 2, 100.0, 200, 7L, 1);
+        NodeOutcomeAggregator parallel = NodeOutcomeAggregator.simulate(graph, 0.5, 0.3, 2, 100.0, 200, 7L, 4);
+
+        assertEquals(200, single.runs());
+        double frequencySum = 0;
+        for (int i = 0; i < 300; i++) {
+            assertEquals(single.infectionFrequency(i), parallel.infectionFrequency(i));
+            frequencySum += single.infectionFrequency(i);
+            assertTrue(single.infectionFrequency(i) == 0 || single.meanInfectionTime(i) >= 0);
+        }
+        // ハブは葉より感染しやすい
+        assertTrue(single.infectionFrequency(0) > single.infectionFrequency(299));
+        assertTrue(frequencySum >= 2);
+    }
+
+    @Test
+    @DisplayName("Recorderは初期感染ノードを時刻0の感染として数え、実行回数を数える")
+    public void testRecorder() {
+        Graph graph = BA.generateBA(100, 3, 2, 2L);
+        NodeOutcomeAggregator aggregator = new NodeOutcomeAggregator(100);
+        NodeOutcomeAggregator.Recorder recorder = aggregator.newRecorder();
+        SARSimulator simulator = new SARSimulator(graph, 0.0, 1.0);
+        simulator.setInfectionObserver(recorder);
+        for (int run = 0; run < 5; run++) {
+            simulator.runSimulation(new int[]{3}, 10.0, new Random(run));
+            recorder.endRun();
+        }
+        aggregator.merge(recorder);
+
+        assertEquals(5, aggregator.runs());
+        assertEquals(1.0, aggregator.infectionFrequency(3));
+        assertEquals(0.0, aggregator.meanInfectionTime(3));
+        assertEquals(0.0, aggregator.infectionFrequency(4));
+        assertTrue(Double.isNaN(aggregator.meanInfectionTime(4)));
+    }
+
+    @Test
+    @DisplayName("バイナリの列形式で書き出して読み込むと同じ結果になり、破損は検出される")
+    public void testWriteAndRead() throws IOException {
+        Graph graph = BA.generateBA(200, 4, 2, 3L);
+        NodeOutcomeAggregator aggregator = NodeOutcomeAggregator.simulate(graph, 0.6, 0.3, 1, 50.0, 50, 1L, 2);
+        Path file = tempDir.resolve("node_outcomes.bin");
+        aggregator.write(file);
+        assertEquals(NodeOutcomeAggregator.HEADER_BYTES + 12L * 200, Files.size(file));
+
+        NodeOutcomeAggregator loaded = NodeOutcomeAggregator.read(file);
+        assertEquals(50, loaded.runs());
+        for (int i = 0; i < 200; i++) {
+            assertEquals(aggregator.infectionFrequency(i), loaded.infectionFrequency(i));
+            assertEquals(aggregator.meanInfectionTime(i), loaded.meanInfectionTime(i), 1e-12);
+        }
+
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[NodeOutcomeAggregator.HEADER_BYTES] ^= 1;
+        Files.write(file, bytes);
+        assertThrows(IOException.class, () -> NodeOutcomeAggregator.read(file));
+    }
+}
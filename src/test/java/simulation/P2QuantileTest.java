@@ -0,0 +1,56 @@
+package simulation;
+
+import main.java.simulation.P2Quantile;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * P2Quantile（P²アルゴリズムによる分位点の逐次推定）のテスト
+ */
+public class P2QuantileTest {
+
+    @Test
+    @DisplayName("多数の値では推定値が標本分位点に近い")
+    public void testMatchesSampleQuantile() {
+        Random random = new Random(1);
+        double[] values = new double[20000];
+        P2Quantile[] sketches = {new P2Quantile(0.05), new P2Quantile(0.5), new P2Quantile(0.95)};
+        for (int i = 0; i < values.length; i++) {
+            values[i] = -Math.log(1 - random.nextDouble()); // 指数分布
+            for (P2Quantile sketch : sketches) {
+                sketch.add(values[i]);
+            }
+        }
+        Arrays.sort(values);
+        for (P2Quantile sketch : sketches) {
+            double exact = values[(int) (sketch.quantile() * (values.length - 1))];
+            assertEquals(exact, sketch.value(), 0.02 * exact + 0.005);
+            assertEquals(values.length, sketch.count());
+        }
+    }
+
+    @Test
+    @DisplayName("5個未満では保持している値の線形補間、0と1の分位点は最小値と最大値")
+    public void testSmallSamplesAndExtremes() {
+        P2Quantile median = new P2Quantile(0.5);
+        assertTrue(Double.isNaN(median.value()));
+        median.add(3.0);
+        median.add(1.0);
+        assertEquals(2.0, median.value());
+
+        P2Quantile min = new P2Quantile(0.0);
+        P2Quantile max = new P2Quantile(1.0);
+        for (int i = 0; i < 100; i++) {
+            min.add((i * 37) % 100);
+            max.add((i * 37) % 100);
+        }
+        assertEquals(0.0, min.value());
+        assertEquals(99.0, max.value());
+        assertThrows(IllegalArgumentException.class, () -> new P2Quantile(1.5));
+    }
+}
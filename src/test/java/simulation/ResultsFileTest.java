@@ -0,0 +1,118 @@
+package simulation;
+
+import main.java.simulation.MappedResults;
+import main.java.simulation.ResultsFile;
+import main.java.simulation.SimulationDataWriter.SimulationRun;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ResultsFile（結果の列形式バイナリファイル）のテスト
+ */
+public class ResultsFileTest {
+
+    @TempDir
+    Path tempDir;
+
+    private static List<SimulationRun> randomRuns(int count) {
+        Random random = new Random(1);
+        List<SimulationRun> runs = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            runs.add(new SimulationRun(i + 1, random.nextDouble(), random.nextDouble(), i % 3,
+                100 * (1 + random.nextInt(5)), 1 + random.nextInt(5), 50.0, random.nextInt(500),
+                random.nextInt(100), 50 * random.nextDouble(), random.nextInt(10000), random.nextDouble() / 7,
+                random.nextDouble()));
+        }
+        return runs;
+    }
+
+    @Test
+    @DisplayName("書き出して読み込むと全フィールドが完全な精度で一致する")
+    public void testRoundTrip() throws IOException {
+        List<SimulationRun> runs = randomRuns(250);
+        Path file = tempDir.resolve("results.bin");
+        ResultsFile.write(runs, file, 64);
+
+        MappedResults results = ResultsFile.load(file);
+        assertEquals(250, results.rows());
+        assertEquals(4, results.rowGroups());
+        assertEquals(58, results.rowGroupRows(3));
+        List<SimulationRun> loaded = results.readAll();
+        for (int i = 0; i < runs.size(); i++) {
+            SimulationRun expected = runs.get(i);
+            SimulationRun actual = loaded.get(i);
+            assertEquals(expected.runId, actual.runId);
+            assertEquals(expected.transmissionRate, actual.transmissionRate);
+            assertEquals(expected.recoveryRate, actual.recoveryRate);
+            assertEquals(expected.networkType, actual.networkType);
+            assertEquals(expected.networkSize, actual.networkSize);
+            assertEquals(expected.initialInfections, actual.initialInfections);
+            assertEquals(expected.maxTime, actual.maxTime);
+            assertEquals(expected.maxInfected, actual.maxInfected);
+            assertEquals(expected.finalInfected, actual.finalInfected);
+            assertEquals(expected.peakTime, actual.peakTime);
+            assertEquals(expected.totalEvents, actual.totalEvents);
+            assertEquals(expected.simulationTime, actual.simulationTime);
+            assertEquals(expected.finalSize, actual.finalSize);
+        }
+
+        ResultsFile.write(new ArrayList<>(), tempDir.resolve("empty.bin"));
+        assertEquals(0, ResultsFile.load(tempDir.resolve("empty.bin")).rows());
+    }
+
+    @Test
+    @DisplayName("列単位で読み出せ、行グループの最小値・最大値は列の値の範囲に一致する")
+    public void testColumnsAndStatistics() throws IOException {
+        List<SimulationRun> runs = randomRuns(100);
+        Path file = tempDir.resolve("results.bin");
+        ResultsFile.write(runs, file, 30);
+        MappedResults results = ResultsFile.load(file);
+
+        double[] peakTimes = results.doubleColumn(ResultsFile.Column.PEAK_TIME);
+        int[] maxInfected = results.intColumn(ResultsFile.Column.MAX_INFECTED);
+        for (int i = 0; i < runs.size(); i++) {
+            assertEquals(runs.get(i).peakTime, peakTimes[i]);
+            assertEquals(runs.get(i).maxInfected, maxInfected[i]);
+        }
+        int row = 0;
+        for (int g = 0; g < results.rowGroups(); g++) {
+            double min = Double.POSITIVE_INFINITY, max = Double.NEGATIVE_INFINITY;
+            for (int r = 0; r < results.rowGroupRows(g); r++, row++) {
+                min = Math.min(min, runs.get(row).maxInfected);
+                max = Math.max(max, runs.get(row).maxInfected);
+            }
+            assertEquals(min, results.min(g, ResultsFile.Column.MAX_INFECTED));
+            assertEquals(max, results.max(g, ResultsFile.Column.MAX_INFECTED));
+        }
+        assertThrows(IllegalArgumentException.class, () -> results.intColumn(0, ResultsFile.Column.PEAK_TIME));
+    }
+
+    @Test
+    @DisplayName("データやフッターの破損は検出される")
+    public void testCorruption() throws IOException {
+        Path file = tempDir.resolve("results.bin");
+        ResultsFile.write(randomRuns(50), file, 20);
+        byte[] original = Files.readAllBytes(file);
+
+        byte[] bytes = original.clone();
+        bytes[ResultsFile.HEADER_BYTES + 5] ^= 1;
+        Files.write(file, bytes);
+        assertThrows(IOException.class, () -> ResultsFile.load(file));
+        assertEquals(50, ResultsFile.load(file, false).rows());
+
+        bytes = original.clone();
+        bytes[bytes.length - 20] ^= 1;
+        Files.write(file, bytes);
+        assertThrows(IOException.class, () -> ResultsFile.load(file, false));
+    }
+}
@@ -0,0 +1,222 @@
+package simulation;
+
+import main.java.network.CSRBuilder;
+import main.java.network.EdgeBuffer;
+import main.java.network.Graph;
+import main.java.network.topology.BA;
+import main.java.network.topology.ER;
+import main.java.simulation.Intervention;
+import main.java.simulation.SARSimulator;
+import main.java.simulation.SplitMixRandom;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * SARSimulator（プリミティブ配列による状態管理と介入）のテスト
+ */
+public class SARSimulatorTest {
+
+    @Test
+    @DisplayName("回復したノードは再感染せず、各時刻でS+I+R=Nが成り立つ")
+    public void testNoReinfection() {
+        Graph graph = BA.generateBA(500, 5, 3, 1L);
+        SARSimulator simulator = new SARSimulator(graph, 0.8, 0.3);
+        SARSimulator.SimulationResult result = simulator.runSimulation(new int[]{0, 1, 2}, 100.0, new Random(2));
+
+        for (int i = 0; i < result.times.size(); i++) {
+            assertEquals(500, result.susceptibleCounts.get(i) + result.infectedCounts.get(i) + result.recoveredCounts.get(i));
+            if (i > 0) {
+                // SIRでは感受性ノード数は増えず、回復ノード数は減らない
+                assertTrue(result.susceptibleCounts.get(i) <= result.susceptibleCounts.get(i - 1));
+                assertTrue(result.recoveredCounts.get(i) >= result.recoveredCounts.get(i - 1));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("同じ乱数シードなら同じ結果になり、実行を繰り返しても結果が混ざらない")
+    public void testReproducible() {
+        Graph graph = ER.generateER(300, 0.03, 3L);
+        SARSimulator simulator = new SARSimulator(graph, 0.5, 0.2);
+        SARSimulator.SimulationResult first = simulator.runSimulation(new int[]{5}, 50.0, new Random(9));
+        SARSimulator.SimulationResult second = simulator.runSimulation(new int[]{5}, 50.0, new Random(9));
+
+        assertEquals(first.times, second.times);
+        assertEquals(first.infectedCounts, second.infectedCounts);
+        assertEquals(1, (int) second.infectedCounts.get(0));
+    }
+
+    @Test
+    @DisplayName("時刻0に全ての感受性ノードにワクチンを接種すると感染は広がらない")
+    public void testVaccination() {
+        Graph graph = ER.generateER(200, 0.05, 4L);
+        SARSimulator simulator = new SARSimulator(graph, 2.0, 0.5);
+        int[] everyone = IntStream.range(0, 200).toArray();
+        SARSimulator.SimulationResult result = simulator.runSimulation(new int[]{0}, 100.0,
+            List.of(Intervention.vaccinate(0.0, everyone)), new Random(1));
+
+        int last = result.times.size() - 1;
+        assertEquals(0, (int) result.susceptibleCounts.get(last));
+        assertEquals(0, (int) result.infectedCounts.get(last));
+        assertEquals(200, (int) result.recoveredCounts.get(last));
+        // 感染イベントは起きず、初期感染ノードの回復のみ
+        assertEquals(3, result.times.size());
+    }
+
+    @Test
+    @DisplayName("初期感染ノードを隔離すると他のノードは感染しない")
+    public void testQuarantine() {
+        Graph graph = BA.generateBA(400, 5, 3, 5L);
+        SARSimulator simulator = new SARSimulator(graph, 5.0, 0.1);
+        SARSimulator.SimulationResult result = simulator.runSimulation(new int[]{0, 1}, 100.0,
+            List.of(Intervention.quarantine(0.0, 0, 1)), new Random(6));
+
+        int last = result.times.size() - 1;
+        assertEquals(398, (int) result.susceptibleCounts.get(last));
+        assertEquals(2, (int) result.recoveredCounts.get(last));
+    }
+
+    @Test
+    @DisplayName("途中で隔離しても感染隣接ノード数が整合し、隔離後の感染ノードは広げない")
+    public void testQuarantineDuringOutbreak() {
+        Graph graph = ER.generateER(300, 0.04, 7L);
+        SARSimulator simulator = new SARSimulator(graph, 1.0, 0.2);
+        int[] half = IntStream.range(0, 150).toArray();
+        SARSimulator.SimulationResult result = simulator.runSimulation(new int[]{0, 200}, 200.0,
+            List.of(Intervention.quarantine(2.0, half), Intervention.scaleTransmission(3.0, 0.5)), new Random(8));
+
+        int last = result.times.size() - 1;
+        assertEquals(0, (int) result.infectedCounts.get(last));
+        for (int i = 0; i < result.times.size(); i++) {
+            assertEquals(300, result.susceptibleCounts.get(i) + result.infectedCounts.get(i) + result.recoveredCounts.get(i));
+        }
+    }
+
+    @Test
+    @DisplayName("感染が終息した後の介入も maxTime まで適用して記録する")
+    public void testInterventionAfterExtinction() {
+        Graph graph = ER.generateER(200, 0.05, 4L);
+        SARSimulator simulator = new SARSimulator(graph, 0.0, 5.0);
+        int[] everyone = IntStream.range(0, 200).toArray();
+        SARSimulator.SimulationResult result = simulator.runSimulation(new int[]{0}, 100.0,
+            List.of(Intervention.vaccinate(50.0, everyone), Intervention.vaccinate(150.0, everyone)), new Random(2));
+
+        // 初期状態・回復・時刻50の接種（時刻150の接種は maxTime より後なので行わない）
+        assertEquals(3, result.times.size());
+        assertEquals(50.0, result.times.get(2));
+        assertEquals(200, (int) result.recoveredCounts.get(2));
+    }
+
+    @Test
+    @DisplayName("ハブの隣接ノードを隔離するとハブ側のエッジも無効になり、多重エッジと自己ループでも整合する")
+    public void testQuarantineHubNeighbors() {
+        Graph graph = BA.generateBA(500, 5, 3, 11L);
+        int hub = 0;
+        for (int i = 1; i < 500; i++) {
+            if (graph.cursorList[i] - graph.addressList[i] > graph.cursorList[hub] - graph.addressList[hub]) {
+                hub = i;
+            }
+        }
+        int[] neighbors = IntStream.range(graph.addressList[hub], graph.cursorList[hub])
+            .map(s -> graph.edgeList[s]).distinct().toArray();
+        SARSimulator simulator = new SARSimulator(graph, 50.0, 0.1);
+        for (int run = 0; run < 3; run++) {
+            SARSimulator.SimulationResult result = simulator.runSimulation(new int[]{hub}, 100.0,
+                List.of(Intervention.quarantine(0.0, neighbors)), new Random(run));
+            int last = result.times.size() - 1;
+            assertEquals(499, (int) result.susceptibleCounts.get(last));
+            assertEquals(1, (int) result.recoveredCounts.get(last));
+        }
+
+        // 0-1 の二重エッジと 2 の自己ループ
+        EdgeBuffer buffer = new EdgeBuffer();
+        buffer.add(0, 1);
+        buffer.add(0, 1);
+        buffer.add(2, 2);
+        buffer.add(1, 2);
+        Graph multi = CSRBuilder.build(3, new EdgeBuffer[]{buffer}, 1);
+        SARSimulator.SimulationResult result = new SARSimulator(multi, 50.0, 0.1).runSimulation(new int[]{0, 2}, 100.0,
+            List.of(Intervention.quarantine(0.0, 0, 2)), new Random(3));
+        int last = result.times.size() - 1;
+        assertEquals(1, (int) result.susceptibleCounts.get(last));
+    }
+
+    @Test
+    @DisplayName("感染率を0倍にすると以後は回復イベントのみになる")
+    public void testScaleTransmission() {
+        Graph graph = ER.generateER(300, 0.05, 9L);
+        SARSimulator simulator = new SARSimulator(graph, 3.0, 0.2);
+        SARSimulator.SimulationResult result = simulator.runSimulation(new int[]{0, 1, 2, 3, 4}, 100.0,
+            List.of(Intervention.scaleTransmission(0.0, 0.0)), new Random(10));
+
+        int last = result.times.size() - 1;
+        assertEquals(295, (int) result.susceptibleCounts.get(last));
+        assertEquals(5, (int) result.recoveredCounts.get(last));
+        assertEquals(Collections.nCopies(result.times.size(), 295), result.susceptibleCounts);
+    }
+
+    @Test
+    @DisplayName("同じスナップショットから再開すると同じ結果になり、別のシミュレータへのフォークでも一致する")
+    public void testSnapshotResume() {
+        Graph graph = BA.generateBA(1000, 5, 3, 11L);
+        SARSimulator simulator = new SARSimulator(graph, 0.6, 0.3);
+        SARSimulator.Snapshot snapshot = simulator.runUntil(new int[]{0, 1, 2}, 3.0,
+            List.of(Intervention.quarantine(1.0, 3, 4)), new SplitMixRandom(12));
+        assertEquals(3.0, snapshot.time());
+        assertEquals(1000, snapshot.susceptibleCount() + snapshot.infectedCount() + snapshot.recoveredCount());
+
+        SARSimulator.SimulationResult first = simulator.resume(snapshot, 100.0, Collections.emptyList());
+        SARSimulator.SimulationResult second = simulator.resume(snapshot, 100.0, Collections.emptyList());
+        SARSimulator.SimulationResult forked = new SARSimulator(graph, 0.6, 0.3).resume(snapshot, 100.0, Collections.emptyList());
+
+        assertEquals(first.times, second.times);
+        assertEquals(first.infectedCounts, second.infectedCounts);
+        assertEquals(first.times, forked.times);
+        assertEquals(first.recoveredCounts, forked.recoveredCounts);
+        assertEquals(3.0, first.times.get(0));
+        assertEquals(snapshot.infectedCount(), (int) first.infectedCounts.get(0));
+    }
+
+    @Test
+    @DisplayName("分岐先で介入を行っても、スナップショットと元のシミュレータの状態は変わらない")
+    public void testForkIsIndependent() {
+        Graph graph = ER.generateER(500, 0.02, 13L);
+        SARSimulator simulator = new SARSimulator(graph, 1.0, 0.2);
+        SARSimulator.Snapshot snapshot = simulator.runUntil(new int[]{0}, 2.0, Collections.emptyList(), new SplitMixRandom(14));
+        int susceptible = snapshot.susceptibleCount();
+
+        SARSimulator fork = simulator.fork();
+        assertEquals(susceptible, fork.snapshot(2.0, new SplitMixRandom(1)).susceptibleCount());
+        int[] everyone = IntStream.range(0, 500).toArray();
+        SARSimulator.SimulationResult vaccinated = fork.resume(snapshot, 100.0, List.of(Intervention.vaccinate(2.0, everyone)));
+        int last = vaccinated.times.size() - 1;
+        assertEquals(0, (int) vaccinated.susceptibleCounts.get(last));
+        // フォーク先の変更は元のシミュレータの状態に影響しない
+        assertEquals(susceptible, simulator.snapshot(2.0, new SplitMixRandom(1)).susceptibleCount());
+
+        // 全員接種した分岐のあとでも、スナップショットからは感染が広がりうる状態で再開される
+        SARSimulator.SimulationResult baseline = simulator.resume(snapshot, 100.0, Collections.emptyList());
+        assertEquals(susceptible, (int) baseline.susceptibleCounts.get(0));
+        assertEquals(susceptible, snapshot.susceptibleCount());
+    }
+
+    @Test
+    @DisplayName("SplitMixRandomの複製は元と同じ乱数列を生成する")
+    public void testSplitMixRandomCopy() {
+        SplitMixRandom random = new SplitMixRandom(42);
+        random.nextDouble();
+        SplitMixRandom copy = random.copy();
+        for (int i = 0; i < 100; i++) {
+            assertEquals(random.nextLong(), copy.nextLong());
+            assertEquals(random.nextInt(17), copy.nextInt(17));
+            assertEquals(random.nextDouble(), copy.nextDouble());
+        }
+    }
+}
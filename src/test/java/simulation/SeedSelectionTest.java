@@ -0,0 +1,129 @@
+package simulation;
+
+import main.java.network.CSRBuilder;
+import main.java.network.EdgeBuffer;
+import main.java.network.Graph;
+import main.java.network.analysis.GraphStatistics;
+import main.java.network.topology.BA;
+import main.java.network.topology.ER;
+import main.java.simulation.SARSimulator;
+import main.java.simulation.SeedSelection;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * SeedSelection（初期感染ノードの選び方）のテスト
+ */
+public class SeedSelectionTest {
+
+    @ParameterizedTest
+    @EnumSource(SeedSelection.Strategy.class)
+    @DisplayName("各方式で重複のない有効なノードが指定数だけ選ばれ、同じシードなら同じ結果になる")
+    public void testSelectionIsValidAndReproducible(SeedSelection.Strategy strategy) {
+        Graph graph = BA.generateBA(1000, 5, 3, 2L);
+        int[] seeds = SeedSelection.select(graph, strategy, 50, new Random(7));
+
+        assertEquals(50, seeds.length);
+        assertEquals(50, Arrays.stream(seeds).distinct().count());
+        for (int seed : seeds) {
+            assertTrue(seed >= 0 && seed < graph.N);
+        }
+        assertArrayEquals(seeds, SeedSelection.select(graph, strategy, 50, new Random(7)));
+    }
+
+    @Test
+    @DisplayName("一様抽出は全ノードを選ぶ場合にも棄却なしで終わる")
+    public void testUniformSelectsAllNodes() {
+        int[] all = SeedSelection.sample(100_000, 100_000, new Random(1));
+        Arrays.sort(all);
+        for (int i = 0; i < all.length; i++) {
+            assertEquals(i, all[i]);
+        }
+        assertThrows(IllegalArgumentException.class,
+            () -> SeedSelection.select(ER.generateER(10, 0.5, 1L), SeedSelection.Strategy.UNIFORM, 11, new Random(1)));
+    }
+
+    @Test
+    @DisplayName("次数・コア数の上位選択がソートによる選択と一致する")
+    public void testTopSelectionMatchesSort() {
+        Graph graph = BA.generateBA(5000, 4, 2, 3L);
+        int count = 100;
+
+        // 選ばれたノードの次数の多重集合は、全次数を降順に並べた先頭count個と一致する
+        int[] degrees = new int[graph.N];
+        for (int i = 0; i < graph.N; i++) {
+            degrees[i] = graph.degree(i);
+        }
+        assertArrayEquals(topScores(degrees, count),
+            scoresOf(SeedSelection.select(graph, SeedSelection.Strategy.HIGH_DEGREE, count, new Random(1)), degrees));
+
+        int[] cores = GraphStatistics.coreNumbers(graph);
+        assertArrayEquals(topScores(cores, count),
+            scoresOf(SeedSelection.select(graph, SeedSelection.Strategy.K_CORE, count, new Random(1)), cores));
+    }
+
+    @Test
+    @DisplayName("選んだノードをそのままシミュレーターに渡せる")
+    public void testSeedsAreConsumedBySimulator() {
+        Graph graph = ER.generateER(300, 0.03, 4L);
+        int[] seeds = SeedSelection.select(graph, SeedSelection.Strategy.RANDOM_NEIGHBOR, 5, new Random(2));
+        SARSimulator.SimulationResult result = new SARSimulator(graph, 0.3, 0.1).runSimulation(seeds, 5.0);
+        assertEquals(5, (int) result.infectedCounts.get(0));
+    }
+
+    @Test
+    @DisplayName("隣接ノードとして選ばれうるノードを全て選べる（自己ループのみのノードを含む）")
+    public void testRandomNeighborsSelectsAllReachable() {
+        EdgeBuffer buffer = new EdgeBuffer();
+        buffer.add(0, 1);
+        buffer.add(1, 2);
+        buffer.add(3, 3);
+        Graph graph = CSRBuilder.build(5, new EdgeBuffer[]{buffer}, 1);
+
+        int[] seeds = SeedSelection.select(graph, SeedSelection.Strategy.RANDOM_NEIGHBOR, 4, new Random(5));
+        Arrays.sort(seeds);
+        assertArrayEquals(new int[]{0, 1, 2, 3}, seeds);
+        assertThrows(IllegalArgumentException.class,
+            () -> SeedSelection.select(graph, SeedSelection.Strategy.RANDOM_NEIGHBOR, 5, new Random(5)));
+    }
+
+    @Test
+    @DisplayName("隣接ノードは次数の大きいノードほど選ばれやすい")
+    public void testRandomNeighborsFavorsHubs() {
+        EdgeBuffer buffer = new EdgeBuffer();
+        for (int leaf = 1; leaf < 20; leaf++) {
+            buffer.add(0, leaf);
+        }
+        Graph star = CSRBuilder.build(20, new EdgeBuffer[]{buffer}, 1);
+
+        int hub = 0;
+        for (int trial = 0; trial < 200; trial++) {
+            if (SeedSelection.select(star, SeedSelection.Strategy.RANDOM_NEIGHBOR, 1, new Random(trial))[0] == 0) {
+                hub++;
+            }
+        }
+        // 中心の重みは19（各葉から1ずつ）、葉の重みはそれぞれ1/19 なので中心が選ばれる確率は19/20
+        assertTrue(hub > 150, "中心が選ばれた回数: " + hub);
+    }
+
+    private static int[] topScores(int[] scores, int count) {
+        int[] sorted = scores.clone();
+        Arrays.sort(sorted);
+        int[] top = new int[count];
+        for (int i = 0; i < count; i++) {
+            top[i] = sorted[sorted.length - 1 - i];
+        }
+        return top;
+    }
+
+    private static int[] scoresOf(int[] nodes, int[] scores) {
+        return Arrays.stream(nodes).map(node -> -scores[node]).sorted().map(score -> -score).toArray();
+    }
+}
@@ -1,7 +1,10 @@
 package simulation;
 
+import main.java.network.topology.ER;
+import main.java.simulation.ResultsFile;
 import main.java.simulation.SimulationDataWriter;
 import main.java.simulation.SimulationDataWriter.SimulationRun;
+import main.java.simulation.TrajectoryAggregator;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.AfterEach;
@@ -12,6 +15,7 @@ import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.HashMap;
@@ -100,6 +104,20 @@ public class SimulationDataWriterTest {
         assertTrue(lines.get(2).contains("2,0.400000,0.200000,1,1000,10,60.000000,600,300,30.000000,1200,2.000000"));
     }
     
+    @Test
+    void testWriteResultsBinary() throws IOException {
+        // 列形式のバイナリファイルへの書き出しをテスト
+        List<SimulationRun> results = new ArrayList<>();
+        results.add(new SimulationRun(1, 0.3, 0.1, 0, 1000, 10, 50.0, 500, 200, 25.123456789, 1000, 1.5));
+        
+        SimulationDataWriter.writeResultsBinary(testOutputDir, results);
+        
+        File resultsFile = new File(testOutputDir + "/results.bin");
+        assertTrue(resultsFile.exists(), "バイナリの結果ファイルが作成されていません");
+        double[] peakTimes = ResultsFile.load(resultsFile.toPath()).doubleColumn(ResultsFile.Column.PEAK_TIME);
+        assertEquals(25.123456789, peakTimes[0], "精度が失われています");
+    }
+    
     @Test
     void testWriteStatus() throws IOException {
         // テスト用のステータス情報を作成
@@ -155,6 +173,55 @@ public class SimulationDataWriterTest {
         assertTrue(lines.get(0).contains("run_id,transmission_rate,recovery_rate"));
     }
     
+    @Test
+    void testWriteNetworkStats() throws IOException {
+        // 小さなERネットワークの統計量を書き出す
+        Map<String, Object> networkStats = new HashMap<>();
+        networkStats.put("ER_N100", ER.generateER(100, 0.05, 1L).statistics().toMap());
+        
+        SimulationDataWriter.writeNetworkStats(testOutputDir, networkStats);
+        
+        // ファイルの内容を確認
+        File statsFile = new File(testOutputDir + "/network_stats.json");
+        assertTrue(statsFile.exists(), "統計量ファイルが作成されていません");
+        String content = Files.readString(statsFile.toPath());
+        assertTrue(content.contains("\"ER_N100\""), "ネットワーク設定のキーが含まれていません");
+        assertTrue(content.contains("\"degree_histogram\""), "次数分布が含まれていません");
+        assertTrue(content.contains("\"average_clustering\""), "クラスタ係数が含まれていません");
+    }
+    
+    @Test
+    void testWritePairedDifferences() throws IOException {
+        Map<String, Object> pair = new HashMap<>();
+        pair.put("mean_difference", 0.1);
+        pair.put("paired_standard_error", 0.01);
+        Map<String, Object> pairedDifferences = new HashMap<>();
+        pairedDifferences.put("ER_N100_gamma0.1000_init1_tau0.2000-0.3000", pair);
+        
+        SimulationDataWriter.writePairedDifferences(testOutputDir, pairedDifferences);
+        
+        File pairedFile = new File(testOutputDir + "/paired_differences.json");
+        assertTrue(pairedFile.exists(), "対応のある差のファイルが作成されていません");
+        String content = Files.readString(pairedFile.toPath());
+        assertTrue(content.contains("\"paired_standard_error\""), "標準誤差が含まれていません");
+    }
+    
+    @Test
+    void testWriteTrajectoryBands() throws IOException {
+        // 感染ノード数の推移の帯の書き出しをテスト
+        TrajectoryAggregator aggregator = new TrajectoryAggregator(10.0, 3, 0.5);
+        aggregator.add(Arrays.asList(0.0, 4.0), Arrays.asList(1, 3));
+        Map<String, Object> trajectoryBands = new HashMap<>();
+        trajectoryBands.put("BA_N100_tau0.3000_gamma0.1000_init1", aggregator.toMap());
+        
+        SimulationDataWriter.writeTrajectoryBands(testOutputDir, trajectoryBands);
+        
+        File bandsFile = new File(testOutputDir + "/trajectory_bands.json");
+        assertTrue(bandsFile.exists(), "推移の帯のファイルが作成されていません");
+        String content = Files.readString(bandsFile.toPath());
+        assertTrue(content.contains("\"quantiles_infected\""), "分位点が含まれていません");
+    }
+    
     @Test
     void testSimulationRunConstructor() {
         // SimulationRunクラスのコンストラクタをテスト
@@ -0,0 +1,114 @@
+package simulation;
+
+import main.java.network.temporal.ContactFile;
+import main.java.network.temporal.ContactStream;
+import main.java.network.temporal.ContactStream.Contact;
+import main.java.simulation.SARSimulator;
+import main.java.simulation.TemporalSimulator;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * TemporalSimulator（時刻つき接触列の再生）とContactFileのテスト
+ */
+public class TemporalSimulatorTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("読み込みバッファより大きな接触ファイルを全て順に読める")
+    public void testContactFileSpansBuffers() throws IOException {
+        StringBuilder text = new StringBuilder("# SRC DST TIME\n");
+        int lines = 100_000;
+        for (int i = 0; i < lines; i++) {
+            text.append(i % 1000).append(' ').append((i * 7) % 1000).append('\t').append(1_200_000_000L + i).append('\n');
+        }
+        text.append("% trailing comment\n5 6 1200100000.5");
+        Path file = tempDir.resolve("contacts.txt");
+        Files.writeString(file, text);
+
+        long count = 0;
+        try (ContactFile contacts = new ContactFile(file)) {
+            while (contacts.next()) {
+                if (count < lines) {
+                    assertEquals(count % 1000, contacts.source());
+                    assertEquals((count * 7) % 1000, contacts.target());
+                    assertEquals(1_200_000_000L + count, contacts.time());
+                }
+                count++;
+            }
+            assertEquals(5, contacts.source());
+            assertEquals(1_200_100_000.5, contacts.time(), 1e-6);
+        }
+        assertEquals(lines + 1, count);
+    }
+
+    @Test
+    @DisplayName("時刻が逆順の接触ファイルはIOExceptionになる")
+    public void testContactFileRejectsUnorderedTimes() throws IOException {
+        Path file = tempDir.resolve("unordered.txt");
+        Files.writeString(file, "0 1 10\n1 2 5\n");
+        try (ContactFile contacts = new ContactFile(file)) {
+            assertTrue(contacts.next());
+            assertThrows(IOException.class, contacts::next);
+        }
+    }
+
+    @Test
+    @DisplayName("感染確率1・回復なしなら接触の連鎖に沿って順に感染する")
+    public void testChainTransmission() throws IOException {
+        // 0-1 (t=1), 1-2 (t=2), ..., 8-9 (t=9)。5-6より前に 7-8 の接触があっても感染しない
+        List<Contact> list = new ArrayList<>();
+        for (int i = 0; i < 9; i++) {
+            if (i == 5) {
+                list.add(new Contact(7, 8, 5.5));
+            }
+            list.add(new Contact(i, i + 1, i + 1));
+        }
+        TemporalSimulator simulator = new TemporalSimulator(10, 1.0, 0.0, 1.0);
+        SARSimulator.SimulationResult result = simulator.runSimulation(
+            ContactStream.of(list.iterator()), new int[]{0}, 0.0, 20.0, new Random(1));
+
+        // 記録時刻 0, 1, ..., 19（時刻tの接触は時刻tの記録の後に反映される）
+        assertEquals(20, result.times.size());
+        assertEquals(1, (int) result.infectedCounts.get(0));
+        assertEquals(1, (int) result.infectedCounts.get(1));
+        assertEquals(2, (int) result.infectedCounts.get(2));
+        assertEquals(10, (int) result.infectedCounts.get(19));
+        assertEquals(10, simulator.contactCount());
+    }
+
+    @Test
+    @DisplayName("回復は回復時刻の順に処理され、各時刻でS+I+R=Nが成り立つ")
+    public void testRecoveryAndConservation() throws IOException {
+        Random contactsRandom = new Random(3);
+        List<Contact> list = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            list.add(new Contact(contactsRandom.nextInt(300), contactsRandom.nextInt(300), i * 0.01));
+        }
+        TemporalSimulator simulator = new TemporalSimulator(300, 0.5, 0.5, 0.5);
+        SARSimulator.SimulationResult result = simulator.runSimulation(
+            ContactStream.of(list.iterator()), new int[]{0, 1, 2, 3, 4}, 0.0, 200.0, new Random(4));
+
+        for (int i = 0; i < result.times.size(); i++) {
+            assertEquals(300, result.susceptibleCounts.get(i) + result.infectedCounts.get(i) + result.recoveredCounts.get(i));
+            if (i > 0) {
+                assertTrue(result.recoveredCounts.get(i) >= result.recoveredCounts.get(i - 1));
+            }
+        }
+        int last = result.times.size() - 1;
+        assertEquals(0, (int) result.infectedCounts.get(last));
+        assertTrue(result.recoveredCounts.get(last) > 5);
+    }
+}
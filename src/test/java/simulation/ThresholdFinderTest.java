@@ -0,0 +1,53 @@
+package simulation;
+
+import main.java.network.Graph;
+import main.java.network.topology.RR;
+import main.java.simulation.ThresholdFinder;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ThresholdFinder（流行閾値の探索）のテスト
+ */
+public class ThresholdFinderTest {
+
+    @Test
+    @DisplayName("ランダム正則グラフの平均場近似の臨界点は γ/(k-2)")
+    public void testMeanFieldEstimate() {
+        Graph graph = RR.generateRR(1000, 4, 1L);
+        assertEquals(0.5 / 2, ThresholdFinder.meanFieldEstimate(graph, 0.5), 1e-12);
+    }
+
+    @Test
+    @DisplayName("臨界点は平均場近似の近くにあり、推定値は信頼区間に含まれる")
+    public void testFindNearMeanField() {
+        Graph graph = RR.generateRR(2000, 4, 2L);
+        ThresholdFinder finder = new ThresholdFinder(graph, 1.0, 0.1, 0.2, 100, 6);
+        ThresholdFinder.Result result = finder.find(3L);
+
+        double meanField = ThresholdFinder.meanFieldEstimate(graph, 1.0);
+        assertTrue(result.criticalRate > meanField / 2 && result.criticalRate < meanField * 2, result.toString());
+        assertTrue(result.lower <= result.criticalRate && result.criticalRate <= result.upper);
+        assertTrue(result.fitted);
+        assertEquals((2 + 6) * 100, result.simulations);
+    }
+
+    @Test
+    @DisplayName("γを2倍にすると臨界点もおよそ2倍になる（時間の尺度変換）")
+    public void testScalesWithRecoveryRate() {
+        Graph graph = RR.generateRR(1000, 5, 4L);
+        ThresholdFinder.Result slow = new ThresholdFinder(graph, 0.5, 0.1, 0.2, 100, 5).find(5L);
+        ThresholdFinder.Result fast = new ThresholdFinder(graph, 1.0, 0.1, 0.2, 100, 5).find(5L);
+        assertEquals(2.0, fast.criticalRate / slow.criticalRate, 0.1);
+    }
+
+    @Test
+    @DisplayName("臨界点を含まない探索範囲は例外になる")
+    public void testInvalidBracket() {
+        Graph graph = RR.generateRR(500, 4, 6L);
+        ThresholdFinder finder = new ThresholdFinder(graph, 1.0, 0.1, 0.2, 50, 3);
+        assertThrows(IllegalArgumentException.class, () -> finder.find(5.0, 10.0, 7L));
+    }
+}
@@ -0,0 +1,73 @@
+package simulation;
+
+import main.java.network.Graph;
+import main.java.network.topology.BA;
+import main.java.simulation.SARSimulator;
+import main.java.simulation.TrajectoryAggregator;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * TrajectoryAggregator（時刻グリッド上の推移の逐次集計）のテスト
+ */
+public class TrajectoryAggregatorTest {
+
+    @Test
+    @DisplayName("各グリッド点ではその時刻以前の最後の記録の値を使い、実行の終了後は最後の値が続く")
+    public void testStepFunctionOnGrid() {
+        TrajectoryAggregator aggregator = new TrajectoryAggregator(4.0, 5, 0.5);
+        aggregator.add(Arrays.asList(0.0, 0.5, 2.0, 2.5), Arrays.asList(1, 2, 5, 3));
+        aggregator.add(Arrays.asList(0.0, 1.0), Arrays.asList(3, 0));
+
+        assertEquals(2, aggregator.runs());
+        assertArrayEquals(new double[]{0, 1, 2, 3, 4}, aggregator.grid());
+        // 1本目: 1, 2, 5, 3, 3   2本目: 3, 0, 0, 0, 0
+        double[] expected = {2.0, 1.0, 2.5, 1.5, 1.5};
+        for (int g = 0; g < 5; g++) {
+            assertEquals(expected[g], aggregator.mean(g), 1e-12);
+            assertEquals(expected[g], aggregator.quantile(g, 0), 1e-12);
+        }
+        assertEquals(Math.sqrt(2), aggregator.standardDeviation(0), 1e-12);
+        assertThrows(IllegalArgumentException.class,
+            () -> aggregator.add(Arrays.asList(0.0, 1.0), Arrays.asList(1)));
+    }
+
+    @Test
+    @DisplayName("シミュレーションの帯は分位点の順に並び、平均は実行ごとの値の平均に一致する")
+    public void testSimulationBands() {
+        Graph graph = BA.generateBA(300, 5, 3, 1L);
+        SARSimulator simulator = new SARSimulator(graph, 0.4, 0.3);
+        TrajectoryAggregator aggregator = new TrajectoryAggregator(20.0, 21, 0.05, 0.5, 0.95);
+        double sumAtTen = 0;
+        int runs = 300;
+        for (int run = 0; run < runs; run++) {
+            SARSimulator.SimulationResult result = simulator.runSimulation(new int[]{0, 1, 2}, 20.0, new Random(run));
+            aggregator.add(result);
+            int last = 0;
+            while (last + 1 < result.times.size() && result.times.get(last + 1) <= 10.0) {
+                last++;
+            }
+            sumAtTen += result.infectedCounts.get(last);
+        }
+
+        assertEquals(sumAtTen / runs, aggregator.mean(10), 1e-9);
+        assertEquals(3.0, aggregator.mean(0));
+        for (int g = 0; g < 21; g++) {
+            assertTrue(aggregator.quantile(g, 0) <= aggregator.quantile(g, 1) + 1e-9);
+            assertTrue(aggregator.quantile(g, 1) <= aggregator.quantile(g, 2) + 1e-9);
+        }
+
+        Map<String, Object> map = aggregator.toMap();
+        assertEquals(300L, map.get("runs"));
+        @SuppressWarnings("unchecked")
+        Map<String, Object> bands = (Map<String, Object>) map.get("quantiles_infected");
+        assertEquals(List.of("0.05", "0.5", "0.95"), List.copyOf(bands.keySet()));
+    }
+}
@@ -0,0 +1,175 @@
+package simulation;
+
+import main.java.network.Graph;
+import main.java.network.topology.BA;
+import main.java.simulation.SARSimulator;
+import main.java.simulation.SplitMixRandom;
+import main.java.simulation.TransmissionTreeRecorder;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * TransmissionTreeRecorder（感染経路の記録）のテスト
+ */
+public class TransmissionTreeRecorderTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("感染源は感染時刻より前に感染した隣接ノードで、初期感染ノードの感染源は-1")
+    public void testInfectorIsInfectedNeighbor() throws IOException {
+        Graph graph = BA.generateBA(300, 5, 3, 1L);
+        SARSimulator simulator = new SARSimulator(graph, 0.6, 0.3);
+        try (TransmissionTreeRecorder recorder = new TransmissionTreeRecorder(300, 1.0, null)) {
+            List<int[]> events = new ArrayList<>();
+            double[] infectionTimes = new double[300];
+            simulator.setTransmissionObserver((infectee, infector, time) -> {
+                events.add(new int[]{infectee, infector});
+                infectionTimes[infectee] = time;
+                recorder.transmitted(infectee, infector, time);
+            }, new SplitMixRandom(9L));
+            recorder.beginRun(0);
+            SARSimulator.SimulationResult result = simulator.runSimulation(new int[]{0, 1}, 100.0, new Random(3));
+            TransmissionTreeRecorder.RunSummary summary = recorder.endRun();
+
+            int last = result.times.size() - 1;
+            assertEquals(result.infectedCounts.get(last) + result.recoveredCounts.get(last), events.size());
+            assertEquals(events.size(), summary.infections);
+            for (int[] event : events) {
+                if (event[1] < 0) {
+                    assertTrue(event[0] == 0 || event[0] == 1);
+                    continue;
+                }
+                boolean neighbor = false;
+                for (int s = graph.addressList[event[0]]; s < graph.cursorList[event[0]]; s++) {
+                    neighbor |= graph.edgeList[s] == event[1];
+                }
+                assertTrue(neighbor);
+                assertTrue(infectionTimes[event[1]] <= infectionTimes[event[0]]);
+            }
+            // 初期感染ノード以外の感染はすべて誰かの子なので、子の数の平均は (感染数 - 2) / 感染数
+            assertEquals(2, summary.generations[0]);
+            assertEquals((double) (events.size() - 2) / events.size(), summary.meanOffspring, 1e-12);
+        }
+    }
+
+    @Test
+    @DisplayName("感染経路を記録してもシミュレーションの結果は変わらない")
+    public void testObserverDoesNotChangeResult() throws IOException {
+        Graph graph = BA.generateBA(200, 4, 2, 2L);
+        SARSimulator plain = new SARSimulator(graph, 0.5, 0.4);
+        SARSimulator.SimulationResult expected = plain.runSimulation(new int[]{5}, 50.0, new Random(11));
+
+        SARSimulator observed = new SARSimulator(graph, 0.5, 0.4);
+        try (TransmissionTreeRecorder recorder = new TransmissionTreeRecorder(200, 1.0, null)) {
+            observed.setTransmissionObserver(recorder, new SplitMixRandom(1L));
+            recorder.beginRun(0);
+            SARSimulator.SimulationResult actual = observed.runSimulation(new int[]{5}, 50.0, new Random(11));
+            recorder.endRun();
+            assertEquals(expected.times, actual.times);
+            assertEquals(expected.infectedCounts, actual.infectedCounts);
+        }
+        assertThrows(IllegalArgumentException.class,
+            () -> observed.setTransmissionObserver((infectee, infector, time) -> { }, null));
+    }
+
+    @Test
+    @DisplayName("バイナリファイルに書き出した伝播木を読み込むと記録と一致し、累計は実行ごとの集計の和になる")
+    public void testWriteAndRead() throws IOException {
+        Graph graph = BA.generateBA(150, 4, 2, 3L);
+        SARSimulator simulator = new SARSimulator(graph, 0.7, 0.3);
+        Path file = tempDir.resolve("transmission_trees.bin");
+        List<List<double[]>> recorded = new ArrayList<>();
+        long infections = 0;
+        TransmissionTreeRecorder recorder = new TransmissionTreeRecorder(150, 2.0, file);
+        try (recorder) {
+            for (int run = 0; run < 4; run++) {
+                List<double[]> events = new ArrayList<>();
+                recorded.add(events);
+                simulator.setTransmissionObserver((infectee, infector, time) -> {
+                    events.add(new double[]{infectee, infector, time});
+                    recorder.transmitted(infectee, infector, time);
+                }, new SplitMixRandom(run));
+                recorder.beginRun(100 + run);
+                simulator.runSimulation(new int[]{run}, 30.0, new Random(run));
+                infections += recorder.endRun().infections;
+            }
+        }
+
+        long[] generations = recorder.generationDistribution();
+        long[] offspring = recorder.offspringDistribution();
+        long generationTotal = 0, offspringTotal = 0, children = 0;
+        for (long count : generations) {
+            generationTotal += count;
+        }
+        for (int k = 0; k < offspring.length; k++) {
+            offspringTotal += offspring[k];
+            children += k * offspring[k];
+        }
+        assertEquals(4, recorder.runs());
+        assertEquals(4, generations[0]);
+        assertEquals(infections, generationTotal);
+        assertEquals(infections, offspringTotal);
+        assertEquals(infections - 4, children);
+
+        List<TransmissionTreeRecorder.Tree> trees = new ArrayList<>();
+        TransmissionTreeRecorder.read(file, trees::add);
+        assertEquals(4, trees.size());
+        for (int run = 0; run < 4; run++) {
+            TransmissionTreeRecorder.Tree tree = trees.get(run);
+            List<double[]> events = recorded.get(run);
+            assertEquals(100 + run, tree.runId);
+            assertEquals(events.size(), tree.infectees.length);
+            for (int e = 0; e < events.size(); e++) {
+                assertEquals((int) events.get(e)[0], tree.infectees[e]);
+                assertEquals((int) events.get(e)[1], tree.infectors[e]);
+                assertEquals(events.get(e)[2], tree.times[e]);
+            }
+        }
+
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[TransmissionTreeRecorder.HEADER_BYTES + 16] ^= 1;
+        Files.write(file, bytes);
+        assertThrows(IOException.class, () -> TransmissionTreeRecorder.read(file, tree -> { }));
+    }
+
+    @Test
+    @DisplayName("書き出し用バッファより大きい実行も分割して書き出し、読み込むと一致する")
+    public void testRunLargerThanBuffer() throws IOException {
+        int N = 70000;
+        Path file = tempDir.resolve("large_trees.bin");
+        try (TransmissionTreeRecorder recorder = new TransmissionTreeRecorder(N, 1.0, file)) {
+            for (int run = 0; run < 2; run++) {
+                recorder.beginRun(run);
+                recorder.transmitted(0, -1, 0.0);
+                for (int node = 1; node < N; node++) {
+                    recorder.transmitted(node, 0, node * 1e-3 + run);
+                }
+                recorder.endRun();
+            }
+        }
+
+        List<TransmissionTreeRecorder.Tree> trees = new ArrayList<>();
+        TransmissionTreeRecorder.read(file, trees::add);
+        assertEquals(2, trees.size());
+        for (int run = 0; run < 2; run++) {
+            TransmissionTreeRecorder.Tree tree = trees.get(run);
+            assertEquals(N, tree.infectees.length);
+            assertEquals(-1, tree.infectors[0]);
+            assertEquals(N - 1, tree.infectees[N - 1]);
+            assertEquals(0, tree.infectors[N - 1]);
+            assertEquals((N - 1) * 1e-3 + run, tree.times[N - 1]);
+        }
+    }
+}